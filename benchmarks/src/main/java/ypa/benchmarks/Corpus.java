@@ -0,0 +1,87 @@
+package ypa.benchmarks;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Scanner;
+
+import ypa.model.KSPuzzle;
+import ypa.solvers.BacktrackSolver;
+import ypa.solvers.StandardCellSelector;
+
+/**
+ * Access to the checked-in puzzle corpus.
+ * The folder is given by system property {@code ypa.puzzles}; by default
+ * it is {@code ../puzzles} when run from the benchmarks folder, and
+ * {@code puzzles} otherwise.
+ */
+public final class Corpus {
+
+    /** The Killer Sudoku puzzles of the corpus. */
+    public static final String PUZZLES = "puzzle1.zgr,puzzle2.zgr,puzzle3.zgr,puzzle4.zgr";
+
+    /** Prevents instantiation. */
+    private Corpus() {
+    }
+
+    /**
+     * Gets the folder with the puzzles.
+     *
+     * @return path of the puzzle folder
+     */
+    private static Path folder() {
+        final String property = System.getProperty("ypa.puzzles");
+        if (property != null) {
+            return Paths.get(property);
+        }
+        final Path parent = Paths.get("..", "puzzles");
+        return Files.isDirectory(parent) ? parent : Paths.get("puzzles");
+    }
+
+    /**
+     * Reads the text of a puzzle file.
+     *
+     * @param name  the file name
+     * @return contents of the file
+     * @throws UncheckedIOException  if the file cannot be read
+     */
+    public static String read(final String name) {
+        try {
+            return Files.readString(folder().resolve(name), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Parses a puzzle from its text.
+     *
+     * @param name  the name of the puzzle
+     * @param text  the contents of the puzzle file
+     * @return the puzzle
+     */
+    public static KSPuzzle parse(final String name, final String text) {
+        return new KSPuzzle(new Scanner(text), name);
+    }
+
+    /**
+     * Parses a puzzle from its text and solves it.
+     *
+     * @param name  the name of the puzzle
+     * @param text  the contents of the puzzle file
+     * @return the solved puzzle
+     * @throws IllegalStateException  if the puzzle has no solution
+     */
+    public static KSPuzzle solved(final String name, final String text) {
+        final KSPuzzle puzzle = parse(name, text);
+        final BacktrackSolver solver = new BacktrackSolver(puzzle, null,
+            StandardCellSelector.MINIMUM_REMAINING_VALUES);
+        if (!solver.solve()) {
+            throw new IllegalStateException(name + " has no solution");
+        }
+        return puzzle;
+    }
+}
@@ -0,0 +1,73 @@
+package ypa.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ypa.model.ByteTokenizer;
+import ypa.model.KSGrid;
+
+/**
+ * Benchmark of constructing a {@link KSGrid} from a {@link Scanner},
+ * and from a {@link ByteTokenizer}.
+ * The file is read into memory beforehand, so no disk access is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark {
+
+    /** The puzzle to parse. */
+    @Param({"puzzle1.zgr", "puzzle2.zgr", "puzzle3.zgr", "puzzle4.zgr"})
+    public String name;
+
+    /** The contents of the puzzle file. */
+    private String text;
+
+    /** The contents of the puzzle file, as bytes. */
+    private byte[] bytes;
+
+    /**
+     * Reads the puzzle file.
+     */
+    @Setup
+    public void setUp() {
+        text = Corpus.read(name);
+        bytes = text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parses the puzzle with a scanner.
+     *
+     * @return the grid
+     */
+    @Benchmark
+    public KSGrid parse() {
+        return new KSGrid(new Scanner(text));
+    }
+
+    /**
+     * Parses the puzzle with a tokenizer.
+     *
+     * @return the grid
+     */
+    @Benchmark
+    public KSGrid parseTokenizer() {
+        return new KSGrid(new ByteTokenizer(bytes));
+    }
+}
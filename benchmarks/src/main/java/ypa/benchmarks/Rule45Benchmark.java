@@ -0,0 +1,74 @@
+package ypa.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ypa.command.CompoundCommand;
+import ypa.model.KSCell;
+import ypa.model.KSPuzzle;
+import ypa.reasoning.Rule45Reasoner;
+
+/**
+ * Benchmark of {@link Rule45Reasoner#apply()}, on a solved puzzle of which
+ * every third cell has been emptied again. This measures a pass over all
+ * sum constraints derived from the cages, as in a round of a fixpoint.
+ * Each invocation reverts the cells filled in, if any, so that every
+ * invocation starts from the same state.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Rule45Benchmark {
+
+    /** The puzzle to reason about. */
+    @Param({"puzzle1.zgr", "puzzle4.zgr"})
+    public String name;
+
+    /** The reasoner. */
+    private Rule45Reasoner reasoner;
+
+    /**
+     * Solves the puzzle and empties every third cell.
+     */
+    @Setup
+    public void setUp() {
+        final KSPuzzle puzzle = Corpus.solved(name, Corpus.read(name));
+        int k = 0;
+        for (KSCell[] row : puzzle.getMatrix()) {
+            for (KSCell cell : row) {
+                if (k++ % 3 == 0) {
+                    cell.setState(KSCell.EMPTY);
+                }
+            }
+        }
+        reasoner = new Rule45Reasoner(puzzle);
+    }
+
+    /**
+     * Applies the reasoner and reverts its command, if any.
+     *
+     * @return the command
+     */
+    @Benchmark
+    public CompoundCommand applyAndRevert() {
+        final CompoundCommand command = reasoner.apply();
+        if (command != null) {
+            command.revert();
+        }
+        return command;
+    }
+}
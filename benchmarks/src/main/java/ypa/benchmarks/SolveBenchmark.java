@@ -0,0 +1,85 @@
+package ypa.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ypa.model.KSPuzzle;
+import ypa.solvers.BacktrackSolver;
+import ypa.solvers.IterativeBacktrackSolver;
+import ypa.solvers.StandardCellSelector;
+
+/**
+ * Benchmark of {@link BacktrackSolver#solve()}, per puzzle and cell selector,
+ * compared with {@link IterativeBacktrackSolver#solve()}.
+ * Each invocation solves a freshly parsed puzzle; parsing is not measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolveBenchmark {
+
+    /** The puzzle to solve. */
+    @Param({"puzzle1.zgr", "puzzle2.zgr", "puzzle3.zgr", "puzzle4.zgr"})
+    public String name;
+
+    /** The cell selector. */
+    @Param({"FIRST_EMPTY", "MINIMUM_REMAINING_VALUES"})
+    public StandardCellSelector selector;
+
+    /** The contents of the puzzle file. */
+    private String text;
+
+    /** The unsolved puzzle for the next invocation. */
+    private KSPuzzle puzzle;
+
+    /**
+     * Reads the puzzle file.
+     */
+    @Setup(Level.Trial)
+    public void read() {
+        text = Corpus.read(name);
+    }
+
+    /**
+     * Parses a fresh puzzle.
+     */
+    @Setup(Level.Invocation)
+    public void parse() {
+        puzzle = Corpus.parse(name, text);
+    }
+
+    /**
+     * Solves the puzzle.
+     *
+     * @return whether the puzzle was solved
+     */
+    @Benchmark
+    public boolean solve() {
+        return new BacktrackSolver(puzzle, null, selector).solve();
+    }
+
+    /**
+     * Solves the puzzle without recursion.
+     *
+     * @return whether the puzzle was solved
+     */
+    @Benchmark
+    public boolean solveIterative() {
+        return new IterativeBacktrackSolver(puzzle, null, selector).solve();
+    }
+}
@@ -0,0 +1,68 @@
+package ypa.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ypa.command.SetCommand;
+import ypa.command.UndoRedo;
+import ypa.model.KSCell;
+import ypa.model.KSPuzzle;
+
+/**
+ * Benchmark of {@link UndoRedo#undoAll(boolean)} followed by
+ * {@link UndoRedo#redoAll()}, over a long history of cell changes.
+ * The history cycles through all cells and digits, as a user trying out
+ * values would.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UndoRedoBenchmark {
+
+    /** The number of commands in the history. */
+    @Param({"1000", "100000"})
+    public int length;
+
+    /** The history. */
+    private UndoRedo undoRedo;
+
+    /**
+     * Builds the history.
+     */
+    @Setup
+    public void setUp() {
+        final KSPuzzle puzzle = Corpus.parse("puzzle1.zgr", Corpus.read("puzzle1.zgr"));
+        final KSCell[][] matrix = puzzle.getMatrix();
+        undoRedo = new UndoRedo();
+        for (int i = 0; i < length; i++) {
+            final KSCell cell = matrix[i % 9][(i / 9) % 9];
+            undoRedo.did(new SetCommand(cell, 1 + i % 9));
+        }
+    }
+
+    /**
+     * Undoes and redoes the whole history.
+     *
+     * @return the history
+     */
+    @Benchmark
+    public UndoRedo undoAllRedoAll() {
+        undoRedo.undoAll(true);
+        undoRedo.redoAll();
+        return undoRedo;
+    }
+}
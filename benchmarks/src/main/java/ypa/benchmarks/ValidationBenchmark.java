@@ -0,0 +1,75 @@
+package ypa.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ypa.model.KSCell;
+import ypa.model.KSPuzzle;
+
+/**
+ * Benchmark of {@link KSPuzzle#isValid(KSCell)}, checking every cell of
+ * a puzzle that is solved except for every third cell.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+    /** The puzzle to validate. */
+    @Param({"puzzle1.zgr", "puzzle4.zgr"})
+    public String name;
+
+    /** The partially filled puzzle. */
+    private KSPuzzle puzzle;
+
+    /** All cells of the puzzle, row-major. */
+    private KSCell[] cells;
+
+    /**
+     * Solves the puzzle and empties every third cell.
+     */
+    @Setup
+    public void setUp() {
+        puzzle = Corpus.solved(name, Corpus.read(name));
+        cells = new KSCell[puzzle.getRowCount() * puzzle.getColumnCount()];
+        int k = 0;
+        for (KSCell[] row : puzzle.getMatrix()) {
+            for (KSCell cell : row) {
+                if (k % 3 == 0) {
+                    cell.setState(KSCell.EMPTY);
+                }
+                cells[k++] = cell;
+            }
+        }
+    }
+
+    /**
+     * Checks all cells.
+     *
+     * @return the number of valid cells
+     */
+    @Benchmark
+    public int isValidAllCells() {
+        int result = 0;
+        for (KSCell cell : cells) {
+            if (puzzle.isValid(cell)) {
+                result++;
+            }
+        }
+        return result;
+    }
+}
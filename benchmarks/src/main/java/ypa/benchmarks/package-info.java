@@ -0,0 +1,6 @@
+/**
+ * Package holding the JMH benchmarks of the puzzle assistant.
+ * They run against the Killer Sudoku puzzles in the {@code puzzles} folder;
+ * see {@link ypa.benchmarks.Corpus}.
+ */
+package ypa.benchmarks;
@@ -0,0 +1,158 @@
+package ypa.batch;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import ypa.generator.KSGenerator;
+
+/**
+ * Headless runner that generates a batch of Killer Sudoku puzzles,
+ * each with exactly one solution.
+ * <p>
+ * Usage: {@code java ypa.batch.BatchGenerate [--count N] [--seed S]
+ * [--max-cage K] [--dir DIR]}.
+ * Puzzle {@code i} (from 0) is generated by a {@link KSGenerator} with
+ * seed {@code S + i} (default seed: 1), so that a batch can be reproduced
+ * and extended. Puzzles are generated concurrently in the common
+ * fork-join pool, which also evaluates the candidates of each puzzle.
+ * <p>
+ * With {@code --dir}, puzzle {@code i} is written to file
+ * {@code gen-<S+i>.zgr} in directory {@code DIR}; otherwise, the puzzles
+ * are written to standard output, in order, separated by empty lines.
+ * The exit status is 0 on success, 1 if writing fails, and 2 for
+ * invalid arguments.
+ */
+public final class BatchGenerate {
+
+    /** The usage message. */
+    private static final String USAGE = "usage: BatchGenerate [--count N] [--seed S] "
+        + "[--max-cage K] [--dir DIR]";
+
+    /** The number of puzzles. */
+    private int count = 1;
+
+    /** The seed of the first puzzle. */
+    private long seed = 1;
+
+    /** The maximum number of cells in a cage. */
+    private int maxCageSize = KSGenerator.DEFAULT_MAX_CAGE_SIZE;
+
+    /** The directory to write puzzle files to; null for the output stream. */
+    private Path dir;
+
+    /** Where to write puzzles if there is no directory. */
+    private final PrintStream out;
+
+    /**
+     * Constructs a batch generator from command-line arguments.
+     *
+     * @param args  the arguments
+     * @param out  where to write puzzles if no directory is given
+     * @throws IllegalArgumentException  if the arguments are invalid
+     */
+    BatchGenerate(final String[] args, final PrintStream out) {
+        this.out = out;
+        for (int i = 0; i < args.length; i++) {
+            final String option = args[i];
+            if (i + 1 == args.length) {
+                throw new IllegalArgumentException("missing value for " + option);
+            }
+            final String value = args[++i];
+            switch (option) {
+                case "--count":
+                    count = (int) parseNumber(value, 1, Integer.MAX_VALUE);
+                    break;
+                case "--seed":
+                    seed = parseNumber(value, Long.MIN_VALUE, Long.MAX_VALUE);
+                    break;
+                case "--max-cage":
+                    maxCageSize = (int) parseNumber(value, 1, 9);
+                    break;
+                case "--dir":
+                    dir = Path.of(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown option " + option);
+            }
+        }
+    }
+
+    /**
+     * Parses a number in a given range.
+     *
+     * @param value  the argument
+     * @param min  the least valid number
+     * @param max  the greatest valid number
+     * @return the number
+     * @throws IllegalArgumentException  if {@code value} is not a number in range
+     */
+    private static long parseNumber(final String value, final long min, final long max) {
+        final long result;
+        try {
+            result = Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid number " + value);
+        }
+        if (result < min || result > max) {
+            throw new IllegalArgumentException("number out of range " + value);
+        }
+        return result;
+    }
+
+    /**
+     * Generates all puzzles and writes them, in order.
+     *
+     * @throws IOException  if writing a puzzle file fails
+     */
+    void run() throws IOException {
+        final ForkJoinPool pool = ForkJoinPool.commonPool();
+        final List<ForkJoinTask<String>> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            final long puzzleSeed = seed + i;
+            tasks.add(pool.submit(() ->
+                new KSGenerator(puzzleSeed, maxCageSize, pool).generate()));
+        }
+        if (dir != null) {
+            Files.createDirectories(dir);
+        }
+        for (int i = 0; i < count; i++) {
+            final String text = tasks.get(i).join();
+            if (dir != null) {
+                Files.writeString(dir.resolve("gen-" + (seed + i) + ".zgr"), text,
+                    StandardCharsets.UTF_8);
+            } else {
+                out.print(i == 0 ? text : "\n" + text);
+            }
+        }
+    }
+
+    /**
+     * Runs the batch generator.
+     *
+     * @param args  the command-line arguments
+     */
+    public static void main(final String[] args) {
+        final BatchGenerate batch;
+        try {
+            batch = new BatchGenerate(args, System.out);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+        try {
+            batch.run();
+        } catch (IOException e) {
+            System.err.println("cannot write puzzle: " + e);
+            System.exit(1);
+        }
+    }
+}
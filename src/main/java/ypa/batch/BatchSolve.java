@@ -0,0 +1,464 @@
+package ypa.batch;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.management.JMException;
+
+import ypa.model.ByteTokenizer;
+import ypa.model.KSPuzzle;
+import ypa.reasoning.DifficultyGrader;
+import ypa.solvers.AbstractSolver;
+import ypa.solvers.BacktrackSolver;
+import ypa.solvers.DancingLinksSolver;
+import ypa.solvers.IterativeBacktrackSolver;
+import ypa.solvers.ParallelBacktrackSolver;
+import ypa.solvers.SolutionCounter;
+import ypa.solvers.SolverMonitor;
+import ypa.solvers.SolverStatistics;
+import ypa.solvers.StandardCellSelector;
+
+/**
+ * Headless runner that solves a batch of Killer Sudoku and Kakuro puzzle files.
+ * <p>
+ * Usage: {@code java ypa.batch.BatchSolve [--threads N] [--solver NAME] [--unique]
+ * [--grade] [--stats] [--jmx] [PATH ...]}.
+ * Each path is a puzzle file, or a directory whose {@code .zgr} files are
+ * solved in name order. Without paths, or for path {@code -}, paths are
+ * read from standard input, one per line, and solved while reading.
+ * <p>
+ * Puzzles are solved concurrently on a pool of {@code N} threads
+ * (default: the number of available processors). For each puzzle, as soon
+ * as it is done, one tab-separated line is written to standard output:
+ * <pre>
+ *     name  status  milliseconds  solution
+ * </pre>
+ * where status is {@code solved}, {@code unsolvable}, or {@code error}, and
+ * solution is the grid as 81 digits, row-major (with {@code .} for empty
+ * cells), or the error message. With {@code --stats}, a fifth field holds
+ * the {@link SolverStatistics} of the solver.
+ * With {@code --jmx}, the statistics are also aggregated by a
+ * {@link SolverMonitor} that is registered with the platform MBean server,
+ * so that a long run can be watched with a JMX client.
+ * The exit status is 0 if all puzzles were solved, 1 if not, and 2 for
+ * invalid arguments.
+ * <p>
+ * With {@code --unique}, puzzles are not solved, but their solutions are
+ * counted with a {@link SolutionCounter}, up to two. The status is then
+ * {@code unique}, {@code multiple}, or {@code unsolvable}, and the last
+ * field is the number of solutions found ({@code 2+} for more than one);
+ * with {@code --stats}, a fifth field holds the number of search nodes.
+ * The exit status is then 0 if all puzzles have exactly one solution.
+ * <p>
+ * With {@code --grade}, puzzles are not solved, but graded by a
+ * {@link DifficultyGrader}. The status is then {@code graded} if its
+ * techniques solve the puzzle, and {@code stuck} if not, and the last
+ * field is the score with the number of steps per technique.
+ * The exit status is then 0 if all puzzles were graded.
+ * <p>
+ * A file whose first token starts with a letter holds a Kakuro puzzle.
+ * It is solved by a {@link ypa.solvers.KakuroSolver}, whatever solver was
+ * selected, and its solution is the states of its non-blocked cells, row-major.
+ * With {@code --unique} or {@code --grade}, which apply to Killer Sudoku
+ * only, a Kakuro puzzle is {@code skipped}, which does not count as
+ * a failure. A file that is neither kind of puzzle gets status
+ * {@code error}, with a message saying that it is malformed.
+ */
+public final class BatchSolve {
+
+    /** The solvers that can be selected. */
+    enum SolverKind {
+        /** Backtracking, choosing the first empty cell. */
+        BACKTRACK,
+        /** Backtracking, choosing cells by minimum remaining values. */
+        MRV,
+        /** As {@link #MRV}, without recursion and allocation while searching. */
+        ITERATIVE,
+        /** Dancing links. */
+        DLX,
+        /** Fork-join backtracking; best used with one thread. */
+        PARALLEL;
+
+        /**
+         * Creates a solver of this kind.
+         *
+         * @param puzzle  the puzzle to solve
+         * @return a new solver for {@code puzzle}
+         */
+        AbstractSolver create(final KSPuzzle puzzle) {
+            switch (this) {
+                case BACKTRACK:
+                    return new BacktrackSolver(puzzle, null);
+                case MRV:
+                    return new BacktrackSolver(puzzle, null,
+                        StandardCellSelector.MINIMUM_REMAINING_VALUES);
+                case ITERATIVE:
+                    return new IterativeBacktrackSolver(puzzle, null,
+                        StandardCellSelector.MINIMUM_REMAINING_VALUES);
+                case DLX:
+                    return new DancingLinksSolver(puzzle);
+                default:
+                    return new ParallelBacktrackSolver(puzzle);
+            }
+        }
+    }
+
+    /** What can be done with each puzzle, other than solving. */
+    enum Task {
+        /** Solve with the selected solver. */
+        SOLVE,
+        /** Count the solutions, up to two. */
+        UNIQUE,
+        /** Grade the difficulty. */
+        GRADE;
+
+        /**
+         * Does this task for a puzzle.
+         *
+         * @param puzzle  the puzzle
+         * @param stats  whether to add statistics to the detail
+         * @return the status and the detail of the result line
+         * @pre {@code this != SOLVE}
+         */
+        String[] apply(final KSPuzzle puzzle, final boolean stats) {
+            if (this == GRADE) {
+                final DifficultyGrader grader = new DifficultyGrader(puzzle);
+                final String status = grader.grade() ? GRADED : STUCK;
+                return new String[] {status, grader.toString()};
+            }
+            final SolutionCounter counter = new SolutionCounter(puzzle, 2);
+            final int count = counter.count();
+            final String status = count == 0 ? UNSOLVABLE
+                : count == 1 ? BatchSolve.UNIQUE : MULTIPLE;
+            String detail = count < 2 ? String.valueOf(count) : count + "+";
+            if (stats) {
+                detail += "\tnodes=" + counter.getNodeCount();
+            }
+            return new String[] {status, detail};
+        }
+    }
+
+    /** Status of a solved puzzle. */
+    static final String SOLVED = "solved";
+
+    /** Status of a puzzle without solution. */
+    static final String UNSOLVABLE = "unsolvable";
+
+    /** Status of a puzzle with exactly one solution, with {@code --unique}. */
+    static final String UNIQUE = "unique";
+
+    /** Status of a puzzle with more than one solution, with {@code --unique}. */
+    static final String MULTIPLE = "multiple";
+
+    /** Status of a puzzle solved by the techniques of the grader, with {@code --grade}. */
+    static final String GRADED = "graded";
+
+    /** Status of a puzzle not solved by the techniques of the grader, with {@code --grade}. */
+    static final String STUCK = "stuck";
+
+    /** Status of a Kakuro puzzle, with {@code --unique} or {@code --grade}. */
+    static final String SKIPPED = "skipped";
+
+    /** Status of a puzzle that could not be read. */
+    static final String ERROR = "error";
+
+    /** Extension of puzzle files. */
+    private static final String EXTENSION = ".zgr";
+
+    /** The usage message. */
+    private static final String USAGE = "usage: BatchSolve [--threads N] "
+        + "[--solver backtrack|mrv|iterative|dlx|parallel] [--unique] [--grade] [--stats] [--jmx] "
+        + "[PATH ...]";
+
+    /** The number of threads. */
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /** The solver to use. */
+    private SolverKind solver = SolverKind.MRV;
+
+    /** What to do with each puzzle. */
+    private Task task = Task.SOLVE;
+
+    /** Whether to write the statistics of each solve. */
+    private boolean stats;
+
+    /** Aggregates the statistics of all solves; null if not monitored via JMX. */
+    private SolverMonitor monitor;
+
+    /** The paths given as arguments. */
+    private final List<String> paths = new ArrayList<>();
+
+    /** Where to write results. */
+    private final PrintStream out;
+
+    /** Whether some puzzle was not solved. */
+    private final AtomicBoolean failed = new AtomicBoolean();
+
+    /**
+     * Constructs a batch runner from command-line arguments.
+     *
+     * @param args  the arguments
+     * @param out  where to write results
+     * @throws IllegalArgumentException  if the arguments are invalid
+     */
+    BatchSolve(final String[] args, final PrintStream out) {
+        this.out = out;
+        for (int i = 0; i < args.length; i++) {
+            if ("--threads".equals(args[i]) && i + 1 < args.length) {
+                threads = parseThreads(args[++i]);
+            } else if ("--solver".equals(args[i]) && i + 1 < args.length) {
+                solver = parseSolver(args[++i]);
+            } else if (!parseFlag(args[i])) {
+                if (args[i].startsWith("--")) {
+                    throw new IllegalArgumentException("unknown option " + args[i]);
+                }
+                paths.add(args[i]);
+            }
+        }
+    }
+
+    /**
+     * Parses an option without value.
+     *
+     * @param arg  the argument
+     * @return whether {@code arg} is an option without value
+     * @modifies {@code this}
+     */
+    private boolean parseFlag(final String arg) {
+        switch (arg) {
+            case "--unique":
+                task = Task.UNIQUE;
+                return true;
+            case "--grade":
+                task = Task.GRADE;
+                return true;
+            case "--stats":
+                stats = true;
+                return true;
+            case "--jmx":
+                monitor = new SolverMonitor();
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Parses the number of threads.
+     *
+     * @param value  the argument
+     * @return the number of threads
+     * @throws IllegalArgumentException  if {@code value} is not a positive number
+     */
+    private static int parseThreads(final String value) {
+        final int result;
+        try {
+            result = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid number of threads " + value);
+        }
+        if (result <= 0) {
+            throw new IllegalArgumentException("invalid number of threads " + value);
+        }
+        return result;
+    }
+
+    /**
+     * Parses the name of a solver.
+     *
+     * @param value  the argument
+     * @return the solver named {@code value}, ignoring case
+     * @throws IllegalArgumentException  if there is no such solver
+     */
+    private static SolverKind parseSolver(final String value) {
+        for (SolverKind kind : SolverKind.values()) {
+            if (kind.name().equalsIgnoreCase(value)) {
+                return kind;
+            }
+        }
+        throw new IllegalArgumentException("unknown solver " + value);
+    }
+
+    /**
+     * Gets the monitor aggregating the statistics of all solves.
+     *
+     * @return the monitor, or null if not requested
+     */
+    SolverMonitor getMonitor() {
+        return monitor;
+    }
+
+    /**
+     * Solves all puzzles and waits until they are done.
+     *
+     * @param in  where to read paths from if none were given as arguments
+     * @return whether all puzzles were solved
+     * @throws IOException  if reading paths from {@code in} fails
+     * @throws InterruptedException  if interrupted while waiting
+     */
+    boolean run(final BufferedReader in) throws IOException, InterruptedException {
+        final ExecutorService pool = Executors.newFixedThreadPool(threads);
+        final List<Future<?>> results = new ArrayList<>();
+        try {
+            final List<String> sources = paths.isEmpty() ? List.of("-") : paths;
+            for (String path : sources) {
+                if ("-".equals(path)) {
+                    for (String line = in.readLine(); line != null; line = in.readLine()) {
+                        submit(pool, results, line.trim());
+                    }
+                } else {
+                    submit(pool, results, path);
+                }
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } catch (ExecutionException e) {
+            // solveOne reports its own failures
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        return !failed.get();
+    }
+
+    /**
+     * Submits the puzzle file at a path, or all puzzle files in a directory.
+     *
+     * @param pool  the pool to submit to
+     * @param results  the results, to which the submitted tasks are added
+     * @param path  the path; ignored if empty
+     */
+    private void submit(final ExecutorService pool, final List<Future<?>> results,
+            final String path) {
+        if (path.isEmpty()) {
+            return;
+        }
+        final File file = new File(path);
+        if (!file.isDirectory()) {
+            results.add(pool.submit(() -> solveOne(file)));
+            return;
+        }
+        final File[] files = file.listFiles((dir, name) -> name.endsWith(EXTENSION));
+        if (files != null) {
+            Arrays.sort(files);
+            for (File f : files) {
+                results.add(pool.submit(() -> solveOne(f)));
+            }
+        }
+    }
+
+    /**
+     * Reads and solves one puzzle file, and writes its result line.
+     *
+     * @param file  the puzzle file
+     */
+    private void solveOne(final File file) {
+        final long start = System.nanoTime();
+        String status;
+        String detail;
+        try {
+            final String[] result = process(ByteTokenizer.of(file.toPath()), file.getName());
+            status = result[0];
+            detail = result[1];
+        } catch (NoSuchFileException e) {
+            status = ERROR;
+            detail = "file not found";
+        } catch (NoSuchElementException | NumberFormatException e) {
+            // also InputMismatchException, which is a NoSuchElementException
+            status = ERROR;
+            detail = "malformed puzzle file"
+                + (e.getMessage() == null ? "" : ": " + e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            status = ERROR;
+            detail = e.getClass().getSimpleName()
+                + (e.getMessage() == null ? "" : ": " + e.getMessage());
+        }
+        final long millis = (System.nanoTime() - start) / 1_000_000;
+        if (!SOLVED.equals(status) && !UNIQUE.equals(status) && !GRADED.equals(status)
+                && !SKIPPED.equals(status)) {
+            failed.set(true);
+        }
+        // println is synchronized, so lines of different puzzles do not mix
+        out.println(file.getName() + '\t' + status + '\t' + millis + '\t' + detail);
+    }
+
+    /**
+     * Reads a puzzle of either kind, and does the task for it.
+     *
+     * @param tokenizer  the contents of the puzzle file
+     * @param name  the name of the puzzle
+     * @return the status and the detail of the result line
+     */
+    private String[] process(final ByteTokenizer tokenizer, final String name) {
+        if (tokenizer.hasNextLetter()) {
+            return task == Task.SOLVE ? KakuroRun.solve(tokenizer, name, monitor, stats)
+                : new String[] {SKIPPED, KakuroRun.NOT_APPLICABLE};
+        }
+        final KSPuzzle puzzle = new KSPuzzle(tokenizer, name);
+        return task == Task.SOLVE ? solve(puzzle) : task.apply(puzzle, stats);
+    }
+
+    /**
+     * Solves a Killer Sudoku puzzle with the selected solver.
+     *
+     * @param puzzle  the puzzle
+     * @return the status and the detail of the result line
+     * @modifies {@code puzzle}, {@code monitor}
+     */
+    private String[] solve(final KSPuzzle puzzle) {
+        final AbstractSolver instance = solver.create(puzzle);
+        final String status = instance.solve() ? SOLVED : UNSOLVABLE;
+        String detail = puzzle.toCompactGrid().toString();
+        if (monitor != null) {
+            monitor.record(puzzle.getName(), instance.getStatistics());
+        }
+        if (stats) {
+            detail += '\t' + instance.getStatistics().toString();
+        }
+        return new String[] {status, detail};
+    }
+
+    /**
+     * Runs the batch solver.
+     *
+     * @param args  the command-line arguments
+     * @throws IOException  if reading paths from standard input fails
+     * @throws InterruptedException  if interrupted while waiting
+     */
+    public static void main(final String[] args) throws IOException, InterruptedException {
+        final BatchSolve batch;
+        try {
+            batch = new BatchSolve(args, System.out);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+        if (batch.getMonitor() != null) {
+            try {
+                batch.getMonitor().register();
+            } catch (JMException e) {
+                System.err.println("cannot register solver monitor: " + e);
+            }
+        }
+        final BufferedReader in = new BufferedReader(
+            new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        System.exit(batch.run(in) ? 0 : 1);
+    }
+}
@@ -0,0 +1,53 @@
+package ypa.batch;
+
+import ypa.model.ByteTokenizer;
+import ypa.model.KCell;
+import ypa.model.KPuzzle;
+import ypa.solvers.KakuroSolver;
+import ypa.solvers.SolverMonitor;
+
+/**
+ * Solves the Kakuro puzzles of a {@link BatchSolve} run, which are
+ * solved by a {@link KakuroSolver} whatever solver was selected.
+ */
+final class KakuroRun {
+
+    /** Detail of a Kakuro puzzle that is skipped. */
+    static final String NOT_APPLICABLE =
+        "Kakuro puzzle; --unique and --grade apply to Killer Sudoku only";
+
+    /** Not instantiable. */
+    private KakuroRun() {
+    }
+
+    /**
+     * Reads and solves a Kakuro puzzle.
+     *
+     * @param tokenizer  the contents of the puzzle file
+     * @param name  the name of the puzzle
+     * @param monitor  aggregates the statistics of all solves, or null
+     * @param stats  whether to add the statistics to the detail
+     * @return the status and the detail of the result line, where the detail
+     *   is the states of the non-blocked cells, row-major
+     * @modifies {@code monitor}
+     */
+    static String[] solve(final ByteTokenizer tokenizer, final String name,
+            final SolverMonitor monitor, final boolean stats) {
+        final KPuzzle puzzle = new KPuzzle(tokenizer, name);
+        final KakuroSolver instance = new KakuroSolver(puzzle);
+        final String status = instance.solve() ? BatchSolve.SOLVED : BatchSolve.UNSOLVABLE;
+        final StringBuilder detail = new StringBuilder();
+        for (KCell cell : puzzle.getCells()) {
+            if (!cell.isBlocked()) {
+                detail.append(cell);
+            }
+        }
+        if (monitor != null) {
+            monitor.record(name, instance.getStatistics());
+        }
+        if (stats) {
+            detail.append('\t').append(instance.getStatistics());
+        }
+        return new String[] {status, detail.toString()};
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * Package holding the headless command-line runners,
+ * which solve puzzles without the graphical user interface.
+ */
+package ypa.batch;
@@ -0,0 +1,40 @@
+package ypa.command;
+
+import ypa.model.KCell;
+
+/**
+ * The command to set the state of a cell of a Kakuro puzzle.
+ */
+public class KakuroSetCommand extends GenericCommand<KCell> {
+
+    /** The command's parameter. */
+    private final int newState;
+
+    /** Previous state of the receiver, for revert(). */
+    private int oldState;
+
+    /**
+     * Constructs a set command for a given receiver and new state.
+     *
+     * @param receiver  the given receiver
+     * @param newState  the new state
+     */
+    public KakuroSetCommand(final KCell receiver, final int newState) {
+        super(receiver);
+        this.newState = newState;
+    }
+
+    @Override
+    public void execute() {
+        super.execute();
+        oldState = receiver.getState(); // should not be done in constructor!
+        receiver.setState(newState);
+    }
+
+    @Override
+    public void revert() {
+        super.revert();
+        receiver.setState(oldState);
+    }
+
+}
@@ -0,0 +1,508 @@
+package ypa.generator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import ypa.model.KSCompactGrid;
+import ypa.model.KSConstraints;
+import ypa.model.KSGrid;
+import ypa.model.KSPuzzle;
+import ypa.solvers.SolutionCounter;
+
+/**
+ * Generates Killer Sudoku puzzles that have exactly one solution.
+ * <p>
+ * A puzzle is generated in four steps:
+ * <ol>
+ * <li>a random full grid is made by randomized backtracking;</li>
+ * <li>the grid is partitioned into random connected cages of at most
+ *   {@code maxCageSize} cells, each with distinct digits;
+ *   the cage sums follow from the grid;</li>
+ * <li>while the layout has more than one solution, a cell is split off
+ *   from a random cage, which can only remove solutions;</li>
+ * <li>adjacent cages are merged, as long as the layout keeps exactly one
+ *   solution, until no merge is possible.</li>
+ * </ol>
+ * Uniqueness is decided by a {@link SolutionCounter} with limit 2.
+ * To bound the time per puzzle, a check that takes more than
+ * {@link #DEFAULT_NODE_LIMIT} nodes counts as not unique: the layout
+ * is then split further, or the merge is rejected.
+ * In the merge step, candidate merges are evaluated in parallel,
+ * in batches as large as the parallelism of the pool. Within a batch,
+ * the first candidate (in random order) that keeps the solution unique
+ * is accepted, regardless of which evaluation finishes first; hence,
+ * the result depends only on the seed and the maximum cage size.
+ * <p>
+ * A generator is not thread-safe; to generate puzzles concurrently,
+ * use a generator per thread.
+ */
+public class KSGenerator {
+
+    /** Default maximum number of cells in a cage. */
+    public static final int DEFAULT_MAX_CAGE_SIZE = 5;
+
+    /** Default number of search nodes after which a uniqueness check gives up. */
+    public static final long DEFAULT_NODE_LIMIT = 20_000;
+
+    /** Number of cells. */
+    private static final int CELLS = KSConstraints.CELLS;
+
+    /** Number of columns. */
+    private static final int COLS = KSGrid.COLS;
+
+    /** Number of digits. */
+    private static final int DIGITS = KSConstraints.DIGITS;
+
+    /** The maximum number of cells in a cage. */
+    private final int maxCageSize;
+
+    /** The pool to evaluate candidate merges in. */
+    private final ForkJoinPool pool;
+
+    /** The source of randomness; reset for each puzzle. */
+    private final Random random;
+
+    /** The seed of the next puzzle. */
+    private long seed;
+
+    /** The digit of each cell in the full grid. */
+    private final int[] solution = new int[CELLS];
+
+    /** The group number of each cell; 0 while unassigned. */
+    private final int[] cageOf = new int[CELLS];
+
+    /* Rep. invariant (between steps):
+     *  cageOf[i] in 1..n, numbered by first appearance, row-major,
+     *  where n is the number of cages, and each cage is connected,
+     *  has at most maxCageSize cells, and has distinct digits in solution
+     */
+
+    /**
+     * Constructs a generator with a given seed, with the default maximum
+     * cage size, evaluating candidates in the common pool.
+     *
+     * @param seed  the seed of the first puzzle
+     */
+    public KSGenerator(final long seed) {
+        this(seed, DEFAULT_MAX_CAGE_SIZE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a generator.
+     *
+     * @param seed  the seed of the first puzzle
+     * @param maxCageSize  the maximum number of cells in a cage
+     * @param pool  the pool to evaluate candidate merges in
+     * @throws IllegalArgumentException  if precondition is violated
+     * @pre {@code 1 <= maxCageSize <= 9 && pool != null}
+     */
+    public KSGenerator(final long seed, final int maxCageSize, final ForkJoinPool pool) {
+        if (maxCageSize < 1 || maxCageSize > DIGITS) {
+            throw new IllegalArgumentException(this.getClass().getSimpleName()
+                    + "().pre failed: maxCageSize == " + maxCageSize + " not in 1..9");
+        }
+        if (pool == null) {
+            throw new IllegalArgumentException(this.getClass().getSimpleName()
+                    + "().pre failed: pool == null");
+        }
+        this.seed = seed;
+        this.maxCageSize = maxCageSize;
+        this.pool = pool;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Generates the next puzzle, in the format of {@code .zgr} files:
+     * nine lines with the group number of each cell, and a line with the
+     * cage sum of each group, in order of group number.
+     * The next call uses the next seed.
+     *
+     * @return the text of a puzzle with exactly one solution
+     * @modifies {@code this}
+     */
+    public String generate() {
+        random.setSeed(seed++);
+        fill(0, new int[DIGITS], new int[DIGITS], new int[DIGITS]);
+        partition();
+        while (!isUnique(cageOf)) {
+            split();
+        }
+        boolean merging;
+        do {
+            merging = mergeOnce();
+        } while (merging);
+        return format();
+    }
+
+    /**
+     * Generates the next puzzle as a puzzle instance.
+     *
+     * @param name  the name of the puzzle
+     * @return a puzzle with exactly one solution
+     * @modifies {@code this}
+     */
+    public KSPuzzle generatePuzzle(final String name) {
+        return new KSPuzzle(new Scanner(generate()), name);
+    }
+
+    /**
+     * Fills the grid from a given cell on, trying digits in random order.
+     *
+     * @param index  the first cell to fill, row-major
+     * @param rows  the digits used in each row
+     * @param columns  the digits used in each column
+     * @param nonets  the digits used in each nonet
+     * @return whether the grid could be filled; it always can for
+     *   {@code index == 0}
+     * @modifies {@code solution}, and the masks if not filled
+     */
+    private boolean fill(final int index, final int[] rows, final int[] columns,
+            final int[] nonets) {
+        if (index == CELLS) {
+            return true;
+        }
+        final int row = index / COLS;
+        final int column = index % COLS;
+        final int nonet = KSConstraints.nonetIndex(row, column);
+        final int used = rows[row] | columns[column] | nonets[nonet];
+        for (int digit : shuffledDigits()) {
+            final int bit = KSConstraints.bit(digit);
+            if ((used & bit) != 0) {
+                continue;
+            }
+            rows[row] |= bit;
+            columns[column] |= bit;
+            nonets[nonet] |= bit;
+            solution[index] = digit;
+            if (fill(index + 1, rows, columns, nonets)) {
+                return true;
+            }
+            rows[row] &= ~bit;
+            columns[column] &= ~bit;
+            nonets[nonet] &= ~bit;
+        }
+        return false;
+    }
+
+    /**
+     * Gets the digits in random order.
+     *
+     * @return a random permutation of 1..9
+     */
+    private int[] shuffledDigits() {
+        final int[] digits = new int[DIGITS];
+        for (int i = 0; i < DIGITS; i++) {
+            final int j = random.nextInt(i + 1);
+            digits[i] = digits[j];
+            digits[j] = i + 1;
+        }
+        return digits;
+    }
+
+    /**
+     * Partitions the grid into random cages: from each unassigned cell,
+     * in random order, a cage of random size is grown through adjacent
+     * unassigned cells whose digits are not in the cage yet.
+     *
+     * @modifies {@code cageOf}
+     */
+    private void partition() {
+        Arrays.fill(cageOf, 0);
+        final List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < CELLS; i++) {
+            order.add(i);
+        }
+        Collections.shuffle(order, random);
+        int group = 0;
+        for (int start : order) {
+            if (cageOf[start] == 0) {
+                group++;
+                grow(start, group, 1 + random.nextInt(maxCageSize));
+            }
+        }
+        renumber();
+    }
+
+    /**
+     * Grows a cage from a cell, up to a given size.
+     *
+     * @param start  the first cell of the cage, which is unassigned
+     * @param group  the group number of the new cage
+     * @param size  the intended number of cells
+     * @modifies {@code cageOf}
+     */
+    private void grow(final int start, final int group, final int size) {
+        final List<Integer> cells = new ArrayList<>();
+        int digits = 0;
+        int current = start;
+        while (current >= 0) {
+            cageOf[current] = group;
+            cells.add(current);
+            digits |= KSConstraints.bit(solution[current]);
+            if (cells.size() == size) {
+                return;
+            }
+            final List<Integer> frontier = new ArrayList<>();
+            for (int cell : cells) {
+                for (int neighbor : neighbors(cell)) {
+                    final int bit = KSConstraints.bit(solution[neighbor]);
+                    if (cageOf[neighbor] == 0 && (digits & bit) == 0) {
+                        frontier.add(neighbor);
+                    }
+                }
+            }
+            current = frontier.isEmpty() ? -1 : frontier.get(random.nextInt(frontier.size()));
+        }
+    }
+
+    /**
+     * Gets the cells adjacent to a cell, horizontally or vertically.
+     *
+     * @param index  the cell, row-major
+     * @return the adjacent cells, row-major
+     */
+    private static List<Integer> neighbors(final int index) {
+        final List<Integer> result = new ArrayList<>(4);
+        final int row = index / COLS;
+        final int column = index % COLS;
+        if (row > 0) {
+            result.add(index - COLS);
+        }
+        if (column > 0) {
+            result.add(index - 1);
+        }
+        if (column < COLS - 1) {
+            result.add(index + 1);
+        }
+        if (row < KSGrid.ROWS - 1) {
+            result.add(index + COLS);
+        }
+        return result;
+    }
+
+    /**
+     * Splits off a cell from a random cage with more than one cell,
+     * such that the rest of the cage stays connected.
+     *
+     * @pre some cage has more than one cell
+     * @modifies {@code cageOf}
+     */
+    private void split() {
+        final int[] sizes = cageSizes(cageOf);
+        final List<Integer> groups = new ArrayList<>();
+        for (int group = 1; group < sizes.length; group++) {
+            if (sizes[group] > 1) {
+                groups.add(group);
+            }
+        }
+        final int group = groups.get(random.nextInt(groups.size()));
+        final List<Integer> cells = new ArrayList<>();
+        for (int i = 0; i < CELLS; i++) {
+            if (cageOf[i] == group) {
+                cells.add(i);
+            }
+        }
+        Collections.shuffle(cells, random);
+        for (int cell : cells) {
+            cageOf[cell] = KSConstraints.MAX_GROUP + 1;
+            if (isConnected(group)) {
+                break;
+            }
+            cageOf[cell] = group;
+        }
+        renumber();
+    }
+
+    /**
+     * Determines whether the cells of a cage are connected.
+     *
+     * @param group  the group number of the cage, which is not empty
+     * @return whether all cells of the cage are reachable from one of them
+     */
+    private boolean isConnected(final int group) {
+        final boolean[] reached = new boolean[CELLS];
+        final List<Integer> todo = new ArrayList<>();
+        int size = 0;
+        for (int i = 0; i < CELLS; i++) {
+            if (cageOf[i] == group) {
+                size++;
+                if (todo.isEmpty()) {
+                    todo.add(i);
+                    reached[i] = true;
+                }
+            }
+        }
+        int count = 0;
+        while (!todo.isEmpty()) {
+            final int cell = todo.remove(todo.size() - 1);
+            count++;
+            for (int neighbor : neighbors(cell)) {
+                if (cageOf[neighbor] == group && !reached[neighbor]) {
+                    reached[neighbor] = true;
+                    todo.add(neighbor);
+                }
+            }
+        }
+        return count == size;
+    }
+
+    /**
+     * Tries to merge two adjacent cages, keeping the solution unique.
+     * All pairs of adjacent cages whose union has distinct digits and
+     * at most {@code maxCageSize} cells are candidates.
+     *
+     * @return whether a merge was done
+     * @modifies {@code cageOf}
+     */
+    private boolean mergeOnce() {
+        final List<int[]> candidates = mergeCandidates();
+        Collections.shuffle(candidates, random);
+        final int batch = pool.getParallelism();
+        for (int from = 0; from < candidates.size(); from += batch) {
+            final List<int[]> layouts = new ArrayList<>();
+            final List<ForkJoinTask<Boolean>> tasks = new ArrayList<>();
+            for (int[] pair : candidates.subList(from,
+                    Math.min(from + batch, candidates.size()))) {
+                final int[] layout = merged(pair[0], pair[1]);
+                layouts.add(layout);
+                tasks.add(pool.submit(() -> isUnique(layout)));
+            }
+            for (int k = 0; k < tasks.size(); k++) {
+                if (tasks.get(k).join()) {
+                    tasks.forEach(task -> task.cancel(false));
+                    System.arraycopy(layouts.get(k), 0, cageOf, 0, CELLS);
+                    renumber();
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the pairs of adjacent cages that can be merged,
+     * in row-major order of their first adjacent cells.
+     *
+     * @return the group numbers of each pair
+     */
+    private List<int[]> mergeCandidates() {
+        final int[] sizes = cageSizes(cageOf);
+        final int[] digits = new int[KSConstraints.MAX_GROUP + 1];
+        for (int i = 0; i < CELLS; i++) {
+            digits[cageOf[i]] |= KSConstraints.bit(solution[i]);
+        }
+        final Set<Integer> pairs = new LinkedHashSet<>();
+        for (int i = 0; i < CELLS; i++) {
+            for (int neighbor : neighbors(i)) {
+                final int a = Math.min(cageOf[i], cageOf[neighbor]);
+                final int b = Math.max(cageOf[i], cageOf[neighbor]);
+                if (a != b && sizes[a] + sizes[b] <= maxCageSize
+                        && (digits[a] & digits[b]) == 0) {
+                    pairs.add(a * (KSConstraints.MAX_GROUP + 1) + b);
+                }
+            }
+        }
+        final List<int[]> result = new ArrayList<>();
+        for (int pair : pairs) {
+            result.add(new int[] {pair / (KSConstraints.MAX_GROUP + 1),
+                pair % (KSConstraints.MAX_GROUP + 1)});
+        }
+        return result;
+    }
+
+    /**
+     * Gets the layout with two cages merged.
+     *
+     * @param a  the group number of the cage to keep
+     * @param b  the group number of the cage to merge into it
+     * @return a copy of {@code cageOf}, with the cells of {@code b} in {@code a}
+     */
+    private int[] merged(final int a, final int b) {
+        final int[] result = cageOf.clone();
+        for (int i = 0; i < CELLS; i++) {
+            if (result[i] == b) {
+                result[i] = a;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Determines whether a layout has exactly one solution.
+     * The count is done sequentially, in the calling thread.
+     *
+     * @param layout  the group number of each cell, in 1..81
+     * @return whether the layout with the sums of the full grid was found
+     *   to have exactly one solution, within {@link #DEFAULT_NODE_LIMIT} nodes
+     */
+    private boolean isUnique(final int[] layout) {
+        final byte[] cages = new byte[CELLS];
+        final short[] sums = new short[KSConstraints.MAX_GROUP + 1];
+        for (int i = 0; i < CELLS; i++) {
+            cages[i] = (byte) layout[i];
+            sums[layout[i]] += solution[i];
+        }
+        final SolutionCounter counter = new SolutionCounter(
+            new KSCompactGrid(cages, sums), 2, 0, pool);
+        counter.setNodeLimit(DEFAULT_NODE_LIMIT);
+        return counter.isUnique();
+    }
+
+    /**
+     * Gets the number of cells of each cage.
+     *
+     * @param layout  the group number of each cell, in 1..82
+     * @return the size of each group, indexed by group number
+     */
+    private static int[] cageSizes(final int[] layout) {
+        final int[] result = new int[KSConstraints.MAX_GROUP + 2];
+        for (int group : layout) {
+            result[group]++;
+        }
+        return result;
+    }
+
+    /**
+     * Renumbers the cages 1..n, in order of first appearance, row-major.
+     *
+     * @modifies {@code cageOf}
+     */
+    private void renumber() {
+        final int[] numbers = new int[KSConstraints.MAX_GROUP + 2];
+        int next = 1;
+        for (int i = 0; i < CELLS; i++) {
+            if (numbers[cageOf[i]] == 0) {
+                numbers[cageOf[i]] = next++;
+            }
+            cageOf[i] = numbers[cageOf[i]];
+        }
+    }
+
+    /**
+     * Formats the current layout as the text of a {@code .zgr} file.
+     *
+     * @return the group numbers, one row per line, and the cage sums
+     */
+    private String format() {
+        final StringBuilder result = new StringBuilder();
+        final int[] sums = new int[KSConstraints.MAX_GROUP + 1];
+        int groups = 0;
+        for (int i = 0; i < CELLS; i++) {
+            result.append(cageOf[i]).append(i % COLS == COLS - 1 ? '\n' : ' ');
+            sums[cageOf[i]] += solution[i];
+            groups = Math.max(groups, cageOf[i]);
+        }
+        for (int group = 1; group <= groups; group++) {
+            result.append(sums[group]).append(group < groups ? ' ' : '\n');
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Package holding the generation of new puzzle instances.
+ */
+package ypa.generator;
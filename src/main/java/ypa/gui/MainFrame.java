@@ -9,9 +9,11 @@ import ypa.command.SetCommand;
 import ypa.command.UndoRedo;
 import ypa.model.KSCell;
 import ypa.model.KSPuzzle;
+import ypa.reasoning.CompoundReasoner;
+import ypa.reasoning.FixpointReasoner;
 import ypa.reasoning.Reasoner;
 import ypa.reasoning.Rule45Reasoner;
-import ypa.solvers.AbstractSolver;
+import ypa.reasoning.SinglesReasoner;
 import ypa.solvers.BacktrackSolver;
 
 import java.awt.*;
@@ -20,9 +22,14 @@ import java.awt.datatransfer.StringSelection;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.PrintWriter;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Main frame for Kakuro Puzzle Assistant,
@@ -298,8 +305,13 @@ public class MainFrame extends javax.swing.JFrame {
         });
         jMenuPuzzle.add(jMenuItemSolve);
 
-        jMenuItem1.setText("Abort");
+        jMenuItem1.setText("Cancel");
         jMenuItem1.setEnabled(false);
+        jMenuItem1.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                jMenuItemCancelActionPerformed(evt);
+            }
+        });
         jMenuPuzzle.add(jMenuItem1);
 
         jCheckBoxMenuItem1.setSelected(true);
@@ -676,70 +688,26 @@ public class MainFrame extends javax.swing.JFrame {
     }//GEN-LAST:event_jCheckBoxMenuItemHighlightItemStateChanged
 
     private void jMenuItemApplyReasoningActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jMenuItemApplyReasoningActionPerformed
-        String message;
-        Reasoner reasoner = null;
-// Optionally, configure a reasoning strategy
-        //reasoner = new EntryWithOneEmptyCell(puzzle);
-        //reasoner = new BasicEmptyCellByContradiction(puzzle);
-        //reasoner = new GeneralizedEmptyCellByContradiction(puzzle, reasoner);
-        //reasoner = new GeneralizedEmptyCellByContradiction(puzzle);
-        reasoner = new Rule45Reasoner(puzzle);
-//
-        if (reasoner == null) {
-            message = "Apply Reasoning is not yet implemented.";
-        } else {
-            if (! jCheckBoxMenuItemStopAtFirstChange.isSelected()) {
-                //reasoner = new FixpointReasoner(puzzle, reasoner);
-            }
-            CompoundCommand command = reasoner.apply();
-            if (command == null) {
-                message = "Puzzle is not solvable.";
-            } else if (command.size() > 0) {
-                this.undoRedo.did(command);
-                message = "Reasoning determined " + command.getCells().size() + " cells.";
-            } else {
-                message = "Reasoning did not help.";
-            }
+        if (puzzle == null || task != null) {
+            return;
         }
-        jTextArea.append(message + "\n");
-        updateFrame();
+        // puzzle != null, and no task running
+        start(new ReasoningTask(! jCheckBoxMenuItemStopAtFirstChange.isSelected()));
     }//GEN-LAST:event_jMenuItemApplyReasoningActionPerformed
 
     private void jMenuItemSolveActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jMenuItemSolveActionPerformed
-        if (puzzle == null) {
+        if (puzzle == null || task != null) {
             return;
         }
-        // puzzle != null
+        // puzzle != null, and no task running
+        start(new SolveTask());
+    }//GEN-LAST:event_jMenuItemSolveActionPerformed
 
-        String message;
-        Reasoner reasoner = null;
-        AbstractSolver solver = null;
-// Configure and invoke solver
-        //reasoner = new EntryWithOneEmptyCell(puzzle);
-        //reasoner = new BasicEmptyCellByContradiction(puzzle);
-        //reasoner = new FixpointReasoner(puzzle, reasoner);
-        solver = new BacktrackSolver(puzzle, reasoner);
-//
-        if (solver == null) {
-            message = "Solve is not yet implemented.";
-        } else if (solver.solve()) {
-            message = "Puzzle solved";
-            // handle result of solver
-            final Collection<Command> commands = solver.getCommands();
-            message = message + ": " + commands.size() + " steps";
-            for (final Command command : commands) {
-                if (command instanceof CompoundCommand &&
-                        ((CompoundCommand) command).size() == 0) {
-                    continue;
-                }
-                undoRedo.did(command);
-            }
-        } else {
-            message = "Puzzle not solvable";
+    private void jMenuItemCancelActionPerformed(java.awt.event.ActionEvent evt) {
+        if (task != null) {
+            task.stop();
         }
-        jTextArea.append(message + "\n");
-        updateFrame();
-    }//GEN-LAST:event_jMenuItemSolveActionPerformed
+    }
 
     private void jCheckBoxMenuItemStopAtFirstChangeActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jCheckBoxMenuItemStopAtFirstChangeActionPerformed
         // TODO add your handling code here:
@@ -844,6 +812,12 @@ public class MainFrame extends javax.swing.JFrame {
     private final UndoRedo undoRedo = new UndoRedo();
 //
 
+    /** Interval between progress updates in the text area, in ms. */
+    private static final int PROGRESS_INTERVAL = 250;
+
+    /** The task solving or reasoning in the background, or null if none. */
+    private PuzzleTask task = null;
+
     /**
      * Completes initialization of this frame.
      */
@@ -864,6 +838,9 @@ public class MainFrame extends javax.swing.JFrame {
      */
     private void updateFrame() {
         jMenuItemSaveAs.setEnabled(puzzle != null);
+        jMenuItemSolve.setEnabled(puzzle != null && task == null);
+        jMenuItemApplyStrategies.setEnabled(puzzle != null && task == null);
+        jMenuItem1.setEnabled(task != null);
 
         if (UNDO) {
 // Conditionally enable undo/redo menu items
@@ -927,4 +904,288 @@ public class MainFrame extends javax.swing.JFrame {
         jTextArea.append("Mode changed to " + puzzle.getMode() + "\n");
     }
 
+    /**
+     * Starts a background task, and shows its progress until it is done.
+     *
+     * @param newTask  the task to start
+     * @pre {@code task == null}
+     * @modifies {@code task}
+     */
+    private void start(final PuzzleTask newTask) {
+        task = newTask;
+        task.startProgress();
+        task.execute();
+        updateFrame();
+    }
+
+    /**
+     * A task that works on a copy of the puzzle in a background thread,
+     * so that this frame stays responsive. While it runs, the text area
+     * shows its progress. When it is done, and the puzzle was not changed
+     * meanwhile, the commands it executed on the copy are replayed on
+     * the puzzle, and recorded for undo.
+     */
+    private abstract class PuzzleTask extends SwingWorker<Collection<Command>, Void> {
+
+        /** The puzzle being worked on. */
+        protected final KSPuzzle original;
+
+        /** The copy of the puzzle that the background thread works on. */
+        protected final KSPuzzle copy;
+
+        /** The modification count of the puzzle when the task started. */
+        private final long modificationCount;
+
+        /** The start time, in ns. */
+        private final long startTime = System.nanoTime();
+
+        /** The timer for progress updates. */
+        private final Timer timer;
+
+        /** The offset in the text area of the progress line. */
+        private final int progressOffset;
+
+        /**
+         * Constructs a task for the current puzzle.
+         *
+         * @pre {@code puzzle != null}
+         */
+        PuzzleTask() {
+            this.original = puzzle;
+            this.copy = new KSPuzzle(puzzle);
+            this.modificationCount = puzzle.getConstraints().getModificationCount();
+            this.progressOffset = jTextArea.getDocument().getLength();
+            this.timer = new Timer(PROGRESS_INTERVAL, e -> showProgress());
+        }
+
+        /**
+         * Shows the progress of this task, and keeps it up to date until it
+         * is done. This is not done by the constructor, since progress
+         * depends on overridable methods that need a fully constructed task.
+         *
+         * @pre the task was not started yet
+         */
+        void startProgress() {
+            showProgress();
+            timer.start();
+        }
+
+        /**
+         * Describes the activity, for progress and result messages.
+         *
+         * @return description of the activity
+         */
+        abstract String getActivity();
+
+        /**
+         * Gets the number of search nodes visited so far.
+         * This is called on the event dispatch thread, while working.
+         *
+         * @return number of search nodes, or -1 if not applicable
+         */
+        long getNodeCount() {
+            return -1;
+        }
+
+        /**
+         * Does the work on {@code copy}, in the background thread.
+         *
+         * @return the commands executed on {@code copy},
+         *   or null if the puzzle is not solvable
+         */
+        abstract Collection<Command> work();
+
+        /**
+         * Describes the result of the work after it was replayed.
+         *
+         * @param commands  the commands replayed on the puzzle
+         * @return message for the text area
+         */
+        abstract String describe(Collection<Command> commands);
+
+        /**
+         * Asks the background thread to stop; its result is discarded.
+         * This is called on the event dispatch thread.
+         */
+        void stop() {
+            cancel(false);
+        }
+
+        @Override
+        protected Collection<Command> doInBackground() {
+            return work();
+        }
+
+        /**
+         * Shows the progress of this task in the last line of the text area.
+         */
+        private void showProgress() {
+            final double seconds = (System.nanoTime() - startTime) / 1e9;
+            String progress = String.format("%s ... %.1f s", getActivity(), seconds);
+            final long nodes = getNodeCount();
+            if (nodes >= 0) {
+                progress += ", " + nodes + " nodes";
+            }
+            jTextArea.replaceRange(progress + "\n", progressOffset,
+                    jTextArea.getDocument().getLength());
+        }
+
+        @Override
+        protected void done() {
+            timer.stop();
+            showProgress();
+            task = null;
+            String message;
+            if (isCancelled()) {
+                message = getActivity() + " canceled.";
+            } else if (original != puzzle
+                    || original.getConstraints().getModificationCount() != modificationCount) {
+                message = "Puzzle changed meanwhile; result discarded.";
+            } else {
+                try {
+                    final Collection<Command> commands = get();
+                    message = commands == null ? "Puzzle not solvable." : describe(replay(commands));
+                } catch (InterruptedException | ExecutionException e) {
+                    message = getActivity() + " failed: " + e;
+                }
+            }
+            jTextArea.append(message + "\n");
+            updateFrame();
+        }
+
+        /**
+         * Replays commands executed on {@code copy} on the puzzle.
+         * Each nonempty command becomes a command that sets the
+         * corresponding cells of the puzzle, which is executed and
+         * recorded for undo.
+         *
+         * @param commands  the commands executed on {@code copy}
+         * @return the commands executed on the puzzle
+         * @modifies {@code puzzle}, {@code undoRedo}
+         */
+        private Collection<Command> replay(final Collection<Command> commands) {
+            final Map<KSCell, KSCell> cells = new IdentityHashMap<>();
+            for (int i = 0; i < copy.getRowCount(); i++) {
+                for (int j = 0; j < copy.getColumnCount(); j++) {
+                    cells.put(copy.getCell(i, j), original.getCell(i, j));
+                }
+            }
+            final List<Command> result = new ArrayList<>();
+            for (final Command command : commands) {
+                if (command.getCells().isEmpty()) {
+                    continue;
+                }
+                final CompoundCommand replayed = new CompoundCommand();
+                for (final KSCell cell : command.getCells()) {
+                    replayed.add(new SetCommand(cells.get(cell), cell.getState()));
+                }
+                replayed.execute();
+                undoRedo.did(replayed);
+                result.add(replayed);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * A task that solves the puzzle.
+     */
+    private final class SolveTask extends PuzzleTask {
+
+        /** The solver, working on {@code copy}. */
+        private final BacktrackSolver solver;
+
+        /**
+         * Constructs a task that solves the current puzzle.
+         *
+         * @pre {@code puzzle != null}
+         */
+        SolveTask() {
+            Reasoner reasoner = null;
+// Configure solver
+            //reasoner = new EntryWithOneEmptyCell(copy);
+            //reasoner = new BasicEmptyCellByContradiction(copy);
+            //reasoner = new FixpointReasoner(copy, reasoner);
+            solver = new BacktrackSolver(copy, reasoner);
+//
+        }
+
+        @Override
+        String getActivity() {
+            return "Solving";
+        }
+
+        @Override
+        long getNodeCount() {
+            return solver.getNodeCount();
+        }
+
+        @Override
+        Collection<Command> work() {
+            return solver.solve() ? solver.getCommands() : null;
+        }
+
+        @Override
+        String describe(final Collection<Command> commands) {
+            return "Puzzle solved: " + commands.size() + " steps";
+        }
+
+        @Override
+        void stop() {
+            solver.cancel();
+            super.stop();
+        }
+    }
+
+    /**
+     * A task that applies reasoning to the puzzle. Reasoners cannot be
+     * stopped; when canceled, the reasoning continues in the background,
+     * but its result is discarded.
+     */
+    private final class ReasoningTask extends PuzzleTask {
+
+        /** The reasoner, working on {@code copy}. */
+        private final Reasoner reasoner;
+
+        /**
+         * Constructs a task that applies reasoning to the current puzzle.
+         *
+         * @param fixpoint  whether to repeat the reasoning until no change
+         * @pre {@code puzzle != null}
+         */
+        ReasoningTask(final boolean fixpoint) {
+// Configure a reasoning strategy
+            //reasoner = new EntryWithOneEmptyCell(copy);
+            //reasoner = new BasicEmptyCellByContradiction(copy);
+            //reasoner = new GeneralizedEmptyCellByContradiction(copy, reasoner);
+            CompoundReasoner compound = new CompoundReasoner(copy);
+            // per constraint, the fixpoint only rechecks constraints that changed
+            compound.add(fixpoint ? Rule45Reasoner.perConstraint(copy)
+                : new Rule45Reasoner(copy));
+            compound.add(new SinglesReasoner(copy));
+            reasoner = fixpoint ? new FixpointReasoner(copy, compound) : compound;
+//
+        }
+
+        @Override
+        String getActivity() {
+            return "Reasoning";
+        }
+
+        @Override
+        Collection<Command> work() {
+            final CompoundCommand command = reasoner.apply();
+            return command == null ? null : List.of(command);
+        }
+
+        @Override
+        String describe(final Collection<Command> commands) {
+            if (commands.isEmpty()) {
+                return "Reasoning did not help.";
+            }
+            return "Reasoning determined "
+                    + commands.iterator().next().getCells().size() + " cells.";
+        }
+    }
+
 }
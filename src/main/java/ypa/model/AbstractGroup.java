@@ -107,6 +107,16 @@ public abstract class AbstractGroup implements Iterable<KCell> {
         return counts.get(state);
     }
 
+    /**
+     * Gets the digits that occur in this group.
+     *
+     * @return mask with bit {@code d - 1} set iff {@code getStateCount(d) > 0},
+     *   for {@code 1 <= d <= KSConstraints.DIGITS}
+     */
+    public int getUsedDigits() {
+        return counts.getDigits();
+    }
+
     /**
      * Returns whether this group is valid, according to the rules.
      * A state is called valid, when it can be extended into a solution,
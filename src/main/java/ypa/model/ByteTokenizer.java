@@ -0,0 +1,292 @@
+package ypa.model;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+
+/**
+ * A tokenizer for puzzle files that works directly on bytes, as a fast
+ * alternative to {@link java.util.Scanner} with its regular expressions.
+ * Tokens are separated by white space. It supports what the puzzle readers
+ * need: whole tokens, integers, and single characters (for Kakuro
+ * locations and directions).
+ * <p>
+ * Failures are reported with the same exceptions as {@code Scanner} does:
+ * {@link NoSuchElementException} at the end of the input, and
+ * {@link InputMismatchException} for a token of the wrong form.
+ */
+public final class ByteTokenizer {
+
+    /** Whether each byte value is white space, as {@link Character#isWhitespace(char)}. */
+    private static final boolean[] WHITESPACE = new boolean[256];
+
+    static {
+        for (char c = 0; c < WHITESPACE.length; c++) {
+            // non-ASCII bytes are part of multi-byte characters, not white space
+            WHITESPACE[c] = c < 0x80 && Character.isWhitespace(c);
+        }
+    }
+
+    /** The input. */
+    private final byte[] data;
+
+    /** Position of the next unread byte. */
+    private int position;
+
+    /**
+     * Constructs a tokenizer over given bytes.
+     *
+     * @param data  the input, in UTF-8 or a single-byte encoding
+     * @throws NullPointerException  if {@code data == null}
+     */
+    public ByteTokenizer(final byte[] data) {
+        if (data == null) {
+            throw new NullPointerException(ByteTokenizer.class.getSimpleName()
+                + ".pre failed: data == null");
+        }
+        this.data = data;
+        this.position = 0;
+    }
+
+    /**
+     * Constructs a tokenizer over the contents of a file.
+     *
+     * @param path  the file
+     * @return tokenizer over the bytes of {@code path}
+     * @throws IOException  if the file cannot be read
+     */
+    public static ByteTokenizer of(final Path path) throws IOException {
+        return new ByteTokenizer(Files.readAllBytes(path));
+    }
+
+    /**
+     * Returns whether a byte is white space, as {@link Character#isWhitespace(char)}.
+     *
+     * @param b  the byte
+     * @return whether {@code b} is an ASCII white space character
+     */
+    private static boolean isWhitespace(final int b) {
+        return WHITESPACE[b & 0xFF];
+    }
+
+    /**
+     * Skips white space.
+     *
+     * @modifies {@code this}
+     * @post the next byte, if any, is not white space
+     */
+    public void skipWhitespace() {
+        while (position < data.length && isWhitespace(data[position])) {
+            position++;
+        }
+    }
+
+    /**
+     * Returns whether there is another token.
+     *
+     * @return whether a non-white-space byte follows
+     * @modifies {@code this} (skips white space)
+     */
+    public boolean hasNext() {
+        skipWhitespace();
+        return position < data.length;
+    }
+
+    /**
+     * Returns whether the next token equals a given string.
+     *
+     * @param token  the expected token
+     * @return whether the next token is {@code token}
+     * @modifies {@code this} (skips white space)
+     */
+    public boolean hasNext(final String token) {
+        if (!hasNext()) {
+            return false;
+        }
+        final int end = tokenEnd();
+        return token.equals(new String(data, position, end - position, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns whether the next character is an ASCII letter.
+     *
+     * @return whether the next non-white-space byte is in {@code [a-zA-Z]}
+     * @modifies {@code this} (skips white space)
+     */
+    public boolean hasNextLetter() {
+        if (!hasNext()) {
+            return false;
+        }
+        final int b = data[position] | ('a' - 'A');
+        return 'a' <= b && b <= 'z';
+    }
+
+    /**
+     * Gets the end of the token starting at the current position.
+     *
+     * @return position after the last byte of the token
+     */
+    private int tokenEnd() {
+        int end = position;
+        while (end < data.length && !isWhitespace(data[end])) {
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * Reads the next token.
+     *
+     * @return the next token
+     * @throws NoSuchElementException  if there is no next token
+     * @modifies {@code this}
+     */
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final int start = position;
+        position = tokenEnd();
+        return new String(data, start, position - start, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads the next token, which must equal a given string.
+     *
+     * @param token  the expected token
+     * @throws NoSuchElementException  if there is no next token
+     * @throws InputMismatchException  if the next token is not {@code token}
+     * @modifies {@code this}
+     */
+    public void next(final String token) {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        if (!hasNext(token)) {
+            throw new InputMismatchException();
+        }
+        position = tokenEnd();
+    }
+
+    /**
+     * Reads the next token as an integer, with an optional sign.
+     * If the token is not an integer, it is not consumed.
+     *
+     * @return the value of the next token
+     * @throws NoSuchElementException  if there is no next token
+     * @throws InputMismatchException  if the next token is not an {@code int}
+     * @modifies {@code this}
+     */
+    public int nextInt() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final int end = tokenEnd();
+        int i = position;
+        final boolean negative = data[i] == '-';
+        if (negative || data[i] == '+') {
+            i++;
+        }
+        final long magnitude = parseDigits(i, end);
+        final long value = negative ? -magnitude : magnitude;
+        if (value > Integer.MAX_VALUE) {
+            throw overflow(end);
+        }
+        position = end;
+        return (int) value;
+    }
+
+    /**
+     * Parses a nonempty sequence of decimal digits.
+     *
+     * @param start  position of the first digit
+     * @param end  position after the last digit
+     * @return value of the digits, at most {@code Integer.MAX_VALUE + 1}
+     * @throws InputMismatchException  if the bytes are not all digits,
+     *   or if there are none, or if the value is out of range
+     */
+    private long parseDigits(final int start, final int end) {
+        if (start == end) {
+            throw new InputMismatchException();
+        }
+        for (int i = start; i < end; i++) {
+            if (data[i] < '0' || data[i] > '9') {
+                throw new InputMismatchException();
+            }
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            value = value * 10 + data[i] - '0';
+            if (value > Integer.MAX_VALUE + 1L) {
+                throw overflow(end);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Creates the exception for an integer token out of range.
+     *
+     * @param end  the end of the token
+     * @return exception with the same message as {@code Scanner.nextInt()}
+     */
+    private InputMismatchException overflow(final int end) {
+        return new InputMismatchException("For input string: \""
+            + new String(data, position, end - position, StandardCharsets.UTF_8) + "\"");
+    }
+
+    /**
+     * Reads the next character, after skipping white space. It need not be
+     * followed by white space.
+     *
+     * @return the next non-white-space byte, as a character
+     * @throws NoSuchElementException  if there is no next character
+     * @modifies {@code this}
+     */
+    public char nextChar() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return (char) (data[position++] & 0xFF);
+    }
+
+    /**
+     * Reads the next character, after skipping white space, which must be
+     * an ASCII letter. It need not be followed by white space.
+     *
+     * @return the next letter
+     * @throws NoSuchElementException  if there is no next character
+     * @throws InputMismatchException  if the next character is not a letter
+     * @modifies {@code this}
+     */
+    public char nextLetter() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        if (!hasNextLetter()) {
+            throw new InputMismatchException();
+        }
+        return nextChar();
+    }
+
+    /**
+     * Reads a token that consists of a single character.
+     *
+     * @return the character of the next token
+     * @throws NoSuchElementException  if there is no next token
+     * @throws InputMismatchException  if the next token is longer than one character
+     * @modifies {@code this}
+     */
+    public char nextSingleChar() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        if (tokenEnd() != position + 1) {
+            throw new InputMismatchException();
+        }
+        return (char) (data[position++] & 0xFF);
+    }
+}
@@ -0,0 +1,232 @@
+package ypa.model;
+
+/**
+ * Lookup table for the combinations of distinct digits 1 through 9,
+ * by sum and length (immutable, built on first use).
+ * For every sum in {@code [0..MAX_SUM]}, length in {@code [0..DIGITS]},
+ * and mask of digits that are already used, it holds the union of the
+ * digits occurring in some combination that avoids the used digits.
+ * A cage or entry whose remaining sum and number of empty cells give an
+ * empty union cannot be completed, however its empty cells are filled.
+ * The sum and length may also be given as a {@link KSpec}, and
+ * {@link KEntry#getCandidates()} looks up the candidates of an entry.
+ *
+ * <p>
+ * Digit {@code d} is represented by bit {@code d - 1} in a mask,
+ * as in {@link KSConstraints}.
+ */
+public final class CombinationTable {
+
+    /** Number of digits. */
+    public static final int DIGITS = KSConstraints.DIGITS;
+
+    /** Largest sum of distinct digits. */
+    public static final int MAX_SUM = KSConstraints.REGION_SUM;
+
+    /** Number of digit masks. */
+    private static final int MASKS = KSConstraints.ALL_DIGITS + 1;
+
+    /** Prevents instantiation. */
+    private CombinationTable() {
+    }
+
+    /**
+     * Holder of the tables, so that they are built when first needed.
+     */
+    private static final class Tables {
+
+        /** Sum of the digits of each mask. */
+        static final int[] SUMS = new int[MASKS];
+
+        /** The combinations, indexed by {@code [length][sum]}. */
+        static final int[][][] COMBINATIONS = new int[DIGITS + 1][MAX_SUM + 1][];
+
+        /**
+         * Union of the combinations avoiding a used mask,
+         * indexed by {@code ((length * (MAX_SUM + 1)) + sum) * MASKS + used}.
+         */
+        static final short[] UNIONS = new short[(DIGITS + 1) * (MAX_SUM + 1) * MASKS];
+
+        static {
+            final int[][] counts = new int[DIGITS + 1][MAX_SUM + 1];
+            for (int mask = 1; mask < MASKS; mask++) {
+                // the sum without the lowest digit is known already
+                SUMS[mask] = SUMS[mask & (mask - 1)] + Integer.numberOfTrailingZeros(mask) + 1;
+                counts[Integer.bitCount(mask)][SUMS[mask]]++;
+            }
+            counts[0][0] = 1;
+            for (int length = 0; length <= DIGITS; length++) {
+                for (int sum = 0; sum <= MAX_SUM; sum++) {
+                    COMBINATIONS[length][sum] = new int[counts[length][sum]];
+                    counts[length][sum] = 0;
+                }
+            }
+            for (int mask = 0; mask < MASKS; mask++) {
+                final int length = Integer.bitCount(mask);
+                COMBINATIONS[length][SUMS[mask]][counts[length][SUMS[mask]]++] = mask;
+            }
+
+            for (int length = 0; length <= DIGITS; length++) {
+                for (int sum = 0; sum <= MAX_SUM; sum++) {
+                    final int base = index(sum, length, 0);
+                    for (int used = 0; used < MASKS; used++) {
+                        int union = 0;
+                        for (int combination : COMBINATIONS[length][sum]) {
+                            if ((combination & used) == 0) {
+                                union |= combination;
+                            }
+                        }
+                        UNIONS[base + used] = (short) union;
+                    }
+                }
+            }
+        }
+
+        /** Prevents instantiation. */
+        private Tables() {
+        }
+    }
+
+    /**
+     * Computes the index into the table of unions.
+     *
+     * @param sum  the sum
+     * @param length  the length
+     * @param used  the used digits
+     * @return index of {@code (sum, length, used)}
+     */
+    private static int index(final int sum, final int length, final int used) {
+        return (length * (MAX_SUM + 1) + sum) * MASKS + used;
+    }
+
+    /**
+     * Returns whether a sum and length are within the table.
+     *
+     * @param sum  the sum
+     * @param length  the length
+     * @return whether {@code 0 <= sum <= MAX_SUM && 0 <= length <= DIGITS}
+     */
+    private static boolean inRange(final int sum, final int length) {
+        return 0 <= sum && sum <= MAX_SUM && 0 <= length && length <= DIGITS;
+    }
+
+    /**
+     * Gets the digits that can still be used to complete a sum:
+     * the union of the combinations of a given sum and length
+     * that avoid the used digits.
+     *
+     * @param sum  the remaining sum
+     * @param length  the number of digits still to be chosen
+     * @param used  mask of the digits that may not be chosen
+     * @return union of the masks of the combinations of {@code length}
+     *   digits summing to {@code sum} and disjoint from {@code used};
+     *   0 if there are none, or if {@code sum} or {@code length} is out of range
+     * @pre {@code 0 <= used <= KSConstraints.ALL_DIGITS}
+     */
+    public static int getCandidates(final int sum, final int length, final int used) {
+        if (!inRange(sum, length)) {
+            return 0;
+        }
+        return Tables.UNIONS[index(sum, length, used)];
+    }
+
+    /**
+     * Gets the digits that can still be used to complete a specification,
+     * as {@link #getCandidates(int, int, int)} does.
+     *
+     * @param spec  the remaining sum and the number of digits still to be chosen
+     * @param used  mask of the digits that may not be chosen
+     * @return union of the masks of the combinations for {@code spec}
+     *   disjoint from {@code used}; 0 if there are none
+     * @pre {@code spec != null && 0 <= used <= KSConstraints.ALL_DIGITS}
+     */
+    public static int getCandidates(final KSpec spec, final int used) {
+        return getCandidates(spec.getSum(), spec.getLength(), used);
+    }
+
+    /**
+     * Gets the combinations of a given sum and length.
+     *
+     * @param sum  the sum
+     * @param length  the number of digits
+     * @return masks of all sets of {@code length} distinct digits summing to
+     *   {@code sum}, in increasing order; empty if out of range
+     */
+    public static int[] getCombinations(final int sum, final int length) {
+        if (!inRange(sum, length)) {
+            return new int[0];
+        }
+        return Tables.COMBINATIONS[length][sum].clone();
+    }
+
+    /**
+     * Gets the combinations of a specification.
+     *
+     * @param spec  the sum and the number of digits
+     * @return masks of all sets of distinct digits meeting {@code spec},
+     *   in increasing order
+     * @pre {@code spec != null}
+     */
+    public static int[] getCombinations(final KSpec spec) {
+        return getCombinations(spec.getSum(), spec.getLength());
+    }
+
+    /**
+     * Counts the combinations of a given sum and length that avoid used digits.
+     *
+     * @param sum  the remaining sum
+     * @param length  the number of digits still to be chosen
+     * @param used  mask of the digits that may not be chosen
+     * @return number of combinations of {@code length} digits summing to
+     *   {@code sum} and disjoint from {@code used}
+     */
+    public static int count(final int sum, final int length, final int used) {
+        if (!inRange(sum, length)) {
+            return 0;
+        }
+        int result = 0;
+        for (int combination : Tables.COMBINATIONS[length][sum]) {
+            if ((combination & used) == 0) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the digits that must be used to complete a sum: the intersection
+     * of the combinations of a given sum and length that avoid the used digits.
+     *
+     * @param sum  the remaining sum
+     * @param length  the number of digits still to be chosen
+     * @param used  mask of the digits that may not be chosen
+     * @return intersection of the masks of the combinations of {@code length}
+     *   digits summing to {@code sum} and disjoint from {@code used};
+     *   0 if there are none
+     */
+    public static int getRequired(final int sum, final int length, final int used) {
+        if (!inRange(sum, length)) {
+            return 0;
+        }
+        int result = KSConstraints.ALL_DIGITS;
+        boolean any = false;
+        for (int combination : Tables.COMBINATIONS[length][sum]) {
+            if ((combination & used) == 0) {
+                result &= combination;
+                any = true;
+            }
+        }
+        return any ? result : 0;
+    }
+
+    /**
+     * Sums the digits in a mask.
+     *
+     * @param mask  the mask
+     * @return sum of the digits {@code d} with bit {@code d - 1} set in {@code mask}
+     * @pre {@code 0 <= mask <= KSConstraints.ALL_DIGITS}
+     */
+    public static int sum(final int mask) {
+        return Tables.SUMS[mask];
+    }
+}
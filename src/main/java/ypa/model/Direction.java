@@ -63,6 +63,16 @@ public enum Direction {
         return fromString(scanner.next("."));
     }
 
+    /**
+     * Factory method, returning the direction represented by a given tokenizer.
+     *
+     * @param tokenizer  the given tokenizer
+     * @return direction delivered by {@code tokenizer}
+     */
+    public static Direction fromTokenizer(final ByteTokenizer tokenizer) {
+        return fromString(String.valueOf(tokenizer.nextSingleChar()));
+    }
+
     /**
      * Very simple test.
      *
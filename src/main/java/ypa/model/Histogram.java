@@ -1,36 +1,58 @@
 package ypa.model;
 
-import java.util.HashMap;
+import java.util.Arrays;
 
 /**
  * A histogram of cell states, counting how often each state occurs in a group.
+ * The counts are kept in an array indexed by the offset of the state from
+ * {@link KCell#BLOCKED}, which grows when a larger state is counted, so that
+ * adjusting a count does not allocate for the usual states.
+ * Alongside the counts, a mask of the digits that occur is maintained.
  *
  * @inv For each possible cell state, a count is maintained
  *
  * @author Tom Verhoeff (Eindhoven University of Technology)
  */
-public class Histogram extends HashMap<Integer, Integer> {
+public class Histogram {
+
+    /** Initial number of counts: blocked, empty, and the digits. */
+    private static final int INITIAL_SIZE = KSConstraints.DIGITS + 2;
+
+    /** The counts, indexed by {@code state - KCell.BLOCKED}. */
+    private int[] counts;
+
+    /** Mask with bit {@code d - 1} set iff digit {@code d} occurs. */
+    private int digits;
+
+    // Private invariant:
+    //   (\forall d; 1 <= d <= KSConstraints.DIGITS;
+    //     (digits & KSConstraints.bit(d)) != 0 == get(d) > 0)
 
     /** Constructs an empty histogram. */
     public Histogram() {
-        super();
-        put(KCell.BLOCKED, 0);
-        put(KCell.EMPTY, 0);
+        counts = new int[INITIAL_SIZE];
     }
 
     /**
      * Returns the occurrence count for a given cell state.
      *
-     * @param key  the given cell state
-     * @return how often {@code key} occurs
+     * @param state  the given cell state
+     * @return how often {@code state} occurs
+     * @pre {@code state >= KCell.BLOCKED}
      */
-    @Override
-    public Integer get(Object key) {
-        Integer current = super.get(key);
-        if (current == null) {
-            current = 0;
-        }
-        return current;
+    public int get(final int state) {
+        final int index = state - KCell.BLOCKED;
+        return index < counts.length ? counts[index] : 0;
+    }
+
+    /**
+     * Gets the digits that occur.
+     *
+     * @return mask with bit {@code d - 1} set iff {@code get(d) > 0},
+     *   for {@code 1 <= d <= KSConstraints.DIGITS}
+     */
+    public int getDigits() {
+        return digits;
     }
 
     /**
@@ -38,13 +60,24 @@ public class Histogram extends HashMap<Integer, Integer> {
      *
      * @param state  state whose count changes
      * @param delta  the amount of change
-     * @pre {@code true}
+     * @pre {@code state >= KCell.BLOCKED}
      * @modifies {@code this}
      * @post {@code get(state) == \old(get(state) + delta) &&}<br>
      *   {@code (\forall CellState s; s != state; get(s) == \old(get(s)))}
      */
     public void adjust(final int state, final int delta) {
-        put(state, get(state) + delta);
+        final int index = state - KCell.BLOCKED;
+        if (index >= counts.length) {
+            counts = Arrays.copyOf(counts, index + 1);
+        }
+        counts[index] += delta;
+        if (KCell.EMPTY < state && state <= KSConstraints.DIGITS) {
+            if (counts[index] > 0) {
+                digits |= KSConstraints.bit(state);
+            } else {
+                digits &= ~KSConstraints.bit(state);
+            }
+        }
     }
 
 }
@@ -40,6 +40,12 @@ public class KCell {
     /** The grid to which this cell belongs, if any. */
     private KGrid grid;
 
+    /** The horizontal entry to which this cell belongs, if any. */
+    private KEntry horizontal;
+
+    /** The vertical entry to which this cell belongs, if any. */
+    private KEntry vertical;
+
     /**
      * Constructs a cell with a given state.
      *
@@ -74,6 +80,15 @@ public class KCell {
         this(scanner.next());
     }
 
+    /**
+     * Constructs a cell from a given tokenizer.
+     *
+     * @param tokenizer  the given tokenizer
+     */
+    public KCell(final ByteTokenizer tokenizer) {
+        this(tokenizer.next());
+    }
+
     public int getState() {
         return state;
     }
@@ -138,6 +153,17 @@ public class KCell {
         this.grid = grid;
     }
 
+    /**
+     * Gets the entry in a given direction to which this cell belongs.
+     *
+     * @param direction  the direction
+     * @return the entry in {@code direction} containing {@code this},
+     *   or null if there is none
+     */
+    public KEntry getEntry(final Direction direction) {
+        return direction == Direction.HORIZONTAL ? horizontal : vertical;
+    }
+
     /**
      * Returns whether this cell is involved in a rule violation.
      *
@@ -147,15 +173,8 @@ public class KCell {
         if (!this.isFilled()) {
             return true;
         }
-        for (AbstractGroup group : groups) {
-            if (group == grid) {
-                continue;
-            }
-            if (!group.isValid()) {
-                return false;
-            }
-        }
-        return true;
+        return (horizontal == null || horizontal.isValid())
+                && (vertical == null || vertical.isValid());
     }
 
     /**
@@ -174,10 +193,18 @@ public class KCell {
      * @param group  the group to add
      * @pre {@code group != null && ! isElementOf(group)}
      * @modifies {@code this}
-     * @post {@code isElementOf(group)}
+     * @post {@code isElementOf(group)}, and if {@code group} is an entry,
+     *   {@code getEntry(group.getDirection()) == group}
      */
     void add(final AbstractGroup group) {
         groups.add(group);
+        if (group instanceof KEntry entry) {
+            if (entry.getDirection() == Direction.HORIZONTAL) {
+                horizontal = entry;
+            } else {
+                vertical = entry;
+            }
+        }
     }
 
     /**
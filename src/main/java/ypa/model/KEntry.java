@@ -37,6 +37,9 @@ public class KEntry extends AbstractGroup {
     /** The specification. */
     private final KSpec specification;
 
+    /** The index of this entry in the entries of its grid; -1 if none. */
+    private int index = -1;
+
     /**
      * Constructs a {@code KEntry} from a given location, direction, and
      * specification.
@@ -62,6 +65,17 @@ public class KEntry extends AbstractGroup {
         this.specification = new KSpec(scanner);
     }
 
+    /**
+     * Constructs a {@code KEntry} from a given tokenizer.
+     *
+     * @param tokenizer  the given tokenizer
+     */
+    public KEntry(final ByteTokenizer tokenizer) {
+        this.location = new Location(tokenizer);
+        this.direction = Direction.fromTokenizer(tokenizer);
+        this.specification = new KSpec(tokenizer);
+    }
+
     public Location getLocation() {
         return location;
     }
@@ -74,6 +88,27 @@ public class KEntry extends AbstractGroup {
         return specification;
     }
 
+    /**
+     * Gets the index of this entry in the list of entries of its grid,
+     * which is set by the grid when it is constructed.
+     *
+     * @return index in {@code KGrid.getEntries()}, or -1 if not in a grid
+     */
+    int getIndex() {
+        return index;
+    }
+
+    /**
+     * Sets the index of this entry in the list of entries of its grid.
+     *
+     * @param index  the index
+     * @pre {@code 0 <= index}, and this entry is not yet in a grid
+     * @modifies {@code this}
+     */
+    void setIndex(final int index) {
+        this.index = index;
+    }
+
     /**
      * Adds a given empty cell.
      *
@@ -89,8 +124,39 @@ public class KEntry extends AbstractGroup {
         super.add(cell);
     }
 
+    /**
+     * Gets the digits that can still be put in the empty cells of this entry:
+     * those occurring in some combination of distinct digits that completes
+     * the specification and avoids the digits filled in already.
+     * This is a lookup in {@link CombinationTable}.
+     *
+     * @return mask with bit {@code d - 1} set iff digit {@code d} is a candidate
+     *   for the empty cells; 0 if the entry cannot be completed, or is full
+     */
+    public int getCandidates() {
+        final int emptyCount = this.getStateCount(KCell.EMPTY);
+        if (emptyCount == 0) {
+            return 0;
+        }
+        return CombinationTable.getCandidates(specification.getSum() - this.getTotal(),
+                emptyCount, this.getUsedDigits());
+    }
+
     @Override
     public boolean isValid() {
+        final int emptyCount = this.getStateCount(KCell.EMPTY);
+        // if each filled cell holds a different digit, there is nothing to check
+        final boolean distinct = this.getCount() - emptyCount
+                == Integer.bitCount(this.getUsedDigits());
+        return (distinct || isDistinct()) && isCompletable(emptyCount);
+    }
+
+    /**
+     * Returns whether the filled cells of this entry hold distinct numbers.
+     *
+     * @return whether no number occurs more than once
+     */
+    private boolean isDistinct() {
         for (KCell cell : this) {
             // these cells are not blocked
             if (!cell.isEmpty() && this.getStateCount(cell.getState()) > 1) {
@@ -98,8 +164,19 @@ public class KEntry extends AbstractGroup {
                 return false;
             }
         }
+        return true;
+    }
+
+    /**
+     * Returns whether the sum of this entry can still be met, as far as
+     * the total of the filled cells is concerned.
+     *
+     * @param emptyCount  the number of empty cells
+     * @return whether the total is low enough, and exact if there are
+     *   no empty cells
+     */
+    private boolean isCompletable(final int emptyCount) {
         final int total = this.getTotal();
-        final int emptyCount = this.getStateCount(KCell.EMPTY);
         final int expectedSum = this.specification.getSum();
         if (total + emptyCount > expectedSum) {
             // sum of digits filled in is too high
@@ -153,6 +230,28 @@ public class KEntry extends AbstractGroup {
         return result;
     }
 
+    /**
+     * Reads a list of entries from a given tokenizer, failing as
+     * {@link #scanEntries(Scanner)} does.
+     *
+     * @param tokenizer the given tokenizer
+     * @return the scanned list of entries
+     * @post white space has been skipped on tokenizer
+     */
+    static List<KEntry> scanEntries(final ByteTokenizer tokenizer) {
+        List<KEntry> result = new ArrayList<>();
+        while (tokenizer.hasNextLetter()) {
+            try {
+                result.add(new KEntry(tokenizer));
+            } catch (Exception e) {
+                throw new IllegalArgumentException(KEntry.class.getSimpleName()
+                        + ".scanEntries(ByteTokenizer).pre failed: after " + result.size()
+                        + " entries");
+            }
+        }
+        return result;
+    }
+
     /**
      * Determine minimum number of rows and columns of a list of
      * {@code KEntry} items.
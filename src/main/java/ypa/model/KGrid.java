@@ -1,6 +1,5 @@
 package ypa.model;
 
-import java.util.ArrayList;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Scanner;
@@ -16,8 +15,8 @@ import java.util.Scanner;
  */
 public class KGrid extends AbstractGroup implements Iterable<KCell> {
 
-    /** The grid of cells as a list of rows. */
-    private final List<List<KCell>> matrix;
+    /** The grid of cells, row-major. */
+    private final KCell[] cells;
 
     /** Number of rows. */
     private final int nRows;
@@ -33,14 +32,32 @@ public class KGrid extends AbstractGroup implements Iterable<KCell> {
     /** Total sum and length of entries in a particular direction. */
     private final EnumMap<Direction, KSpec> totals;
 
+    /** Whether each entry changed since it was last checked, by index. */
+    private final boolean[] dirty;
+
+    /** The indices of the entries that changed since they were last checked. */
+    private final int[] dirtyIndices;
+
+    /** The number of entries that changed since they were last checked. */
+    private int dirtyCount;
+
+    /** Whether each entry was invalid when last checked, by index. */
+    private final boolean[] invalid;
+
+    /** The number of entries that were invalid when last checked. */
+    private int invalidCount;
+
     // Representation invariants:
-    //   nRows == matrix.size()
-    //   if nRows == 0
-    //       then nColumns == 0
-    //       else (\forall i; matrix.has(i); matrix.get(i).size() == nColumns)
-    //   this.entries refers only to non-blocked cells in the matrix
+    //   cells.length == nRows * nColumns
+    //   cells[r * nColumns + c] is the cell at row r and column c
+    //   this.entries refers only to non-blocked cells in the grid
     //   each empty cell occurs in exactly two entries,
     //      one horizontal and one vertical
+    //   (\forall e; 0 <= e < entries.size(); entries.get(e).getIndex() == e)
+    //   dirty[e] == (\exists i; 0 <= i < dirtyCount; dirtyIndices[i] == e),
+    //      and dirtyIndices[0 .. dirtyCount) has no duplicates
+    //   invalidCount == (\num_of e; 0 <= e < entries.size(); invalid[e])
+    //   (\forall e; ! dirty[e] ==> invalid[e] == ! entries.get(e).isValid())
 
     /**
      * Constructs a grid from a given scanner.
@@ -52,8 +69,56 @@ public class KGrid extends AbstractGroup implements Iterable<KCell> {
      * @pre {@code scanner != null} and it delivers a valid puzzle grid
      */
     public KGrid(final Scanner scanner) {
-        matrix = new ArrayList<>();
-        entries = KEntry.scanEntries(scanner);
+        this(KEntry.scanEntries(scanner));
+
+        if (!scanner.hasNext("=")) {
+            return;
+        }
+
+        // Read states of non-blocked non-empty cells from scanner
+        scanner.skip("=");
+        while (scanner.hasNext()) {
+            Location location = new Location(scanner);
+            scanner.next("=");
+            KCell cell = new KCell(scanner); // temporary cell to get state
+            this.getCell(location).setState(cell.getState());
+        }
+    }
+
+    /**
+     * Constructs a grid from a given tokenizer, as from a scanner
+     * over the same input.
+     *
+     * @param tokenizer  the given tokenizer
+     * @throws NullPointerException  if {@code tokenizer == null}
+     * @throws IllegalArgumentException  if {@code tokenizer} does not yield
+     *     a valid Kakuro puzzle
+     * @pre {@code tokenizer != null} and it delivers a valid puzzle grid
+     */
+    public KGrid(final ByteTokenizer tokenizer) {
+        this(KEntry.scanEntries(tokenizer));
+
+        if (!tokenizer.hasNext("=")) {
+            return;
+        }
+
+        // Read states of non-blocked non-empty cells from tokenizer
+        tokenizer.next("=");
+        while (tokenizer.hasNext()) {
+            Location location = new Location(tokenizer);
+            tokenizer.next("=");
+            KCell cell = new KCell(tokenizer); // temporary cell to get state
+            this.getCell(location).setState(cell.getState());
+        }
+    }
+
+    /**
+     * Constructs a grid with all cells empty from a list of entries.
+     *
+     * @param entries  the entries
+     */
+    private KGrid(final List<KEntry> entries) {
+        this.entries = entries;
 
         // Initialize the grid to be just big enough to contain all entries.
 
@@ -62,25 +127,29 @@ public class KGrid extends AbstractGroup implements Iterable<KCell> {
         nRows = dim.getRow();
         nColumns = dim.getColumn();
 
-        // 2. Initialize the matrix to all blocked cells.
+        // 2. Initialize the grid to all blocked cells.
+        cells = new KCell[nRows * nColumns];
         for (int rowIndex = 0; rowIndex != nRows; ++rowIndex) {
-            final List<KCell> row = new ArrayList<>();
-            matrix.add(row);
             for (int columnIndex = 0; columnIndex != nColumns; ++columnIndex) {
                 final KCell cell = new KCell(KCell.BLOCKED);
                 cell.setGrid(this);
                 cell.setLocation(new Location(rowIndex, columnIndex));
-                row.add(cell);
+                cells[rowIndex * nColumns + columnIndex] = cell;
                 associate(cell, this);
             }
         }
 
         // 3. Define the cell states and grouping according to entries.
+        dirty = new boolean[entries.size()];
+        dirtyIndices = new int[entries.size()];
+        invalid = new boolean[entries.size()];
         totals = new EnumMap<>(Direction.class);
         for (Direction direction : Direction.values()) {
             totals.put(direction, new KSpec(0, 0));
         }
-        for (KEntry entry : entries) {
+        for (int e = 0; e != entries.size(); ++e) {
+            final KEntry entry = entries.get(e);
+            entry.setIndex(e);
             // update totals
             KSpec old = totals.get(entry.getDirection());
             totals.put(entry.getDirection(),
@@ -103,17 +172,9 @@ public class KGrid extends AbstractGroup implements Iterable<KCell> {
             }
         }
 
-        if (!scanner.hasNext("=")) {
-            return;
-        }
-
-        // Read states of non-blocked non-empty cells from scanner
-        scanner.skip("=");
-        while (scanner.hasNext()) {
-            Location location = new Location(scanner);
-            scanner.next("=");
-            KCell cell = new KCell(scanner); // temporary cell to get state
-            this.getCell(location).setState(cell.getState());
+        // 4. No entry has been checked yet.
+        for (int e = 0; e != entries.size(); ++e) {
+            markDirty(e);
         }
     }
 
@@ -146,7 +207,7 @@ public class KGrid extends AbstractGroup implements Iterable<KCell> {
      * @post {@code \result = cells[rowIndex, columnIndex]}
      */
     public KCell getCell(final int rowIndex, final int columnIndex) {
-        return matrix.get(rowIndex).get(columnIndex);
+        return cells[rowIndex * nColumns + columnIndex];
     }
 
     /**
@@ -198,6 +259,39 @@ public class KGrid extends AbstractGroup implements Iterable<KCell> {
         cell.add(group);
     }
 
+    /**
+     * Updates this grid when a cell is about to change state, and marks
+     * the entries of the cell to be checked again by {@link #isValid()}.
+     *
+     * @param cell  the cell that triggered the update, in its old state
+     * @param newState  the new state for {@code cell}
+     * @pre {@code cell != null}
+     * @post {@code counts have been updated}
+     */
+    @Override
+    public void update(final KCell cell, final int newState) {
+        super.update(cell, newState);
+        for (Direction direction : Direction.values()) {
+            final KEntry entry = cell.getEntry(direction);
+            if (entry != null) {
+                markDirty(entry.getIndex());
+            }
+        }
+    }
+
+    /**
+     * Marks an entry to be checked again by {@link #isValid()}.
+     *
+     * @param e  the index of the entry in {@code entries}
+     * @modifies {@code this}
+     */
+    private void markDirty(final int e) {
+        if (!dirty[e]) {
+            dirty[e] = true;
+            dirtyIndices[dirtyCount++] = e;
+        }
+    }
+
     /**
      * Checks whether this grid is full (no more empty cells).
      *
@@ -209,17 +303,25 @@ public class KGrid extends AbstractGroup implements Iterable<KCell> {
 
     /**
      * Checks whether this grid is valid.
+     * Only the entries that changed since the last check are checked again,
+     * so that checking after a move costs time proportional to the number
+     * of entries of the cells involved, not to the size of the grid.
      *
      * @return whether this is valid
      */
     @Override
     public boolean isValid() {
-        for (KEntry entry : entries) {
-            if (!entry.isValid()) {
-                return false;
+        for (int i = 0; i != dirtyCount; ++i) {
+            final int e = dirtyIndices[i];
+            dirty[e] = false;
+            final boolean isInvalid = !entries.get(e).isValid();
+            if (isInvalid != invalid[e]) {
+                invalid[e] = isInvalid;
+                invalidCount += isInvalid ? 1 : -1;
             }
         }
-        return true;
+        dirtyCount = 0;
+        return invalidCount == 0;
     }
 
     /**
@@ -252,16 +354,16 @@ public class KGrid extends AbstractGroup implements Iterable<KCell> {
     /**
      * Converts the grid of cell states to a string in 2D layout.
      *
-     * @return string representation of {@code this.matrix}
+     * @return string representation of the cell states
      */
     public String gridAsString() {
         final StringBuilder result = new StringBuilder();
-        for (List<KCell> row : matrix) {
-            for (KCell cell : row) {
-                result.append(" ");
-                result.append(cell.toString());
+        for (int i = 0; i != cells.length; ++i) {
+            result.append(" ");
+            result.append(cells[i].toString());
+            if ((i + 1) % nColumns == 0) {
+                result.append("\n");
             }
-            result.append("\n");
         }
         return result.toString();
     }
@@ -276,16 +378,14 @@ public class KGrid extends AbstractGroup implements Iterable<KCell> {
         final StringBuilder result = new StringBuilder();
         result.append(this.entriesAsString());
         final StringBuilder separator = new StringBuilder("=\n");
-        for (List<KCell> row : matrix) {
-            for (KCell cell : row) {
-                if (!cell.isBlocked() && !cell.isEmpty()) {
-                    result.append(separator);
-                    separator.setLength(0);
-                    result.append(cell.getLocation());
-                    result.append(" = ");
-                    result.append(cell);
-                    result.append("\n");
-                }
+        for (KCell cell : cells) {
+            if (!cell.isBlocked() && !cell.isEmpty()) {
+                result.append(separator);
+                separator.setLength(0);
+                result.append(cell.getLocation());
+                result.append(" = ");
+                result.append(cell);
+                result.append("\n");
             }
         }
         return result.toString();
@@ -59,6 +59,19 @@ public class KPuzzle {
         this.grid = new KGrid(scanner);
     }
 
+    /**
+     * Constructs a new puzzle with initial state read from given tokenizer,
+     * and with a given name, as from a scanner over the same input.
+     *
+     * @param tokenizer  the given tokenizer
+     * @param name  the given name
+     */
+    public KPuzzle(final ByteTokenizer tokenizer, final String name) {
+        this.name = name;
+        this.mode = Mode.VIEW;
+        this.grid = new KGrid(tokenizer);
+    }
+
     public String getName() {
         return name;
     }
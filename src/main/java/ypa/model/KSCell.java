@@ -26,6 +26,9 @@ public class KSCell {
     /** The coloring of a cell. */
     private Color color = null;
 
+    /** The constraint state to report state changes to, if any. */
+    private KSConstraints constraints = null;
+
     /** A (rowIndex, colIndex) tuple. Records are quite handy - 
      * instead of writing a separate class. */
     protected record Location(int rowIndex, int colIndex) {}
@@ -53,13 +56,28 @@ public class KSCell {
 
     /**
      * Sets a new cell state.
+     * If the cell belongs to a grid, its constraint state is updated as well.
      *
      * @param state the new state
+     * @throws IllegalArgumentException if the cell belongs to a grid and
+     *     {@code state} is neither empty nor a digit
      */
     public void setState(int state) {
+        if (constraints != null) {
+            constraints.update(this, state);
+        }
         this.value = state;
     }
 
+    /**
+     * Sets the constraint state to report state changes to.
+     *
+     * @param constraints the constraint state of the grid of this cell
+     */
+    void setConstraints(KSConstraints constraints) {
+        this.constraints = constraints;
+    }
+
     /**
      * Set {@code cageSum}.
      * 
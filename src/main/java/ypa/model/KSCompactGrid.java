@@ -0,0 +1,376 @@
+package ypa.model;
+
+/**
+ * A compact Killer Sudoku grid, backed by primitive arrays instead of
+ * {@link KSCell} objects, for use on the solver path.
+ * Cells are addressed by their row-major index {@code rowIndex * COLS + colIndex}.
+ * The cage layout (a group number per cell and a cage sum per group number)
+ * is immutable and shared between copies; the mutable state consists of
+ * the cell values, and per unit (see {@link KSConstraints}) the mask of
+ * digits used, the running total, and the number of filled cells.
+ * Copying a grid, e.g. to hand it to another thread, therefore amounts to
+ * copying two small arrays.
+ *
+ * <p>
+ * Unlike {@link KSConstraints}, a compact grid does not count duplicates:
+ * digits are only placed in empty cells and only when they are candidates,
+ * so a consistent grid stays consistent.
+ *
+ * @inv {@code isConsistent() ==> no digit occurs twice in a unit}
+ */
+public class KSCompactGrid {
+
+    /** Number of cells in the grid. */
+    public static final int CELLS = KSConstraints.CELLS;
+
+    /** Offset of the digit mask of a unit in {@code units}. */
+    private static final int MASK = 0;
+
+    /** Offset of the total of a unit in {@code units}. */
+    private static final int TOTAL = 1;
+
+    /** Offset of the number of filled cells of a unit in {@code units}. */
+    private static final int FILLED = 2;
+
+    /** Number of entries per unit in {@code units}. */
+    private static final int STRIDE = 3;
+
+    /** The row, column, and nonet unit of each cell. */
+    private static final byte[] ROW_UNIT = new byte[CELLS];
+    private static final byte[] COLUMN_UNIT = new byte[CELLS];
+    private static final byte[] NONET_UNIT = new byte[CELLS];
+
+    static {
+        for (int i = 0; i < CELLS; i++) {
+            final int rowIndex = i / KSGrid.COLS;
+            final int colIndex = i % KSGrid.COLS;
+            ROW_UNIT[i] = (byte) (KSConstraints.FIRST_ROW_UNIT + rowIndex);
+            COLUMN_UNIT[i] = (byte) (KSConstraints.FIRST_COLUMN_UNIT + colIndex);
+            NONET_UNIT[i] = (byte) (KSConstraints.FIRST_NONET_UNIT
+                + KSConstraints.nonetIndex(rowIndex, colIndex));
+        }
+    }
+
+    /** The group number of the cage of each cell (shared). */
+    private final byte[] cages;
+
+    /** The cage sum per group number; 0 if no such cage (shared). */
+    private final short[] cageSums;
+
+    /** The number of cells per group number (shared). */
+    private final byte[] cageSizes;
+
+    /** The value of each cell; {@code KSCell.EMPTY} if empty. */
+    private final byte[] values;
+
+    /** Mask, total, and filled count of each unit, indexed by {@code unit * STRIDE + offset}. */
+    private final short[] units;
+
+    /** The number of empty cells. */
+    private int emptyCount;
+
+    /** Whether the values placed at construction time were mutually consistent. */
+    private final boolean consistent;
+
+    /**
+     * Constructs an empty grid with a given cage layout.
+     *
+     * @param cages  the group number of the cage of each cell, row-major
+     * @param cageSums  the cage sum for each group number (index 0 is unused)
+     * @throws IllegalArgumentException  if the layout is not a valid Killer Sudoku layout
+     * @pre {@code cages.length == CELLS && cageSums.length == KSConstraints.MAX_GROUP + 1}
+     */
+    public KSCompactGrid(final byte[] cages, final short[] cageSums) {
+        if (cages.length != CELLS || cageSums.length != KSConstraints.MAX_GROUP + 1) {
+            throw new IllegalArgumentException(getClass().getSimpleName()
+                + "().pre failed: invalid array lengths");
+        }
+        this.cages = cages.clone();
+        this.cageSums = cageSums.clone();
+        this.cageSizes = new byte[KSConstraints.MAX_GROUP + 1];
+        for (byte group : this.cages) {
+            if (group <= 0 || group > KSConstraints.MAX_GROUP) {
+                throw new IllegalArgumentException("invalid group number " + group);
+            }
+            if (cageSizes[group] == KSConstraints.DIGITS) {
+                throw new IllegalArgumentException("invalid puzzle instance - "
+                    + "more than 9 numbers in a cage");
+            }
+            cageSizes[group]++;
+        }
+        this.values = new byte[CELLS];
+        this.units = new short[KSConstraints.UNIT_COUNT * STRIDE];
+        this.emptyCount = CELLS;
+        this.consistent = true;
+    }
+
+    /**
+     * Constructs a compact copy of the current state of a grid.
+     * If the grid contains conflicting digits, only the first of them
+     * (row-major) is copied, and {@link #isConsistent()} returns false.
+     *
+     * @param grid  the grid to copy
+     */
+    public KSCompactGrid(final KSGrid grid) {
+        this.cages = new byte[CELLS];
+        this.cageSums = new short[KSConstraints.MAX_GROUP + 1];
+        this.cageSizes = new byte[KSConstraints.MAX_GROUP + 1];
+        this.values = new byte[CELLS];
+        this.units = new short[KSConstraints.UNIT_COUNT * STRIDE];
+        this.emptyCount = CELLS;
+
+        final KSConstraints constraints = grid.getConstraints();
+        for (int i = 0; i < CELLS; i++) {
+            final int group = grid.getCell(i / KSGrid.COLS, i % KSGrid.COLS).getGroup();
+            cages[i] = (byte) group;
+            cageSizes[group]++;
+            cageSums[group] = (short) constraints.getTarget(KSConstraints.cageUnit(group));
+        }
+
+        boolean ok = true;
+        for (int i = 0; i < CELLS; i++) {
+            final int value = grid.getCell(i / KSGrid.COLS, i % KSGrid.COLS).getValue();
+            if (value == KSCell.EMPTY) {
+                continue;
+            }
+            if ((getCandidates(i) & KSConstraints.bit(value)) == 0) {
+                ok = false;
+            } else {
+                set(i, value);
+            }
+        }
+        this.consistent = ok;
+    }
+
+    /**
+     * Constructs a copy of a given compact grid, sharing its cage layout.
+     *
+     * @param other  the grid to copy
+     * @post {@code this} has the same cage layout and state as {@code other},
+     *   and changes to either do not affect the other
+     */
+    public KSCompactGrid(final KSCompactGrid other) {
+        this.cages = other.cages;
+        this.cageSums = other.cageSums;
+        this.cageSizes = other.cageSizes;
+        this.values = other.values.clone();
+        this.units = other.units.clone();
+        this.emptyCount = other.emptyCount;
+        this.consistent = other.consistent;
+    }
+
+    /**
+     * Returns whether the initial values of this grid were free of conflicts.
+     *
+     * @return whether no digit of the copied state was dropped
+     */
+    public boolean isConsistent() {
+        return consistent;
+    }
+
+    /**
+     * Gets the value of a cell.
+     *
+     * @param index  the index of the cell
+     * @return value of cell {@code index}, or {@code KSCell.EMPTY}
+     */
+    public int get(final int index) {
+        return values[index];
+    }
+
+    /**
+     * Gets the group number of the cage of a cell.
+     *
+     * @param index  the index of the cell
+     * @return group number of the cage containing cell {@code index}
+     */
+    public int getCage(final int index) {
+        return cages[index];
+    }
+
+    /**
+     * Gets the cage sum of a cage.
+     *
+     * @param group  the group number of the cage
+     * @return cage sum of cage {@code group}, or 0 if there is no such cage
+     */
+    public int getCageSum(final int group) {
+        return cageSums[group];
+    }
+
+    /**
+     * Gets the number of cells of a cage.
+     *
+     * @param group  the group number of the cage
+     * @return number of cells in cage {@code group}
+     */
+    public int getCageSize(final int group) {
+        return cageSizes[group];
+    }
+
+    /**
+     * Gets the number of empty cells.
+     *
+     * @return number of empty cells
+     */
+    public int getEmptyCount() {
+        return emptyCount;
+    }
+
+    /**
+     * Returns whether all cells are filled.
+     *
+     * @return whether no cell is empty
+     */
+    public boolean isFull() {
+        return emptyCount == 0;
+    }
+
+    /**
+     * Gets the digits that do not occur in the row, column, nonet, and cage of a cell,
+     * and that occur in some completion of its cage.
+     *
+     * @param index  the index of the empty cell
+     * @return mask with bit {@code d - 1} set iff digit {@code d} can be placed
+     * @pre {@code get(index) == KSCell.EMPTY}
+     */
+    public int getCandidates(final int index) {
+        final int group = cages[index];
+        int used = mask(ROW_UNIT[index]) | mask(COLUMN_UNIT[index]);
+        used |= mask(NONET_UNIT[index]) | mask(KSConstraints.cageUnit(group));
+        return KSConstraints.ALL_DIGITS & ~used & sumCandidates(group);
+    }
+
+    /**
+     * Gets the digits that can go in the next cell of a cage, considering
+     * only its sum: the remaining cells must still be fillable with
+     * distinct unused digits that make up the remaining sum.
+     *
+     * @param group  the group number of the cage
+     * @return mask of digits allowed by the cage sum
+     */
+    private int sumCandidates(final int group) {
+        final int base = KSConstraints.cageUnit(group) * STRIDE;
+        return CombinationTable.getCandidates(cageSums[group] - units[base + TOTAL],
+            cageSizes[group] - units[base + FILLED], units[base + MASK]);
+    }
+
+    /**
+     * Puts a digit in an empty cell.
+     *
+     * @param index  the index of the cell
+     * @param digit  the digit to put
+     * @pre {@code get(index) == KSCell.EMPTY && (getCandidates(index) & bit(digit)) != 0}
+     * @modifies {@code this}
+     * @post {@code get(index) == digit}
+     */
+    public void set(final int index, final int digit) {
+        values[index] = (byte) digit;
+        emptyCount--;
+        final int bit = KSConstraints.bit(digit);
+        add(ROW_UNIT[index], bit, digit, +1);
+        add(COLUMN_UNIT[index], bit, digit, +1);
+        add(NONET_UNIT[index], bit, digit, +1);
+        add(KSConstraints.cageUnit(cages[index]), bit, digit, +1);
+    }
+
+    /**
+     * Empties a filled cell.
+     *
+     * @param index  the index of the cell
+     * @pre {@code get(index) != KSCell.EMPTY}
+     * @modifies {@code this}
+     * @post {@code get(index) == KSCell.EMPTY}
+     */
+    public void clear(final int index) {
+        final int digit = values[index];
+        values[index] = KSCell.EMPTY;
+        emptyCount++;
+        final int bit = KSConstraints.bit(digit);
+        add(ROW_UNIT[index], bit, digit, -1);
+        add(COLUMN_UNIT[index], bit, digit, -1);
+        add(NONET_UNIT[index], bit, digit, -1);
+        add(KSConstraints.cageUnit(cages[index]), bit, digit, -1);
+    }
+
+    /**
+     * Gets the index of the first empty cell, row-major.
+     *
+     * @return index of the first empty cell, or -1 if the grid is full
+     */
+    public int firstEmpty() {
+        for (int i = 0; i < CELLS; i++) {
+            if (values[i] == KSCell.EMPTY) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the index of an empty cell with the fewest candidates, row-major
+     * first among equals (minimum remaining values).
+     * A cell without candidates is returned as soon as it is found.
+     *
+     * @return index of an empty cell with the fewest candidates,
+     *   or -1 if the grid is full
+     */
+    public int mostConstrained() {
+        int best = -1;
+        int bestCount = KSConstraints.DIGITS + 1;
+        for (int i = 0; i < CELLS; i++) {
+            if (values[i] != KSCell.EMPTY) {
+                continue;
+            }
+            final int count = Integer.bitCount(getCandidates(i));
+            if (count < bestCount) {
+                best = i;
+                bestCount = count;
+                if (count == 0) {
+                    break;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Gets the digits used in a unit.
+     *
+     * @param unit  the unit
+     * @return mask of the digits in {@code unit}
+     */
+    private int mask(final int unit) {
+        return units[unit * STRIDE + MASK];
+    }
+
+    /**
+     * Adds or removes a digit in a unit.
+     *
+     * @param unit  the unit
+     * @param bit  the bit of {@code digit}
+     * @param digit  the digit
+     * @param delta  +1 to add, -1 to remove
+     */
+    private void add(final int unit, final int bit, final int digit, final int delta) {
+        final int base = unit * STRIDE;
+        units[base + MASK] ^= bit;
+        units[base + TOTAL] += delta * digit;
+        units[base + FILLED] += delta;
+    }
+
+    /**
+     * Converts the values to a string of 81 characters, row-major,
+     * with {@code '.'} for empty cells.
+     *
+     * @return string representation of the values
+     */
+    @Override
+    public String toString() {
+        final StringBuilder result = new StringBuilder(CELLS);
+        for (byte value : values) {
+            result.append(value == KSCell.EMPTY ? '.' : (char) ('0' + value));
+        }
+        return result.toString();
+    }
+}
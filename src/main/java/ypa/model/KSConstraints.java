@@ -0,0 +1,486 @@
+package ypa.model;
+
+/**
+ * Incrementally maintained constraint state of a Killer Sudoku grid.
+ * For every unit (row, column, nonet, and cage) it keeps how often each
+ * state occurs, a 9-bit mask of the digits used, and the running total of
+ * the values, and when it last changed. For the grid as a whole, it keeps
+ * the number of empty cells, and which cells are empty as a bitset of
+ * 81 bits in two {@code long}s, indexed row-major, so that checking whether
+ * the grid is full and finding the next empty cell take constant time.
+ * The cells of the grid report every state change through
+ * {@link #update(KSCell, int)}, so that validity checks and candidate
+ * enumeration become a handful of array lookups and bit operations.
+ *
+ * <p>
+ * Units are numbered consecutively: rows first, then columns, then nonets,
+ * and finally cages (indexed by their group number).
+ * Digit {@code d} is represented by bit {@code d - 1} in a mask.
+ *
+ * @inv {@code (\forall u, v; 0 <= u < UNIT_COUNT && 0 <= v <= DIGITS;
+ *   count(u, v) == (\num_of cell; unit u has cell; cell.getValue() == v))}
+ */
+public class KSConstraints {
+
+    /** Number of digits, and number of cells in a row, column, or nonet. */
+    public static final int DIGITS = 9;
+
+    /** Mask with all digits set. */
+    public static final int ALL_DIGITS = (1 << DIGITS) - 1;
+
+    /** The value that every row, column, and nonet sums to. */
+    public static final int REGION_SUM = 45;
+
+    /** Number of cells in the grid. */
+    public static final int CELLS = KSGrid.ROWS * KSGrid.COLS;
+
+    /** Index of the first row unit. */
+    public static final int FIRST_ROW_UNIT = 0;
+
+    /** Index of the first column unit. */
+    public static final int FIRST_COLUMN_UNIT = FIRST_ROW_UNIT + KSGrid.ROWS;
+
+    /** Index of the first nonet unit. */
+    public static final int FIRST_NONET_UNIT = FIRST_COLUMN_UNIT + KSGrid.COLS;
+
+    /** Index of the unit of the cage with group number 1. */
+    public static final int FIRST_CAGE_UNIT = FIRST_NONET_UNIT + DIGITS;
+
+    /** Largest group number of a cage. */
+    public static final int MAX_GROUP = CELLS;
+
+    /** Total number of units. */
+    public static final int UNIT_COUNT = FIRST_CAGE_UNIT + MAX_GROUP;
+
+    /** Number of states counted per unit: empty, and the digits. */
+    private static final int STATES = DIGITS + 1;
+
+    /** Number of cells per word of {@code empty}. */
+    private static final int WORD = Long.SIZE;
+
+    /** How often each state occurs in each unit, indexed by {@code unit * STATES + state}. */
+    private final int[] counts;
+
+    /** The digits used in each unit. */
+    private final int[] masks;
+
+    /** The sum of the values in each unit. */
+    private final int[] totals;
+
+    /** The value each unit must sum to; 0 for group numbers without cage. */
+    private final int[] targets;
+
+    /** The number of cells in each unit. */
+    private final int[] sizes;
+
+    /** The number of state changes so far. */
+    private long modificationCount;
+
+    /** The value of {@code modificationCount} at the last change of each unit. */
+    private final long[] stamps;
+
+    /** Bit {@code i % WORD} of word {@code i / WORD} is set iff cell {@code i} is empty. */
+    private final long[] empty = new long[(CELLS + WORD - 1) / WORD];
+
+    /** The number of empty cells. */
+    private int emptyCount;
+
+    /**
+     * Constructs the constraint state for a given matrix of cells and
+     * registers itself with every cell.
+     * The cage sum of a cage is taken from the first cell of the cage
+     * in row-major order.
+     *
+     * @param matrix  the cells of the grid, as a list of rows
+     * @throws IllegalArgumentException  if a cell holds an invalid state
+     * @pre {@code matrix} is a {@code ROWS x COLS} matrix of cells
+     *   with group numbers in {@code [1..MAX_GROUP]}
+     * @post every cell of {@code matrix} reports its changes to {@code this}
+     */
+    KSConstraints(final KSCell[][] matrix) {
+        counts = new int[UNIT_COUNT * STATES];
+        masks = new int[UNIT_COUNT];
+        totals = new int[UNIT_COUNT];
+        targets = new int[UNIT_COUNT];
+        sizes = new int[UNIT_COUNT];
+        stamps = new long[UNIT_COUNT];
+
+        for (int u = FIRST_ROW_UNIT; u < FIRST_CAGE_UNIT; u++) {
+            targets[u] = REGION_SUM;
+        }
+
+        for (KSCell[] row : matrix) {
+            for (KSCell cell : row) {
+                final int cage = cageUnit(cell.getGroup());
+                if (sizes[cage] == 0) {
+                    targets[cage] = cell.getCageSum();
+                }
+                checkState(cell.getValue());
+                if (cell.getValue() == KSCell.EMPTY) {
+                    setEmpty(cellIndex(cell), true);
+                }
+                for (int unit : unitsOf(cell)) {
+                    sizes[unit]++;
+                    add(unit, cell.getValue(), +1);
+                }
+                cell.setConstraints(this);
+            }
+        }
+    }
+
+    /**
+     * Updates this state when a cell is about to change state.
+     *
+     * @param cell  the cell that triggered the update, in its old state
+     * @param newState  the new state for {@code cell}
+     * @throws IllegalArgumentException  if {@code newState} is not a valid state
+     * @pre {@code cell} belongs to the grid of {@code this}
+     * @modifies {@code this}
+     * @post counts, masks, and totals reflect {@code newState} for {@code cell},
+     *   and the units of {@code cell} are stamped with a new modification count
+     */
+    void update(final KSCell cell, final int newState) {
+        checkState(newState);
+        final int oldState = cell.getValue();
+        if (oldState == newState) {
+            return;
+        }
+        modificationCount++;
+        if (oldState == KSCell.EMPTY || newState == KSCell.EMPTY) {
+            setEmpty(cellIndex(cell), newState == KSCell.EMPTY);
+        }
+        move(rowUnit(cell), oldState, newState);
+        move(columnUnit(cell), oldState, newState);
+        move(nonetUnit(cell), oldState, newState);
+        move(cageUnit(cell.getGroup()), oldState, newState);
+    }
+
+    /**
+     * Checks whether the row, column, nonet, and cage of {@code cell} do not
+     * violate any Killer Sudoku rules.
+     * That is, no other cell in these units holds the same state, and if all
+     * other cells of the cage are filled, the cage sums to its cage sum;
+     * otherwise, the empty cells of the cage can still make up its cage sum.
+     *
+     * @param cell  the cell whose units are checked
+     * @return {@code true} if no rules are violated and {@code false} otherwise
+     */
+    public boolean isValid(final KSCell cell) {
+        final int state = cell.getValue();
+        final int row = rowUnit(cell);
+        final int column = columnUnit(cell);
+        final int nonet = nonetUnit(cell);
+        final int cage = cageUnit(cell.getGroup());
+
+        final int duplicates = Math.max(Math.max(count(row, state), count(column, state)),
+            Math.max(count(nonet, state), count(cage, state)));
+        if (duplicates > 1) {
+            return false;
+        }
+
+        // empty cells in the cage, other than cell itself
+        final int othersEmpty = count(cage, KSCell.EMPTY) - (state == KSCell.EMPTY ? 1 : 0);
+        if (othersEmpty == 0) {
+            return totals[cage] == targets[cage];
+        }
+
+        // the empty cells of the cage must be able to make up the remaining sum
+        return CombinationTable.getCandidates(targets[cage] - totals[cage],
+            count(cage, KSCell.EMPTY), masks[cage]) != 0;
+    }
+
+    /**
+     * Gets the digits that do not yet occur in the row, column, nonet, and
+     * cage of a given cell.
+     *
+     * @param cell  the cell to get the candidates for
+     * @return mask with bit {@code d - 1} set iff digit {@code d} is a candidate
+     * @pre {@code cell.getValue() == KSCell.EMPTY}
+     */
+    public int getCandidates(final KSCell cell) {
+        int used = masks[rowUnit(cell)] | masks[columnUnit(cell)];
+        used |= masks[nonetUnit(cell)] | masks[cageUnit(cell.getGroup())];
+        return ALL_DIGITS & ~used;
+    }
+
+    /**
+     * Gets the candidates of a given cell that also fit the sum of its cage:
+     * after placing the digit, the other empty cells of the cage can still
+     * be filled with distinct unused digits that make up the cage sum.
+     *
+     * @param cell  the cell to get the candidates for
+     * @return mask with bit {@code d - 1} set iff digit {@code d} is a candidate
+     *   that occurs in some completion of the cage
+     * @pre {@code cell.getValue() == KSCell.EMPTY}
+     */
+    public int getFeasibleCandidates(final KSCell cell) {
+        final int cage = cageUnit(cell.getGroup());
+        return getCandidates(cell) & CombinationTable.getCandidates(
+            targets[cage] - totals[cage], count(cage, KSCell.EMPTY), masks[cage]);
+    }
+
+    /**
+     * Gets how often a state occurs in a unit.
+     *
+     * @param unit  the unit
+     * @param state  the state
+     * @return number of cells in {@code unit} with state {@code state}
+     */
+    public int count(final int unit, final int state) {
+        return counts[unit * STATES + state];
+    }
+
+    /**
+     * Gets the digits used in a unit.
+     *
+     * @param unit  the unit
+     * @return mask with bit {@code d - 1} set iff digit {@code d} occurs in {@code unit}
+     */
+    public int getMask(final int unit) {
+        return masks[unit];
+    }
+
+    /**
+     * Gets the sum of the values in a unit.
+     *
+     * @param unit  the unit
+     * @return sum of the values in {@code unit}
+     */
+    public int getTotal(final int unit) {
+        return totals[unit];
+    }
+
+    /**
+     * Gets the value a unit must sum to.
+     *
+     * @param unit  the unit
+     * @return 45 for rows, columns, and nonets; the cage sum for cages
+     */
+    public int getTarget(final int unit) {
+        return targets[unit];
+    }
+
+    /**
+     * Gets the number of cells in a unit.
+     *
+     * @param unit  the unit
+     * @return number of cells in {@code unit}; 0 for group numbers without cage
+     */
+    public int getSize(final int unit) {
+        return sizes[unit];
+    }
+
+    /**
+     * Gets the number of state changes so far. Together with
+     * {@link #getStamp(int)}, this tells which units changed since some moment.
+     *
+     * @return number of times a cell changed state since construction
+     */
+    public long getModificationCount() {
+        return modificationCount;
+    }
+
+    /**
+     * Gets the number of empty cells of the grid.
+     *
+     * @return number of empty cells
+     */
+    public int getEmptyCount() {
+        return emptyCount;
+    }
+
+    /**
+     * Returns whether all cells of the grid are filled.
+     *
+     * @return whether no cell is empty
+     */
+    public boolean isFull() {
+        return emptyCount == 0;
+    }
+
+    /**
+     * Gets the first empty cell at or after a given index, row-major.
+     * To visit all empty cells, start at 0 and continue after each result.
+     *
+     * @param from  the index to start at
+     * @return the index of the first empty cell at or after {@code from},
+     *   or -1 if there is none
+     * @pre {@code 0 <= from}
+     */
+    public int nextEmpty(final int from) {
+        int word = from / WORD;
+        if (word >= empty.length) {
+            return -1;
+        }
+        long bits = empty[word] & (-1L << (from % WORD));
+        while (bits == 0) {
+            word++;
+            if (word == empty.length) {
+                return -1;
+            }
+            bits = empty[word];
+        }
+        return word * WORD + Long.numberOfTrailingZeros(bits);
+    }
+
+    /**
+     * Gets the modification count of the last change of a unit.
+     *
+     * @param unit  the unit
+     * @return value of {@link #getModificationCount()} right after the last
+     *   change of {@code unit}; 0 if it never changed
+     */
+    public long getStamp(final int unit) {
+        return stamps[unit];
+    }
+
+    /**
+     * Converts a digit to its bit in a mask.
+     *
+     * @param digit  the digit
+     * @return mask with only the bit of {@code digit} set
+     * @pre {@code 1 <= digit <= DIGITS}
+     */
+    public static int bit(final int digit) {
+        return 1 << (digit - 1);
+    }
+
+    /**
+     * Gets the row unit of a cell.
+     *
+     * @param cell  the cell
+     * @return unit index of the row of {@code cell}
+     */
+    public static int rowUnit(final KSCell cell) {
+        return FIRST_ROW_UNIT + cell.getLocation().rowIndex();
+    }
+
+    /**
+     * Gets the column unit of a cell.
+     *
+     * @param cell  the cell
+     * @return unit index of the column of {@code cell}
+     */
+    public static int columnUnit(final KSCell cell) {
+        return FIRST_COLUMN_UNIT + cell.getLocation().colIndex();
+    }
+
+    /**
+     * Gets the row-major index of a cell in the grid.
+     *
+     * @param cell  the cell
+     * @return {@code rowIndex * COLS + colIndex} of {@code cell}
+     */
+    public static int cellIndex(final KSCell cell) {
+        return cell.getLocation().rowIndex() * KSGrid.COLS + cell.getLocation().colIndex();
+    }
+
+    /**
+     * Gets the nonet unit of a cell.
+     *
+     * @param cell  the cell
+     * @return unit index of the nonet of {@code cell}
+     */
+    public static int nonetUnit(final KSCell cell) {
+        return FIRST_NONET_UNIT + nonetIndex(cell.getLocation().rowIndex(),
+            cell.getLocation().colIndex());
+    }
+
+    /**
+     * Gets the index of the nonet containing a given position.
+     *
+     * @param rowIndex  the row index
+     * @param colIndex  the column index
+     * @return index in {@code [0..8]} of the nonet, numbered row-major
+     */
+    public static int nonetIndex(final int rowIndex, final int colIndex) {
+        return (rowIndex / 3) * 3 + colIndex / 3;
+    }
+
+    /**
+     * Gets the unit of the cage with a given group number.
+     *
+     * @param group  the group number
+     * @return unit index of the cage
+     * @pre {@code 1 <= group <= MAX_GROUP}
+     */
+    public static int cageUnit(final int group) {
+        return FIRST_CAGE_UNIT + group - 1;
+    }
+
+    /**
+     * Gets the units containing a cell: its row, column, nonet, and cage.
+     *
+     * @param cell  the cell
+     * @return the four unit indices of {@code cell}
+     */
+    public static int[] unitsOf(final KSCell cell) {
+        return new int[] {rowUnit(cell), columnUnit(cell), nonetUnit(cell),
+            cageUnit(cell.getGroup())};
+    }
+
+    /**
+     * Marks a cell as empty or filled.
+     *
+     * @param index  the row-major index of the cell
+     * @param isEmpty  whether the cell becomes empty
+     * @pre the cell is filled if {@code isEmpty}, and empty otherwise
+     */
+    private void setEmpty(final int index, final boolean isEmpty) {
+        final long bit = 1L << (index % WORD);
+        if (isEmpty) {
+            empty[index / WORD] |= bit;
+            emptyCount++;
+        } else {
+            empty[index / WORD] &= ~bit;
+            emptyCount--;
+        }
+    }
+
+    /**
+     * Moves one occurrence in a unit from one state to another.
+     *
+     * @param unit  the unit to adjust
+     * @param oldState  the state that occurs once less
+     * @param newState  the state that occurs once more
+     */
+    private void move(final int unit, final int oldState, final int newState) {
+        stamps[unit] = modificationCount;
+        add(unit, oldState, -1);
+        add(unit, newState, +1);
+    }
+
+    /**
+     * Adjusts the count, mask, and total of a unit for a state.
+     *
+     * @param unit  the unit to adjust
+     * @param state  the state whose count changes
+     * @param delta  the change in count, either +1 or -1
+     */
+    private void add(final int unit, final int state, final int delta) {
+        final int index = unit * STATES + state;
+        counts[index] += delta;
+        totals[unit] += delta * state;
+        if (state == KSCell.EMPTY) {
+            return;
+        }
+        if (counts[index] == 0) {
+            masks[unit] &= ~bit(state);
+        } else {
+            masks[unit] |= bit(state);
+        }
+    }
+
+    /**
+     * Checks that a state can be represented.
+     *
+     * @param state  the state to check
+     * @throws IllegalArgumentException  if {@code state} is not empty or a digit
+     */
+    private void checkState(final int state) {
+        if (state < KSCell.EMPTY || DIGITS < state) {
+            throw new IllegalArgumentException(getClass().getSimpleName()
+                + ".update().pre failed: state == " + state);
+        }
+    }
+}
@@ -31,6 +31,9 @@ public class KSGrid {
     /** Each cage with cells is associated with a number. */
     private final Map<Integer, List<KSCell>> cageMap;
 
+    /** The incrementally maintained state of all rows, columns, nonets, and cages. */
+    private final KSConstraints constraints;
+
     /**
      * Constructs a grid from a given scanner.
      *
@@ -40,8 +43,8 @@ public class KSGrid {
      *     a valid Killer Sudoku puzzle
      * @pre {@code scanner != null && matrix == null && cageMap == null}
      * and it delivers a valid puzzle grid
-     * @post {@code scanner == \old(scanner)}, {@code matrix} and {@code cageMap} are initialized,
-     * a valid puzzle is yielded
+     * @post {@code scanner == \old(scanner)}, {@code matrix}, {@code cageMap} and
+     * {@code constraints} are initialized, a valid puzzle is yielded
      */
     public KSGrid(final Scanner scanner) {
         if (scanner == null) {
@@ -51,31 +54,95 @@ public class KSGrid {
 
         matrix = new KSCell[ROWS][];
         cageMap = new HashMap<>();
-        initializeMatrix(scanner);
+        List<Integer> groups = new ArrayList<>();
+        List<Integer> cageSums = new ArrayList<>();
+        readGroupsAndCageSums(scanner, groups, cageSums);
+        initializeMatrix(groups, cageSums);
+        constraints = new KSConstraints(matrix);
+    }
+
+    /**
+     * Constructs a grid from a given tokenizer. The result, including any
+     * exception for an invalid puzzle, is the same as for a scanner over
+     * the same input.
+     *
+     * @param tokenizer the given tokenizer
+     * @throws NullPointerException if {@code tokenizer == null}
+     * @throws IllegalArgumentException if {@code tokenizer} does not yield
+     *     a valid Killer Sudoku puzzle
+     * @pre {@code tokenizer != null} and it delivers a valid puzzle grid
+     * @post {@code matrix}, {@code cageMap} and {@code constraints} are initialized
+     */
+    public KSGrid(final ByteTokenizer tokenizer) {
+        if (tokenizer == null) {
+            throw new NullPointerException(KSGrid.class.getSimpleName() + ".pre failed: "
+                + "tokenizer == null");
+        }
+
+        matrix = new KSCell[ROWS][];
+        cageMap = new HashMap<>();
+        List<Integer> groups = new ArrayList<>();
+        List<Integer> cageSums = new ArrayList<>();
+        readGroupsAndCageSums(tokenizer, groups, cageSums);
+        initializeMatrix(groups, cageSums);
+        constraints = new KSConstraints(matrix);
+    }
+
+    /**
+     * Constructs a copy of a given grid, with the same cages and cell states,
+     * and its own constraint state. Changes to the copy do not affect
+     * the original, and vice versa.
+     *
+     * @param original the grid to copy
+     * @throws NullPointerException if {@code original == null}
+     * @pre {@code original != null}
+     * @post {@code this.toString().equals(original.toString())} and every
+     *     cell has the state of the corresponding cell of {@code original}
+     */
+    public KSGrid(final KSGrid original) {
+        if (original == null) {
+            throw new NullPointerException(KSGrid.class.getSimpleName() + ".pre failed: "
+                + "original == null");
+        }
+
+        matrix = new KSCell[ROWS][];
+        cageMap = new HashMap<>();
+        List<Integer> groups = new ArrayList<>();
+        List<Integer> cageSums = new ArrayList<>();
+        for (KSCell[] row : original.matrix) {
+            for (KSCell cell : row) {
+                groups.add(cell.getGroup());
+            }
+        }
+        for (List<KSCell> cage : original.cageMap.values()) {
+            cageSums.add(cage.get(0).getCageSum());
+        }
+        initializeMatrix(groups, cageSums);
+        constraints = new KSConstraints(matrix);
+        for (int i = 0; i < ROWS; i++) {
+            for (int j = 0; j < COLS; j++) {
+                matrix[i][j].setState(original.matrix[i][j].getState());
+            }
+        }
     }
 
     /**
-     * Reads from {@code scanner} and creates cells, which have values and colors and belong to
+     * Creates cells, which have values and colors and belong to
      * cages, nonets (a 3x3 grid), rows and columns. Every row, column, nonet and cage contain
      * unique numbers. Every cage has a {@code cageSum} that represents the sum of
      * all cells' values in that cage and has a color to set itself apart from neighboring cages.
      * Each puzzle read from a file is checked and therefore no invalid puzzle may
      * proceed further to the user. 
      * 
-     * @param scanner the scanner input to be read from
-     * @pre {@code scanner != null && matrix != null && cageMap != null}
+     * @param groups the group number of each cell, row-major
+     * @param cageSums the cage sums, in order of group number
+     * @pre {@code matrix != null && cageMap != null}
      * @post the grid is initialized and a valid Killer Sudoku puzzle is yielded
      * @modifies {@code matrix} and {@code cageMap}
-     * @throws NullPointerException if {@code scanner == null}
-     * @throws IllegalArgumentException if {@code scanner} does not yield
+     * @throws IllegalArgumentException if the groups do not form
      *     a valid Killer Sudoku puzzle
      */
-    private void initializeMatrix(final Scanner scanner) {
-        List<Integer> groups = new ArrayList<>();
-        List<Integer> cageSums = new ArrayList<>();
-
-        readGroupsAndCageSums(scanner, groups, cageSums);
-
+    private void initializeMatrix(final List<Integer> groups, final List<Integer> cageSums) {
         // initialize matrix
         for (int i = 0; i < ROWS; i++) {
             KSCell[] row = new KSCell[COLS];
@@ -143,23 +210,59 @@ public class KSGrid {
      * @return {@code true} if no rules are violated and {@code false} otherwise
      */
     public boolean isValidPuzzleInstance(final KSCell cell) {
-        return checkCage(cell) && checkRow(cell) && checkColumn(cell) && checkNonet(cell);
+        return constraints.isValid(cell);
+    }
+
+    /**
+     * Gets the digits that can still be put in {@code cell} without repeating
+     * a digit in its row, column, nonet, or cage.
+     *
+     * @param cell the empty cell to get the candidates for
+     * @return mask with bit {@code d - 1} set iff digit {@code d} is a candidate
+     * @pre {@code cell.getValue() == KSCell.EMPTY}
+     */
+    public int getCandidates(final KSCell cell) {
+        return constraints.getCandidates(cell);
+    }
+
+    /**
+     * Returns the constraint state of this grid.
+     *
+     * @return {@code constraints}
+     */
+    public KSConstraints getConstraints() {
+        return constraints;
+    }
+
+    /**
+     * Takes an immutable snapshot of the current state of this grid.
+     * Later changes to this grid do not affect the snapshot.
+     *
+     * @return snapshot of the current state
+     */
+    public KSSnapshot snapshot() {
+        return new KSSnapshot(new KSCompactGrid(this));
     }
     
     /**
      * Checks whether this grid is full (no more empty cells).
+     * Takes constant time, using the empty-cell count of the constraints.
      *
      * @return whether this grid is full
      */
     public boolean isFull() {
-        for (int i = 0; i < ROWS; i++) {
-            for (int j = 0; j < COLS; j++) {
-                if (matrix[i][j].getValue() == 0) { // or other condition for being "empty"
-                    return false;
-                }
-            }
-        }
-        return true;
+        return constraints.isFull();
+    }
+
+    /**
+     * Gets the first empty cell, row-major.
+     * Takes constant time, using the empty-cell bitset of the constraints.
+     *
+     * @return the first empty cell, or null if this grid is full
+     */
+    public KSCell getFirstEmptyCell() {
+        final int index = constraints.nextEmpty(0);
+        return index < 0 ? null : matrix[index / COLS][index % COLS];
     }
     
     /**
@@ -190,14 +293,7 @@ public class KSGrid {
             for (int j = 0; j < COLS; j++) {
                 // first 9 lines contain data for cage groups
                 // reading cage groups
-                String numberGroupString = scanner.next();
-                int group = Integer.valueOf(numberGroupString);
-
-                if (group <= 0 || group > 81) {
-                    throw new IllegalArgumentException("invalid group number " + group);
-                }
-
-                groups.add(group);
+                addGroup(groups, scanner.next());
             }
         }
 
@@ -208,6 +304,42 @@ public class KSGrid {
         }
     }
 
+    /**
+     * Each cage has a sum and a unique cage number, which need to be extracted.
+     * 
+     * @param tokenizer tokenizer over the puzzle input
+     * @param groups a list of cage numbers (groups)
+     * @param cageSums a list of every cage's sum
+     */
+    private void readGroupsAndCageSums(ByteTokenizer tokenizer, List<Integer> groups,
+        List<Integer> cageSums) {
+        for (int i = 0; i < ROWS * COLS; i++) {
+            addGroup(groups, tokenizer.next());
+        }
+
+        while (tokenizer.hasNext()) {
+            cageSums.add(tokenizer.nextInt());
+        }
+    }
+
+    /**
+     * Checks and adds the group number of the next cell.
+     *
+     * @param groups the group numbers read so far
+     * @param numberGroupString the token holding the group number
+     * @throws NumberFormatException if the token is not a number
+     * @throws IllegalArgumentException if the group number is out of range
+     */
+    private static void addGroup(List<Integer> groups, String numberGroupString) {
+        int group = Integer.valueOf(numberGroupString);
+
+        if (group <= 0 || group > 81) {
+            throw new IllegalArgumentException("invalid group number " + group);
+        }
+
+        groups.add(group);
+    }
+
     /**
      * Creating cells, each one of which belongs to a cage with a sum and a unique number.
      * 
@@ -259,120 +391,6 @@ public class KSGrid {
         }
     }
 
-    /**
-     * Checks whether the cage of {@code cell} has unique entries and valid cage sum.
-     * 
-     * @param cell the cell's cage to be checked
-     * @return {@code true} if there are only distinct entries, and valid cage sum,
-     * {@code false} otherwise 
-     */
-    private boolean checkCage(final KSCell cell) {
-        List<KSCell> cage = cageMap.get(cell.getGroup());
-        int cageSumActual = cage.get(0).getCageSum();
-        int cageSum = cell.getValue();
-        boolean allFilled = true; // if all cells in the cage are filled
-
-        for (KSCell c : cage) {
-            // skip self
-            if (c.getLocation().equals(cell.getLocation())) {
-                continue;
-            }
-
-            if (c.getValue() == cell.getValue()) {
-                return false;
-            }
-
-            if (c.getValue() == 0) {
-                allFilled = false;
-            }
-
-            cageSum += c.getValue();
-        }
-
-        if (allFilled) {
-            return (cageSum == cageSumActual);
-        }
-
-        return true;
-    }
-
-    /**
-     * Checks whether a row of {@code cell} has unique entries.
-     * 
-     * @param cell the cell whose row is to be checked
-     * @return {@code true} if all values are distinct, {@code false} otherwise
-     */
-    private boolean checkRow(final KSCell cell) {
-        int rowIndex = cell.getLocation().rowIndex();
-        int colIndex = cell.getLocation().colIndex();
-
-        for (int j = 0; j < COLS; j++) {
-            // skip self
-            if (j == colIndex) {
-                continue;
-            }
-
-            if (matrix[rowIndex][j].getValue() == cell.getValue()) {
-                return false;
-            }
-        }
-
-        return true;
-    }
-
-    /**
-     * Checks whether a column of {@code cell} has unique entries.
-     * 
-     * @param cell the cell whose column is to be checked
-     * @return {@code true} if all values are distinct, {@code false} otherwise
-     */
-    private boolean checkColumn(final KSCell cell) {
-        int rowIndex = cell.getLocation().rowIndex();
-        int colIndex = cell.getLocation().colIndex();
-
-        for (int i = 0; i < ROWS; i++) {
-            // skip self
-            if (i == rowIndex) {
-                continue;
-            }
-
-            if (matrix[i][colIndex].getValue() == cell.getValue()) {
-                return false;
-            }
-        }
-
-        return true;
-    }
-
-    /**
-     * Checks whether the nonet of {@code cell} has unique entries.
-     * 
-     * @param cell the cell whose nonet is to be checked
-     * @return {@code true} if all values are distinct, {@code false} otherwise 
-     */
-    private boolean checkNonet(final KSCell cell) {
-        int rowIndex = cell.getLocation().rowIndex();
-        int colIndex = cell.getLocation().colIndex();
-        int startRowIndex = ((int) Math.floor(rowIndex / 3)) * 3;
-        int startColIndex = ((int) Math.floor(colIndex / 3)) * 3;
-
-        for (int i = 0; i <= 2; i++) {
-            for (int j = 0; j <= 2; j++) {
-                // skip self
-                if (startRowIndex + i == rowIndex && startColIndex + j == colIndex) {
-                    continue;
-                }
-
-                KSCell c = matrix[startRowIndex + i][startColIndex + j];
-                if (c.getValue() == cell.getValue()) {
-                    return false;
-                }
-            }
-        }
-
-        return true;
-    }
-
     /**
      * Checks for both direction and bounds.
      * 
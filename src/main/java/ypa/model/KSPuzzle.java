@@ -49,6 +49,37 @@ public class KSPuzzle {
         this.grid = new KSGrid(scanner);
     }
 
+    /**
+     * Constructs a new puzzle with initial state read from given tokenizer,
+     * and with a given name. This is faster than reading from a scanner.
+     *
+     * @param tokenizer  the given tokenizer
+     * @param name  the given name
+     */
+    public KSPuzzle(final ByteTokenizer tokenizer, final String name) {
+        this.name = name;
+        this.mode = Mode.VIEW;
+        this.grid = new KSGrid(tokenizer);
+    }
+
+    /**
+     * Constructs a copy of a given puzzle, with the same name, mode, cages,
+     * and cell states. The copy has its own cells, so that it can be
+     * changed, for instance by a solver in another thread,
+     * without affecting the original.
+     *
+     * @param original  the puzzle to copy
+     * @throws NullPointerException  if {@code original == null}
+     * @pre {@code original != null}
+     */
+    public KSPuzzle(final KSPuzzle original) {
+        this.name = original.name;
+        this.mode = original.mode;
+        this.minNumber = original.minNumber;
+        this.maxNumber = original.maxNumber;
+        this.grid = new KSGrid(original.grid);
+    }
+
     /**
      * Get puzzle's grid.
      * 
@@ -58,6 +89,34 @@ public class KSPuzzle {
         return this.grid.getMatrix();
     }
 
+    /**
+     * Gets the cells of a unit (row, column, nonet, or cage).
+     *
+     * @param unit  the unit, numbered as in {@link KSConstraints}
+     * @return the cells of {@code unit}, row-major;
+     *   empty for a group number without cage
+     * @throws IllegalArgumentException  if {@code unit} is not a unit
+     * @pre {@code 0 <= unit < KSConstraints.UNIT_COUNT}
+     */
+    public KSCell[] getUnitCells(final int unit) {
+        if (unit < 0 || KSConstraints.UNIT_COUNT <= unit) {
+            throw new IllegalArgumentException(getClass().getSimpleName()
+                + ".getUnitCells().pre failed: unit == " + unit);
+        }
+        final KSCell[] result = new KSCell[getConstraints().getSize(unit)];
+        int count = 0;
+        for (KSCell[] row : getMatrix()) {
+            for (KSCell cell : row) {
+                for (int u : KSConstraints.unitsOf(cell)) {
+                    if (u == unit) {
+                        result[count++] = cell;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
     /**
      * Checks whether after setting a cell to a certain value (state)
      * the puzzle is a valid instance of a Killer Sudoku.
@@ -69,6 +128,49 @@ public class KSPuzzle {
         return this.grid.isValidPuzzleInstance(cell);
     }
     
+    /**
+     * Gets the digits that can be put in an empty cell without repeating
+     * a digit in its row, column, nonet, or cage.
+     *
+     * @param cell the empty cell
+     * @return mask with bit {@code d - 1} set iff digit {@code d} is a candidate
+     * @pre {@code cell.getValue() == KSCell.EMPTY}
+     */
+    public int getCandidates(final KSCell cell) {
+        return this.grid.getCandidates(cell);
+    }
+
+    /**
+     * Gets the constraint state of the puzzle's grid, with per unit
+     * the digits used, the running total, and the target sum.
+     *
+     * @return constraint state of the grid
+     */
+    public KSConstraints getConstraints() {
+        return this.grid.getConstraints();
+    }
+
+    /**
+     * Makes a compact copy of the current state of the puzzle,
+     * for solvers that do not need cell objects.
+     *
+     * @return compact copy of the grid
+     */
+    public KSCompactGrid toCompactGrid() {
+        return new KSCompactGrid(this.grid);
+    }
+
+    /**
+     * Takes an immutable snapshot of the current state of the puzzle,
+     * on which speculative branches can be evaluated independently,
+     * also from other threads.
+     *
+     * @return snapshot of the current state
+     */
+    public KSSnapshot snapshot() {
+        return this.grid.snapshot();
+    }
+
     public boolean isSolved(final KSCell cell) {
         return this.grid.isValidPuzzleInstance(cell) && this.grid.isFull();
     }
@@ -0,0 +1,171 @@
+package ypa.model;
+
+/**
+ * An immutable snapshot of the state of a Killer Sudoku grid.
+ * Operations that change the state, such as {@link #with(int, int)},
+ * return a new snapshot and leave this one unchanged. Hence, speculative
+ * branches can be evaluated on independent states, also concurrently from
+ * multiple threads, without executing and reverting commands on the
+ * shared cells of a puzzle.
+ * <p>
+ * A snapshot is backed by a {@link KSCompactGrid} that is never modified
+ * after construction. A new snapshot shares the cage layout with the one
+ * it is derived from, and copies only the small arrays of cell values and
+ * unit state. Cells are addressed by their row-major index.
+ */
+public final class KSSnapshot {
+
+    /** The state; never modified. */
+    private final KSCompactGrid grid;
+
+    /**
+     * Constructs a snapshot of a given compact grid, taking ownership of it.
+     *
+     * @param grid  the grid, which must not be modified afterwards
+     */
+    KSSnapshot(final KSCompactGrid grid) {
+        this.grid = grid;
+    }
+
+    /**
+     * Returns whether the state this snapshot was taken from was free of conflicts.
+     *
+     * @return whether no digit of the state was dropped
+     */
+    public boolean isConsistent() {
+        return grid.isConsistent();
+    }
+
+    /**
+     * Gets the value of a cell.
+     *
+     * @param index  the index of the cell
+     * @return value of cell {@code index}, or {@code KSCell.EMPTY}
+     */
+    public int get(final int index) {
+        return grid.get(index);
+    }
+
+    /**
+     * Gets the digits that can be put in an empty cell, without repeating
+     * a digit in its units, and such that its cage can still be completed.
+     * These are exactly the digits for which {@link KSPuzzle#isValid(KSCell)}
+     * holds after putting them in the cell.
+     *
+     * @param index  the index of the empty cell
+     * @return mask with bit {@code d - 1} set iff digit {@code d} can be placed
+     * @pre {@code get(index) == KSCell.EMPTY}
+     */
+    public int getCandidates(final int index) {
+        return grid.getCandidates(index);
+    }
+
+    /**
+     * Gets the number of empty cells.
+     *
+     * @return number of empty cells
+     */
+    public int getEmptyCount() {
+        return grid.getEmptyCount();
+    }
+
+    /**
+     * Returns whether all cells are filled.
+     *
+     * @return whether no cell is empty
+     */
+    public boolean isFull() {
+        return grid.isFull();
+    }
+
+    /**
+     * Gets the index of an empty cell with the fewest candidates.
+     *
+     * @return index of an empty cell with the fewest candidates,
+     *   or -1 if the grid is full
+     * @see KSCompactGrid#mostConstrained()
+     */
+    public int mostConstrained() {
+        return grid.mostConstrained();
+    }
+
+    /**
+     * Gets the snapshot with a digit put in an empty cell.
+     *
+     * @param index  the index of the cell
+     * @param digit  the digit to put
+     * @return a new snapshot, equal to this one except at cell {@code index}
+     * @throws IllegalArgumentException  if precondition is violated
+     * @pre {@code get(index) == KSCell.EMPTY && (getCandidates(index) & bit(digit)) != 0}
+     * @post {@code \result.get(index) == digit}, and {@code this} is unchanged
+     */
+    public KSSnapshot with(final int index, final int digit) {
+        if (get(index) != KSCell.EMPTY) {
+            throw new IllegalArgumentException(getClass().getSimpleName()
+                + ".with().pre failed: cell " + index + " not empty");
+        }
+        if (digit < 1 || digit > KSConstraints.DIGITS
+                || (getCandidates(index) & KSConstraints.bit(digit)) == 0) {
+            throw new IllegalArgumentException(getClass().getSimpleName()
+                + ".with().pre failed: " + digit + " not a candidate of cell " + index);
+        }
+        final KSCompactGrid copy = new KSCompactGrid(grid);
+        copy.set(index, digit);
+        return new KSSnapshot(copy);
+    }
+
+    /**
+     * Gets the snapshot with all naked singles filled in, repeatedly:
+     * every empty cell with only one candidate gets that candidate,
+     * until there are no more such cells.
+     *
+     * @return a new snapshot without naked singles, or null if this
+     *   snapshot is inconsistent or some empty cell runs out of candidates,
+     *   that is, if this state cannot be completed
+     * @post {@code this} is unchanged
+     */
+    public KSSnapshot propagate() {
+        if (!isConsistent()) {
+            return null;
+        }
+        final KSCompactGrid copy = new KSCompactGrid(grid);
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int i = 0; i < KSCompactGrid.CELLS; i++) {
+                if (copy.get(i) != KSCell.EMPTY) {
+                    continue;
+                }
+                final int candidates = copy.getCandidates(i);
+                if (candidates == 0) {
+                    return null;
+                }
+                if (Integer.bitCount(candidates) == 1) {
+                    copy.set(i, Integer.numberOfTrailingZeros(candidates) + 1);
+                    changed = true;
+                }
+            }
+        }
+        return new KSSnapshot(copy);
+    }
+
+    /**
+     * Makes a mutable copy of this snapshot, e.g. to search from it.
+     *
+     * @return a new compact grid with the state of this snapshot
+     */
+    public KSCompactGrid toCompactGrid() {
+        return new KSCompactGrid(grid);
+    }
+
+    /**
+     * Converts the values to a string of 81 characters, row-major,
+     * with {@code '.'} for empty cells.
+     *
+     * @return string representation of the values
+     */
+    @Override
+    public String toString() {
+        return grid.toString();
+    }
+}
@@ -57,6 +57,16 @@ public class KSpec {
         this.length = scanner.nextInt();
     }
 
+    /**
+     * Constructs a new {@code KSpec} from a given tokenizer.
+     *
+     * @param tokenizer  the given tokenizer
+     */
+    public KSpec(final ByteTokenizer tokenizer) {
+        this.sum = tokenizer.nextInt();
+        this.length = tokenizer.nextInt();
+    }
+
     public int getSum() {
         return sum;
     }
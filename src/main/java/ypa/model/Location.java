@@ -51,6 +51,15 @@ public class Location {
         column = scanner.nextInt();
     }
 
+    /** Constructs a new location from a given tokenizer.
+     *
+     * @param tokenizer  the given tokenizer
+     */
+    public Location(final ByteTokenizer tokenizer) {
+        row = Character.toLowerCase(tokenizer.nextLetter()) - 'a' + 1;
+        column = tokenizer.nextInt();
+    }
+
     public int getRow() {
         return row;
     }
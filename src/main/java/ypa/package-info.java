@@ -36,6 +36,7 @@
  *   but not yet used in {@link ypa.gui.MainFrame MainFrame}).
  * <li>[Done] Reasoning strategies.
  * <li>[Done] Backtrack solver.
+ * <li>[Done] Headless batch solving ({@link ypa.batch.BatchSolve BatchSolve}).
  * <li>[Done] Highlight cells that were changed in the previous action.
  * <li>[Done] Help/About menu items with rules and developer info.
  * <li>[TODO] Keep track of some statistics.
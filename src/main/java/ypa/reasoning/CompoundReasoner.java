@@ -1,58 +1,87 @@
-// package ypa.reasoning;
-
-// import java.util.ArrayList;
-// import java.util.List;
-
-// import ypa.command.CompoundCommand;
-// import ypa.model.KPuzzle;
-
-// /**
-//  * Applies multiple reasoners in sequence.
-//  * The sequence reflects the order in which reasoners were added.
-//  * Based on the Composite design pattern.
-//  *
-//  * @author Tom Verhoeff (Eindhoven University of Technology)
-//  */
-// public class CompoundReasoner extends Reasoner {
-
-//     /** The sequence of reasoners. */
-//     private final List<Reasoner> reasoners = new ArrayList<>();
-
-//     public CompoundReasoner(KPuzzle puzzle) {
-//         super(puzzle);
-//     }
-
-//     /**
-//      * Adds a reasoner.
-//      *
-//      * @param reasoner  reasoner to add
-//      * @pre {@code reasoner != null} and already set for {@code puzzle}
-//      * @throws IllegalArgumentException  if {@code strategy ! null ||
-//      *     strategy} is not for same puzzle
-//      */
-//     public void add(final Reasoner reasoner) {
-//         if (reasoner == null) {
-//             throw new IllegalArgumentException(this.getClass().getSimpleName()
-//                     + ".add().pre failed: reasoning == null");
-//         }
-//         reasoners.add(reasoner);
-//     }
-
-//     @Override
-//     public CompoundCommand apply() {
-
-// //  Apply sequence of reasoners until first change
-//         for (Reasoner reasoner : reasoners) {
-//             final CompoundCommand command = reasoner.apply();
-//             if (command == null) {
-//                 return command;
-//             } else if (command.size() > 0) {
-//                 return command;
-//             }
-//         }
-// //
-
-//         return super.apply();
-//     }
-
-// }
+package ypa.reasoning;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+import ypa.command.CompoundCommand;
+import ypa.model.KSPuzzle;
+
+/**
+ * Applies multiple reasoners in sequence.
+ * The sequence reflects the order in which reasoners were added.
+ * Based on the Composite design pattern.
+ *
+ * @author Tom Verhoeff (Eindhoven University of Technology)
+ */
+public class CompoundReasoner extends Reasoner {
+
+    /** The sequence of reasoners. */
+    private final List<Reasoner> reasoners = new ArrayList<>();
+
+    public CompoundReasoner(KSPuzzle puzzle) {
+        super(puzzle);
+    }
+
+    /**
+     * Adds a reasoner.
+     *
+     * @param reasoner  reasoner to add
+     * @pre {@code reasoner != null} and already set for {@code puzzle}
+     * @throws IllegalArgumentException  if {@code strategy ! null ||
+     *     strategy} is not for same puzzle
+     */
+    public void add(final Reasoner reasoner) {
+        if (reasoner == null) {
+            throw new IllegalArgumentException(this.getClass().getSimpleName()
+                    + ".add().pre failed: reasoning == null");
+        }
+        if (reasoner.puzzle != this.puzzle) {
+            throw new IllegalArgumentException(this.getClass().getSimpleName()
+                    + ".add().pre failed: reasoning.puzzle != this.puzzle");
+        }
+        reasoners.add(reasoner);
+    }
+
+    /**
+     * Gets the sequence of reasoners.
+     *
+     * @return unmodifiable view of the reasoners, in the order added
+     */
+    public List<Reasoner> getReasoners() {
+        return Collections.unmodifiableList(reasoners);
+    }
+
+    @Override
+    public CompoundCommand apply() {
+        // apply sequence of reasoners until first change
+        for (Reasoner reasoner : reasoners) {
+            final CompoundCommand command = reasoner.apply();
+            if (command == null) {
+                return command;
+            } else if (command.size() > 0) {
+                return command;
+            }
+        }
+
+        return super.apply();
+    }
+
+    /**
+     * Gets the units of all reasoners in the sequence.
+     *
+     * @return the union of the units of the reasoners, in increasing order
+     */
+    @Override
+    public int[] getUnits() {
+        final BitSet units = new BitSet();
+        for (Reasoner reasoner : reasoners) {
+            for (int unit : reasoner.getUnits()) {
+                units.set(unit);
+            }
+        }
+        return units.stream().toArray();
+    }
+
+}
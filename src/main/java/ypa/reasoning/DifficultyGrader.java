@@ -0,0 +1,257 @@
+package ypa.reasoning;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import ypa.command.CompoundCommand;
+import ypa.model.KSConstraints;
+import ypa.model.KSPuzzle;
+
+/**
+ * Grades the difficulty of a Killer Sudoku puzzle by solving it the way
+ * a human would: with a ladder of techniques, ordered from easy to hard,
+ * always using the easiest technique that makes progress.
+ * <p>
+ * Each step applies the techniques in ladder order, and the first one
+ * that fills in some cells is recorded as the technique of that step;
+ * the next step starts at the bottom of the ladder again. Grading stops
+ * when the puzzle is solved, or when no technique makes progress.
+ * The score is the sum of the weights of the techniques of all steps,
+ * so that it reflects both how hard and how many the steps are.
+ * <p>
+ * A contradiction step fills in only the forced digit; what follows from
+ * it is left to the next steps, so that each digit is attributed to the
+ * easiest technique that finds it.
+ * <p>
+ * The reasoners of the ladder are made once per grader, and keep their
+ * incremental state between steps (see {@link SinglesReasoner}).
+ * Moreover, a technique that made no progress is not applied again
+ * until the puzzle has changed, which is detected by the modification
+ * count of the {@link KSConstraints} of the puzzle.
+ * <p>
+ * Grading leaves the puzzle unchanged.
+ */
+public class DifficultyGrader {
+
+    /** The techniques of the ladder, from easy to hard. */
+    public enum Technique {
+        /** Naked and hidden singles, see {@link SinglesReasoner}. */
+        SINGLES(1),
+        /** Innies and outies, see {@link Rule45Reasoner}. */
+        RULE_OF_45(3),
+        /**
+         * A cell all but one of whose digits lead to a contradiction by the
+         * easier techniques, see {@link GeneralizedEmptyCellByContradiction}.
+         */
+        CONTRADICTION(10);
+
+        /** The contribution of a step with this technique to the score. */
+        private final int weight;
+
+        /**
+         * Constructs a technique with a given weight.
+         *
+         * @param weight  the contribution of a step to the score
+         */
+        Technique(final int weight) {
+            this.weight = weight;
+        }
+
+        /**
+         * Gets the contribution of a step with this technique to the score.
+         *
+         * @return the weight
+         */
+        public int getWeight() {
+            return weight;
+        }
+
+        /**
+         * Creates the reasoner for this technique.
+         *
+         * @param puzzle  the puzzle
+         * @return a new reasoner for {@code puzzle}
+         */
+        Reasoner create(final KSPuzzle puzzle) {
+            switch (this) {
+                case SINGLES:
+                    return new SinglesReasoner(puzzle);
+                case RULE_OF_45:
+                    return new Rule45Reasoner(puzzle);
+                default:
+                    final CompoundReasoner easier = new CompoundReasoner(puzzle);
+                    easier.add(new SinglesReasoner(puzzle));
+                    easier.add(Rule45Reasoner.perConstraint(puzzle));
+                    return new GeneralizedEmptyCellByContradiction(puzzle,
+                        new FixpointReasoner(puzzle, easier), false);
+            }
+        }
+    }
+
+    /** The puzzle to grade. */
+    private final KSPuzzle puzzle;
+
+    /** The reasoner of each technique. */
+    private final Map<Technique, Reasoner> reasoners = new EnumMap<>(Technique.class);
+
+    /** Modification count when each technique last made no progress; -1 if none. */
+    private final Map<Technique, Long> stuckAt = new EnumMap<>(Technique.class);
+
+    /** The technique of each step of the last grading. */
+    private final List<Technique> steps = new ArrayList<>();
+
+    /** Whether the last grading solved the puzzle. */
+    private boolean solved;
+
+    /**
+     * Constructs a grader for a given puzzle.
+     *
+     * @param puzzle  the puzzle
+     * @throws IllegalArgumentException  if {@code puzzle == null}
+     * @pre {@code puzzle != null}
+     */
+    public DifficultyGrader(final KSPuzzle puzzle) {
+        if (puzzle == null) {
+            throw new IllegalArgumentException(this.getClass().getSimpleName()
+                    + "().pre failed: puzzle == null");
+        }
+        this.puzzle = puzzle;
+        for (Technique technique : Technique.values()) {
+            reasoners.put(technique, technique.create(puzzle));
+        }
+    }
+
+    /**
+     * Grades the puzzle from its current state.
+     *
+     * @return whether the techniques of the ladder solve the puzzle
+     * @modifies {@code this}
+     * @post puzzle unchanged
+     */
+    public boolean grade() {
+        steps.clear();
+        for (Technique technique : Technique.values()) {
+            stuckAt.put(technique, -1L);
+        }
+        final CompoundCommand done = new CompoundCommand(true);
+        Technique technique = step(done);
+        while (technique != null) {
+            steps.add(technique);
+            technique = step(done);
+        }
+        solved = isFull();
+        done.revert();
+        return solved;
+    }
+
+    /**
+     * Does one step: applies the easiest technique that makes progress.
+     *
+     * @param done  the commands executed so far, to which the step is added
+     * @return the technique of the step, or null if none made progress,
+     *   or one found a contradiction
+     * @modifies {@code puzzle}, {@code done}
+     */
+    private Technique step(final CompoundCommand done) {
+        if (isFull()) {
+            return null;
+        }
+        final KSConstraints constraints = puzzle.getConstraints();
+        for (Technique technique : Technique.values()) {
+            final long before = constraints.getModificationCount();
+            if (stuckAt.get(technique) == before) {
+                continue;
+            }
+            final CompoundCommand command = reasoners.get(technique).apply();
+            if (command == null) {
+                return null;
+            }
+            if (command.size() > 0) {
+                done.addAll(command);
+                return technique;
+            }
+            // applying may have changed the count, e.g. by trying digits
+            stuckAt.put(technique, constraints.getModificationCount());
+        }
+        return null;
+    }
+
+    /**
+     * Determines whether all cells of the puzzle are filled in.
+     *
+     * @return whether no cell is empty
+     */
+    private boolean isFull() {
+        return puzzle.getConstraints().isFull();
+    }
+
+    /**
+     * Gets whether the last grading solved the puzzle.
+     *
+     * @return whether the techniques of the ladder sufficed
+     */
+    public boolean isSolved() {
+        return solved;
+    }
+
+    /**
+     * Gets the technique of each step of the last grading.
+     *
+     * @return unmodifiable view of the techniques, in order of the steps
+     */
+    public List<Technique> getSteps() {
+        return Collections.unmodifiableList(steps);
+    }
+
+    /**
+     * Gets the number of steps of the last grading with a given technique.
+     *
+     * @param technique  the technique
+     * @return the number of steps with {@code technique}
+     */
+    public int getCount(final Technique technique) {
+        return Collections.frequency(steps, technique);
+    }
+
+    /**
+     * Gets the hardest technique needed in the last grading.
+     *
+     * @return the hardest technique of a step, or null if there were none
+     */
+    public Technique getHardest() {
+        return steps.isEmpty() ? null : Collections.max(steps);
+    }
+
+    /**
+     * Gets the difficulty score of the last grading:
+     * the sum of the weights of the techniques of all steps.
+     * Only comparable among puzzles that were solved.
+     *
+     * @return the score
+     */
+    public int getScore() {
+        int result = 0;
+        for (Technique technique : steps) {
+            result += technique.getWeight();
+        }
+        return result;
+    }
+
+    /**
+     * Gets a summary of the last grading: the score, and the number of
+     * steps with each technique.
+     *
+     * @return e.g. {@code score=17 SINGLES=5 RULE_OF_45=4 CONTRADICTION=0}
+     */
+    @Override
+    public String toString() {
+        final StringBuilder result = new StringBuilder("score=").append(getScore());
+        for (Technique technique : Technique.values()) {
+            result.append(' ').append(technique).append('=').append(getCount(technique));
+        }
+        return result.toString();
+    }
+}
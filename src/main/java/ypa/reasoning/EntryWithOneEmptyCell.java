@@ -1,55 +1,87 @@
-// package ypa.reasoning;
-
-// import ypa.command.Command;
-// import ypa.command.CompoundCommand;
-// import ypa.command.SetCommand;
-// import ypa.model.AbstractGroup;
-// import ypa.model.KCell;
-// import ypa.model.KEntry;
-// import ypa.model.KPuzzle;
-
-// /**
-//  * When all cells but one of an entry have been filled,
-//  * then the last empty cell remaining can be calculated.
-//  *
-//  * @author Tom Verhoeff (Eindhoven University of Technology)
-//  */
-// public class EntryWithOneEmptyCell extends EmptyCellReasoner {
-
-//     public EntryWithOneEmptyCell(KPuzzle puzzle) {
-//         super(puzzle);
-//     }
-
-//     // @Override
-//     // CompoundCommand applyToCell(KCell cell) throws NullPointerException {
-//     //     if (!cell.isEmpty()) {
-//     //         throw new IllegalArgumentException(this.getClass().getSimpleName()
-//     //                 + "applyToCell.pre failed: cell is not empty");
-//     //     }
-//     //     CompoundCommand result = super.applyToCell(cell);
-
-//     //     for (AbstractGroup g : cell.groups()) {
-//     //         if (g instanceof KEntry && g.getStateCount(KCell.EMPTY) == 1) {
-//     //             // g is a horizontal or vertical entry with one empty cell
-//     //             int sum = ((KEntry) g).getSpecification().getSum();
-//     //             int newState = sum - g.getTotal();
-//     //             if (!puzzle.isValidNumber(newState)) {
-//     //                 return null;
-//     //             }
-//     //             final Command command = new SetCommand(cell, newState);
-//     //             command.execute();
-//     //             final boolean valid = puzzle.isValid();
-//     //             command.revert();
-//     //             if (valid) {
-//     //                 result.add(command);
-//     //                 return result;
-//     //             } else {
-//     //                 return null;
-//     //             }
-//     //         }
-//     //     }
-
-//     //     return result;
-//     // }
-
-// }
+package ypa.reasoning;
+
+import ypa.command.Command;
+import ypa.command.CompoundCommand;
+import ypa.command.SetCommand;
+import ypa.model.KSCell;
+import ypa.model.KSConstraints;
+import ypa.model.KSPuzzle;
+
+/**
+ * When all cells but one of a row, column, nonet, or cage have been filled,
+ * then the last empty cell remaining can be calculated.
+ * <p>
+ * The reasoner either looks at all units, or at a single unit.
+ * A {@link FixpointReasoner} over a {@link CompoundReasoner} of single-unit
+ * reasoners only reruns the reasoners of the units that changed.
+ *
+ * @author Tom Verhoeff (Eindhoven University of Technology)
+ */
+public class EntryWithOneEmptyCell extends EmptyCellReasoner {
+
+    /** The single unit to look at, or -1 for all units. */
+    private final int unit;
+
+    /**
+     * Constructs a reasoner that looks at all units of a puzzle.
+     *
+     * @param puzzle  the puzzle
+     * @throws IllegalArgumentException  if {@code puzzle == null}
+     * @pre {@code puzzle != null}
+     */
+    public EntryWithOneEmptyCell(KSPuzzle puzzle) {
+        super(puzzle);
+        this.unit = -1;
+    }
+
+    /**
+     * Constructs a reasoner that looks at a single unit of a puzzle.
+     *
+     * @param puzzle  the puzzle
+     * @param unit  the unit, numbered as in {@link KSConstraints}
+     * @throws IllegalArgumentException  if precondition failed
+     * @pre {@code puzzle != null && 0 <= unit < KSConstraints.UNIT_COUNT}
+     */
+    public EntryWithOneEmptyCell(KSPuzzle puzzle, final int unit) {
+        super(puzzle, puzzle.getUnitCells(unit));
+        this.unit = unit;
+    }
+
+    @Override
+    public int[] getUnits() {
+        return unit < 0 ? super.getUnits() : new int[] {unit};
+    }
+
+    @Override
+    CompoundCommand applyToCell(KSCell cell) throws NullPointerException {
+        if (cell.getValue() != KSCell.EMPTY) {
+            throw new IllegalArgumentException(this.getClass().getSimpleName()
+                    + "applyToCell.pre failed: cell is not empty");
+        }
+        CompoundCommand result = super.applyToCell(cell);
+        final KSConstraints constraints = puzzle.getConstraints();
+
+        for (int g : KSConstraints.unitsOf(cell)) {
+            if ((unit < 0 || g == unit) && constraints.count(g, KSCell.EMPTY) == 1) {
+                // g is a unit with one empty cell
+                int newState = constraints.getTarget(g) - constraints.getTotal(g);
+                if (newState < puzzle.getMinNumber() || puzzle.getMaxNumber() < newState) {
+                    return null;
+                }
+                final Command command = new SetCommand(cell, newState);
+                command.execute();
+                final boolean valid = puzzle.isValid(cell);
+                command.revert();
+                if (valid) {
+                    result.add(command);
+                    return result;
+                } else {
+                    return null;
+                }
+            }
+        }
+
+        return result;
+    }
+
+}
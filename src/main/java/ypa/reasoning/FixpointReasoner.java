@@ -1,40 +1,149 @@
-// package ypa.reasoning;
-
-// import ypa.command.CompoundCommand;
-// import ypa.model.KPuzzle;
-
-// /**
-//  * A reasoner that repeatedly applies a given reasoner
-//  * until the least fixed point is reached (a closure operation).
-//  * That is, the reasoner is repeated until either there is no further change,
-//  * or until an invalid state is reached,
-//  * in which case all previous changes are reverted.
-//  *
-//  * @author Tom Verhoeff (Eindhoven University of Technology)
-//  */
-// public class FixpointReasoner extends ReasonerDecorator {
-
-//     public FixpointReasoner(KPuzzle puzzle, Reasoner reasoner) {
-//         super(puzzle, reasoner);
-//     }
-
-//     @Override
-//     public CompoundCommand apply() {
-//         final CompoundCommand result = super.apply();
-
-// // repeatedly apply reasoner until no change occurs
-//         CompoundCommand compound;
-//         do {
-//             compound = reasoner.apply();
-//             if (compound == null) {
-//                 result.revert(); // HARD-TO-FIND DEFECT IF OMITTED!
-//                 return compound;
-//             }
-//             result.addAll(compound);
-//         } while (compound.size() > 0);
-// //
-
-//         return result;
-//     }
-
-// }
+package ypa.reasoning;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import ypa.command.CompoundCommand;
+import ypa.model.KSConstraints;
+import ypa.model.KSPuzzle;
+
+/**
+ * A reasoner that repeatedly applies a given reasoner
+ * until the least fixed point is reached (a closure operation).
+ * That is, the reasoner is repeated until either there is no further change,
+ * or until an invalid state is reached,
+ * in which case all previous changes are reverted.
+ * <p>
+ * If the given reasoner is a {@link CompoundReasoner}, its reasoners are
+ * scheduled separately, with a worklist; nested compound reasoners are
+ * flattened. Initially, every reasoner is on the
+ * worklist. Whenever a reasoner changes the puzzle, the reasoners depending
+ * on a changed unit (see {@link Reasoner#getUnits()}) are put back on the
+ * worklist, as is the reasoner itself; other reasoners are not run again.
+ * This only saves work for reasoners that look at a few units, such as
+ * single-unit {@link EntryWithOneEmptyCell} reasoners and the reasoners of
+ * {@link Rule45Reasoner#perConstraint(KSPuzzle)}; reasoners that look
+ * at the whole grid, such as {@link SinglesReasoner}, depend on every unit
+ * and are rerun after every change.
+ *
+ * @author Tom Verhoeff (Eindhoven University of Technology)
+ */
+public class FixpointReasoner extends ReasonerDecorator {
+
+    /** The number of times a reasoner was applied, over all applications. */
+    private long invocationCount;
+
+    public FixpointReasoner(KSPuzzle puzzle, Reasoner reasoner) {
+        super(puzzle, reasoner);
+    }
+
+    /**
+     * Gets the number of times the given reasoner, or one of the reasoners
+     * of the given compound reasoner, was applied so far.
+     *
+     * @return number of reasoner applications
+     */
+    public long getInvocationCount() {
+        return invocationCount;
+    }
+
+    @Override
+    public CompoundCommand apply() {
+        final CompoundCommand result = super.apply();
+        final List<Reasoner> parts = partsOf(reasoner);
+        final int[][] dependents = dependents(parts);
+        final KSConstraints constraints = puzzle.getConstraints();
+
+        // apply reasoners on the worklist until it is empty
+        final Queue<Integer> worklist = new ArrayDeque<>();
+        final boolean[] queued = new boolean[parts.size()];
+        for (int i = 0; i < parts.size(); i++) {
+            worklist.add(i);
+            queued[i] = true;
+        }
+        while (!worklist.isEmpty()) {
+            final int i = worklist.remove();
+            queued[i] = false;
+            final long before = constraints.getModificationCount();
+            final CompoundCommand compound = parts.get(i).apply();
+            invocationCount++;
+            if (compound == null) {
+                result.revert(); // HARD-TO-FIND DEFECT IF OMITTED!
+                return compound;
+            }
+            if (compound.size() > 0) {
+                result.addAll(compound);
+                enqueue(i, worklist, queued);
+                for (int unit = 0; unit < KSConstraints.UNIT_COUNT; unit++) {
+                    if (constraints.getStamp(unit) > before) {
+                        for (int j : dependents[unit]) {
+                            enqueue(j, worklist, queued);
+                        }
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Gets the reasoners to schedule separately.
+     *
+     * @param reasoner  the reasoner
+     * @return the reasoners of {@code reasoner} and of the compound reasoners
+     *   nested in it, in order, if it is compound; else {@code reasoner}
+     */
+    private static List<Reasoner> partsOf(final Reasoner reasoner) {
+        if (!(reasoner instanceof CompoundReasoner compound)) {
+            return List.of(reasoner);
+        }
+        final List<Reasoner> result = new ArrayList<>();
+        for (Reasoner part : compound.getReasoners()) {
+            result.addAll(partsOf(part));
+        }
+        return result;
+    }
+
+    /**
+     * Determines for each unit which reasoners depend on it.
+     *
+     * @param parts  the reasoners
+     * @return indices into {@code parts} of the reasoners depending on each unit
+     */
+    private static int[][] dependents(final List<Reasoner> parts) {
+        final List<List<Integer>> lists = new ArrayList<>();
+        for (int unit = 0; unit < KSConstraints.UNIT_COUNT; unit++) {
+            lists.add(new ArrayList<>());
+        }
+        for (int i = 0; i < parts.size(); i++) {
+            for (int unit : parts.get(i).getUnits()) {
+                lists.get(unit).add(i);
+            }
+        }
+        final int[][] result = new int[KSConstraints.UNIT_COUNT][];
+        for (int unit = 0; unit < KSConstraints.UNIT_COUNT; unit++) {
+            result[unit] = lists.get(unit).stream().mapToInt(Integer::intValue).toArray();
+        }
+        return result;
+    }
+
+    /**
+     * Puts a reasoner on the worklist, unless it is on it already.
+     *
+     * @param i  the index of the reasoner
+     * @param worklist  the worklist
+     * @param queued  whether each reasoner is on the worklist
+     * @modifies {@code worklist}, {@code queued}
+     */
+    private static void enqueue(final int i, final Queue<Integer> worklist,
+            final boolean[] queued) {
+        if (!queued[i]) {
+            worklist.add(i);
+            queued[i] = true;
+        }
+    }
+
+}
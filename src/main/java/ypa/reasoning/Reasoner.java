@@ -1,6 +1,9 @@
 package ypa.reasoning;
 
+import java.util.stream.IntStream;
+
 import ypa.command.CompoundCommand;
+import ypa.model.KSConstraints;
 import ypa.model.KSPuzzle;
 
 /**
@@ -18,6 +21,9 @@ import ypa.model.KSPuzzle;
  */
 public class Reasoner {
 
+    /** All units, in increasing order. */
+    private static final int[] ALL_UNITS = IntStream.range(0, KSConstraints.UNIT_COUNT).toArray();
+
     /** The puzzle to apply the reasoner to. */
     protected KSPuzzle puzzle;
 
@@ -76,4 +82,17 @@ public class Reasoner {
         return new CompoundCommand(true);
     }
 
+    /**
+     * Gets the units (rows, columns, nonets, and cages) whose cells this
+     * reasoner looks at. Applying the reasoner again can only help after
+     * some cell of one of these units changed.
+     * By default, this is all units; a reasoner that looks at fewer units
+     * can override it, so that {@link FixpointReasoner} runs it less often.
+     *
+     * @return the units, numbered as in {@link KSConstraints}
+     */
+    public int[] getUnits() {
+        return ALL_UNITS.clone();
+    }
+
 }
@@ -1,196 +1,331 @@
 package ypa.reasoning;
 
-import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import ypa.command.Command;
 import ypa.command.CompoundCommand;
 import ypa.command.SetCommand;
-import ypa.model.KSPuzzle;
 import ypa.model.KSCell;
+import ypa.model.KSConstraints;
 import ypa.model.KSGrid;
+import ypa.model.KSPuzzle;
 
 /**
  * A class that applies the rule of 45.
  * Each sudoku region (i.e., row, column, or nonet) contains the digits one through nine.
  * Thus, each sudoku region has a total value of 45. If S is the sum of all the cages
  * contained entirely in a region, then the cells not covered must sum to 45-S.
+ * <p>
+ * The rule is applied to every row, column, and nonet, to every union of
+ * consecutive rows or consecutive columns (summing to 45 per row or column),
+ * and to every pair of adjacent nonets. For such a region, the cells of
+ * the region outside the cages that lie entirely inside it (the innies)
+ * sum to the region's total minus the sums of those cages.
+ * The cells outside the region of the cages sticking out of it (the outies)
+ * sum to the sums of those cages minus the innies' sum.
+ * <p>
+ * These sum constraints depend only on the cages, so they are derived once,
+ * when the reasoner is constructed. Applying the reasoner checks each of them:
+ * a constraint with one empty cell left determines its value, and a
+ * constraint whose filled cells cannot make up its sum is a contradiction.
+ * <p>
+ * Together, the constraints look at (almost) the whole grid. For use with a
+ * {@link FixpointReasoner}, {@link #perConstraint(KSPuzzle)} makes a reasoner
+ * for each constraint instead, which depends only on a few units covering
+ * its own cells, so that after a change only the constraints involving
+ * a changed unit are checked again.
  */
 public class Rule45Reasoner extends Reasoner {
-    /** The grid of the puzzle. */
-    private final KSCell[][] matrix;
+
+    /** The kinds of units of a cell: row, column, nonet, and cage. */
+    private static final int UNIT_KINDS = 4;
+
+    /** The cells of the grid, row-major. */
+    private final KSCell[] cells;
+
+    /** The cells of each sum constraint, as indices into {@code cells}. */
+    private final int[][] constrainedCells;
+
+    /** The sum of each sum constraint. */
+    private final int[] sums;
+
+    /** Units covering the cells of the sum constraints, in increasing order. */
+    private final int[] units;
+
+    /** The number of sum constraints checked, over all applications. */
+    private long checkCount;
 
     /**
      * Create a class that applies the above stated strategy.
-     * 
+     *
      * @param puzzle the puzzle the strategy is applied to
+     * @throws IllegalArgumentException  if {@code puzzle == null}
+     * @pre {@code puzzle != null}
      */
     public Rule45Reasoner(KSPuzzle puzzle) {
         super(puzzle);
-        this.matrix = puzzle.getMatrix();
-    }
-    
-    @Override
-    public CompoundCommand apply() {
-        CompoundCommand command = super.apply();
-        if (applyToCells(command) == null) {
-            return null;
+        this.cells = new KSCell[KSConstraints.CELLS];
+        final BitSet[] cages = new BitSet[KSConstraints.MAX_GROUP + 1];
+        final int[] cageSums = new int[KSConstraints.MAX_GROUP + 1];
+        final KSCell[][] matrix = puzzle.getMatrix();
+        for (int i = 0; i < KSConstraints.CELLS; i++) {
+            final KSCell cell = matrix[i / KSGrid.COLS][i % KSGrid.COLS];
+            cells[i] = cell;
+            if (cages[cell.getGroup()] == null) {
+                cages[cell.getGroup()] = new BitSet(KSConstraints.CELLS);
+                cageSums[cell.getGroup()] = cell.getCageSum();
+            }
+            cages[cell.getGroup()].set(i);
         }
 
-        return command;
+        final Map<BitSet, Integer> constraints = new LinkedHashMap<>();
+        for (Map.Entry<BitSet, Integer> region : regions().entrySet()) {
+            derive(region.getKey(), region.getValue(), cages, cageSums, constraints);
+        }
+        this.constrainedCells = new int[constraints.size()][];
+        this.sums = new int[constraints.size()];
+        int c = 0;
+        for (Map.Entry<BitSet, Integer> constraint : constraints.entrySet()) {
+            constrainedCells[c] = constraint.getKey().stream().toArray();
+            sums[c] = constraint.getValue();
+            c++;
+        }
+        this.units = unitsOf(cells, constrainedCells, puzzle.getConstraints());
     }
 
-    private CompoundCommand applyToCells(CompoundCommand result) {
-        int oldSize = result.size();
-        if (checkRows(result) != null) {
-            if (oldSize != result.size()) {
-                return result;
-            }
+    /**
+     * Constructs a reasoner for one sum constraint of another reasoner.
+     *
+     * @param all  the reasoner holding the constraint
+     * @param c  the index of the constraint in {@code all}
+     */
+    private Rule45Reasoner(final Rule45Reasoner all, final int c) {
+        super(all.puzzle);
+        this.cells = all.cells;
+        this.constrainedCells = new int[][] {all.constrainedCells[c]};
+        this.sums = new int[] {all.sums[c]};
+        this.units = unitsOf(cells, constrainedCells, puzzle.getConstraints());
+    }
 
-            if (checkCols(result) != null) {
-                if (oldSize != result.size()) {
-                    return result;
-                }
+    /**
+     * Makes a reasoner for each sum constraint of the rule of 45, each of which
+     * depends only on units covering the cells of its constraint. The result is
+     * meant to be scheduled by a {@link FixpointReasoner}; applied on its own,
+     * it stops at the first constraint that fills in a cell.
+     *
+     * @param puzzle  the puzzle
+     * @return compound reasoner with one reasoner per sum constraint
+     * @throws IllegalArgumentException  if {@code puzzle == null}
+     * @pre {@code puzzle != null}
+     */
+    public static CompoundReasoner perConstraint(final KSPuzzle puzzle) {
+        final Rule45Reasoner all = new Rule45Reasoner(puzzle);
+        final CompoundReasoner result = new CompoundReasoner(puzzle);
+        for (int c = 0; c < all.sums.length; c++) {
+            result.add(new Rule45Reasoner(all, c));
+        }
+        return result;
+    }
 
-                if (checkNonets(result) != null) {
-                    return result;
+    /**
+     * Gets units that cover the cells of some sum constraints: for each
+     * constraint, the rows, the columns, the nonets, or the cages of its cells,
+     * whichever have the fewest cells in total. A change to a cell changes
+     * each of its units, so in particular one of these.
+     *
+     * @param cells  the cells of the grid, row-major
+     * @param constrainedCells  the cells of each constraint, as indices into {@code cells}
+     * @param constraints  the constraint state of the puzzle, for the unit sizes
+     * @return the units, in increasing order
+     */
+    private static int[] unitsOf(final KSCell[] cells, final int[][] constrainedCells,
+            final KSConstraints constraints) {
+        final BitSet result = new BitSet(KSConstraints.UNIT_COUNT);
+        for (int[] indices : constrainedCells) {
+            BitSet best = null;
+            int bestSize = Integer.MAX_VALUE;
+            for (int kind = 0; kind < UNIT_KINDS; kind++) {
+                final BitSet units = new BitSet(KSConstraints.UNIT_COUNT);
+                for (int i : indices) {
+                    units.set(KSConstraints.unitsOf(cells[i])[kind]);
+                }
+                final int size = units.stream().map(constraints::getSize).sum();
+                if (size < bestSize) {
+                    best = units;
+                    bestSize = size;
                 }
-
-                return null;
             }
-
-            return null;
+            result.or(best);
         }
-        
-        return null;
+        return result.stream().toArray();
     }
 
-    private CompoundCommand checkRows(final CompoundCommand result) {
-        // check rows
-        for (int row = 0; row < KSGrid.ROWS; row++) {
-            // sum values in a row of cells
-            int sum = Arrays.stream(matrix[row]).mapToInt(KSCell::getValue).sum();
-            int missingSum = 45 - sum;
-            if (missingSum > 9) {
-                continue;
-            }
-
-            // find count of cells with value 0
-            int missingCount = (int) Arrays.stream(matrix[row])
-                .filter(cell -> cell.getValue() == 0).count();
+    /**
+     * Gets the number of sum constraints checked so far, over all applications.
+     *
+     * @return the number of constraint checks
+     */
+    long getCheckCount() {
+        return checkCount;
+    }
 
-            if (missingCount == 1) {
-                // Only one cell is empty, fill it with the missing value
-                for (int col = 0; col < KSGrid.COLS; col++) {
-                    KSCell cell = matrix[row][col];
+    /**
+     * Gets units covering the cells in the sum constraints, which are the
+     * only cells this reasoner looks at. Since the regions cover the grid,
+     * these are most units for a reasoner made by the public constructor,
+     * so that a {@link FixpointReasoner} reruns it after almost every
+     * change; see {@link #perConstraint(KSPuzzle)} for the alternative.
+     *
+     * @return the units, numbered as in {@link KSConstraints}
+     */
+    @Override
+    public int[] getUnits() {
+        return units.clone();
+    }
 
-                    if (cell.getValue() == 0) {
-                        return setCellState(result, cell, missingSum);
-                    }
+    /**
+     * Gets the regions the rule of 45 is applied to, with their sums.
+     *
+     * @return map from the cells of each region to the sum of its values
+     */
+    private static Map<BitSet, Integer> regions() {
+        final Map<BitSet, Integer> result = new LinkedHashMap<>();
+        for (int first = 0; first < KSGrid.ROWS; first++) {
+            final BitSet rows = new BitSet(KSConstraints.CELLS);
+            final BitSet columns = new BitSet(KSConstraints.CELLS);
+            for (int last = first; last < KSGrid.ROWS; last++) {
+                for (int j = 0; j < KSGrid.COLS; j++) {
+                    rows.set(last * KSGrid.COLS + j);
+                    columns.set(j * KSGrid.COLS + last);
                 }
+                final int sum = (last - first + 1) * KSConstraints.REGION_SUM;
+                result.put((BitSet) rows.clone(), sum);
+                result.put((BitSet) columns.clone(), sum);
+            }
+        }
+        for (int nonet = 0; nonet < KSConstraints.DIGITS; nonet++) {
+            result.put(nonet(nonet), KSConstraints.REGION_SUM);
+            if (nonet % 3 < 2) {
+                final BitSet pair = nonet(nonet);
+                pair.or(nonet(nonet + 1));
+                result.put(pair, 2 * KSConstraints.REGION_SUM);
+            }
+            if (nonet / 3 < 2) {
+                final BitSet pair = nonet(nonet);
+                pair.or(nonet(nonet + 3));
+                result.put(pair, 2 * KSConstraints.REGION_SUM);
             }
         }
-
         return result;
     }
 
-    private CompoundCommand checkCols(final CompoundCommand result) {
-        // check cols
-        for (int col = 0; col < KSGrid.COLS; col++) {
-            int sum = 0;
-
-            for (int row = 0; row < KSGrid.ROWS; row++) {
-                sum += matrix[row][col].getValue();
+    /**
+     * Gets the cells of a nonet.
+     *
+     * @param nonet  the index of the nonet, row-major
+     * @return the cells of {@code nonet}
+     */
+    private static BitSet nonet(final int nonet) {
+        final BitSet result = new BitSet(KSConstraints.CELLS);
+        final int top = nonet / 3 * 3;
+        final int left = nonet % 3 * 3;
+        for (int i = top; i < top + 3; i++) {
+            for (int j = left; j < left + 3; j++) {
+                result.set(i * KSGrid.COLS + j);
             }
+        }
+        return result;
+    }
 
-            int missingSum = 45 - sum;
-            if (missingSum > 9) {
+    /**
+     * Derives the innie and outie sum constraints of a region.
+     *
+     * @param region  the cells of the region
+     * @param regionSum  the sum of the values in {@code region}
+     * @param cages  the cells of each cage, indexed by group number; null if none
+     * @param cageSums  the cage sum of each cage, indexed by group number
+     * @param constraints  the constraints derived so far, to add to
+     * @modifies {@code constraints}
+     */
+    private static void derive(final BitSet region, final int regionSum, final BitSet[] cages,
+            final int[] cageSums, final Map<BitSet, Integer> constraints) {
+        int inside = 0;
+        int across = 0;
+        final BitSet innies = new BitSet(KSConstraints.CELLS);
+        final BitSet outies = new BitSet(KSConstraints.CELLS);
+        for (int group = 1; group < cages.length; group++) {
+            if (cages[group] == null || !cages[group].intersects(region)) {
                 continue;
             }
-
-            final int finalCol = col;
-            int missingCount = (int) Arrays.stream(matrix)
-                .filter(row -> row[finalCol].getValue() == 0).count();
-
-            if (missingCount == 1) {
-                // Only one cell is empty, fill it with the missing value
-                for (int row = 0; row < 9; row++) {
-                    KSCell cell = matrix[row][col];
-
-                    if (cell.getValue() == 0) {
-                        return setCellState(result, cell, missingSum);
-                    }
-                }
+            final BitSet outside = (BitSet) cages[group].clone();
+            outside.andNot(region);
+            if (outside.isEmpty()) {
+                inside += cageSums[group];
+            } else {
+                across += cageSums[group];
+                final BitSet in = (BitSet) cages[group].clone();
+                in.and(region);
+                innies.or(in);
+                outies.or(outside);
             }
         }
-
-        return result;
+        if (!innies.isEmpty()) {
+            constraints.putIfAbsent(innies, regionSum - inside);
+            constraints.putIfAbsent(outies, across - (regionSum - inside));
+        }
     }
 
-    private CompoundCommand checkNonets(final CompoundCommand result) {
-        // check nonets
-        for (int startRow = 0; startRow < KSGrid.ROWS; startRow += 3) {
-            for (int startCol = 0; startCol < KSGrid.COLS; startCol += 3) {
-                int sum = getNonetSum(startRow, startCol);
-                int missingSum = 45 - sum;
-                int missingCount = 0;
-                int missingRow = -1;
-                int missingCol = -1;
-
-                if (missingSum > 9) {
-                    continue;
-                }
-
-                findMissingRowAndCol(startRow, startCol, missingCount, missingRow, missingCol);
-                if (missingCount == 1) {
-                    // Only one cell is empty, fill it with the missing value
-                    KSCell cell = matrix[missingRow][missingCol];
-                    
-                    if (cell.getValue() == 0) {
-                        return setCellState(result, cell, missingSum);
-                    }
-                }
+    @Override
+    public CompoundCommand apply() {
+        final CompoundCommand result = super.apply();
+        for (int c = 0; c < sums.length; c++) {
+            if (!applyConstraint(c, result)) {
+                result.revert();
+                return null;
             }
         }
 
         return result;
     }
 
-    private int getNonetSum(int startRow, int startCol) {
-        int sum = 0;
-
-        for (int row = startRow; row < startRow + 3; row++) {
-            for (int col = startCol; col < startCol + 3; col++) {
-                sum += matrix[row][col].getValue();
+    /**
+     * Checks a sum constraint, and fills in its last empty cell.
+     *
+     * @param c  the index of the constraint
+     * @param result  the commands executed so far, to which a new one is added
+     * @return whether the constraint can still be met, and filling in
+     *   its last empty cell is valid
+     * @modifies {@code puzzle}, {@code result}
+     */
+    private boolean applyConstraint(final int c, final CompoundCommand result) {
+        checkCount++;
+        int remaining = sums[c];
+        int emptyCount = 0;
+        KSCell empty = null;
+        for (int index : constrainedCells[c]) {
+            final KSCell cell = cells[index];
+            if (cell.getValue() == KSCell.EMPTY) {
+                empty = cell;
+                emptyCount++;
+            } else {
+                remaining -= cell.getValue();
             }
         }
-
-        return sum;
-    }
-
-    private void findMissingRowAndCol(int startRow, int startCol, int missingCount,
-        int missingRow, int missingCol) {
-        for (int row = startRow; row < startRow + 3; row++) {
-            for (int col = startCol; col < startCol + 3; col++) {
-                if (matrix[row][col].getValue() == 0) {
-                    missingCount++;
-                    missingRow = row;
-                    missingCol = col;
-                }
-            }
+        if (emptyCount == 0) {
+            return remaining == 0;
         }
-    }
-
-    private CompoundCommand setCellState(final CompoundCommand result, KSCell cell, int state) {
-        final Command command = new SetCommand(cell, state);
-        command.execute();
-        final boolean valid = puzzle.isValid(cell);
-        command.revert();
-
-        if (valid) {
-            result.add(command);
-        
-            return result;
+        if (remaining < emptyCount || KSConstraints.DIGITS * emptyCount < remaining) {
+            return false;
+        }
+        if (emptyCount > 1) {
+            return true;
         }
 
-        return null;
+        final Command command = new SetCommand(empty, remaining);
+        command.execute();
+        result.add(command);
+        return puzzle.isValid(empty);
     }
-}
\ No newline at end of file
+}
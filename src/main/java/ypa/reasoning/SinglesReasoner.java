@@ -0,0 +1,244 @@
+package ypa.reasoning;
+
+import java.util.Arrays;
+
+import ypa.command.Command;
+import ypa.command.CompoundCommand;
+import ypa.command.SetCommand;
+import ypa.model.CombinationTable;
+import ypa.model.KSCell;
+import ypa.model.KSConstraints;
+import ypa.model.KSPuzzle;
+
+/**
+ * A reasoner that fills in naked and hidden singles until there are none left.
+ * A naked single is an empty cell with only one candidate.
+ * A hidden single is a digit that must occur in a unit, but fits in only
+ * one of its empty cells. Rows, columns, and nonets must hold every digit;
+ * a cage must hold the digits that occur in every combination that can
+ * still make up its cage sum.
+ * An empty cell without candidates, or a required digit that fits nowhere,
+ * is a contradiction.
+ * <p>
+ * The candidates of a cell are its feasible candidates as tracked by the
+ * {@link KSConstraints} of the puzzle, which are kept up to date on every
+ * change, including undo. Using the modification stamps of the units, only
+ * the units that share a cell with a unit changed since the previous
+ * examination are examined again.
+ * <p>
+ * Naked singles may occur in any cell, and hidden singles in any unit,
+ * so this reasoner depends on all units (see {@link Reasoner#getUnits()}),
+ * and a {@link FixpointReasoner} reruns it after every change; the
+ * modification stamps keep such reruns cheap.
+ */
+public class SinglesReasoner extends Reasoner {
+
+    /** The constraint state of the puzzle. */
+    private final KSConstraints constraints;
+
+    /** The cells of each unit. */
+    private final KSCell[][] unitCells;
+
+    /** The units that share a cell with each unit, including itself. */
+    private final int[][] neighbors;
+
+    /** Modification count of the constraints at the last examination. */
+    private long examined = -1;
+
+    /**
+     * Constructs a singles reasoner for a given puzzle.
+     *
+     * @param puzzle  the puzzle
+     * @throws IllegalArgumentException  if {@code puzzle == null}
+     * @pre {@code puzzle != null}
+     */
+    public SinglesReasoner(final KSPuzzle puzzle) {
+        super(puzzle);
+        this.constraints = puzzle.getConstraints();
+        this.unitCells = new KSCell[KSConstraints.UNIT_COUNT][];
+        final int[] filled = new int[KSConstraints.UNIT_COUNT];
+        for (int unit = 0; unit < KSConstraints.UNIT_COUNT; unit++) {
+            unitCells[unit] = new KSCell[constraints.getSize(unit)];
+        }
+        for (KSCell[] row : puzzle.getMatrix()) {
+            for (KSCell cell : row) {
+                for (int unit : KSConstraints.unitsOf(cell)) {
+                    unitCells[unit][filled[unit]++] = cell;
+                }
+            }
+        }
+        this.neighbors = new int[KSConstraints.UNIT_COUNT][];
+        for (int unit = 0; unit < KSConstraints.UNIT_COUNT; unit++) {
+            neighbors[unit] = neighborsOf(unit);
+        }
+    }
+
+    /**
+     * Computes the units that share a cell with a unit.
+     *
+     * @param unit  the unit
+     * @return the distinct units containing a cell of {@code unit}, in order
+     */
+    private int[] neighborsOf(final int unit) {
+        final boolean[] shared = new boolean[KSConstraints.UNIT_COUNT];
+        for (KSCell cell : unitCells[unit]) {
+            for (int other : KSConstraints.unitsOf(cell)) {
+                shared[other] = true;
+            }
+        }
+        int count = 0;
+        final int[] result = new int[KSConstraints.UNIT_COUNT];
+        for (int other = 0; other < KSConstraints.UNIT_COUNT; other++) {
+            if (shared[other]) {
+                result[count++] = other;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    @Override
+    public CompoundCommand apply() {
+        final CompoundCommand result = super.apply();
+        int size;
+        do {
+            size = result.size();
+            final long since = examined;
+            final boolean[] dirty = dirtyUnits();
+            examined = constraints.getModificationCount();
+            for (int unit = 0; unit < KSConstraints.UNIT_COUNT; unit++) {
+                if (dirty[unit] && !fillSingles(unit, result)) {
+                    result.revert();
+                    // units not examined in this round are still to be examined
+                    examined = since;
+                    return null;
+                }
+            }
+        } while (result.size() != size);
+
+        return result;
+    }
+
+    /**
+     * Determines the units whose cells may have lost candidates since the
+     * last examination: those sharing a cell with a unit that changed.
+     *
+     * @return whether each unit must be examined
+     */
+    private boolean[] dirtyUnits() {
+        final boolean[] result = new boolean[KSConstraints.UNIT_COUNT];
+        for (int unit = 0; unit < KSConstraints.UNIT_COUNT; unit++) {
+            if (constraints.getStamp(unit) > examined) {
+                for (int other : neighbors[unit]) {
+                    result[other] = true;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Fills in the naked singles among the cells of a unit,
+     * and then the hidden singles of the unit.
+     *
+     * @param unit  the unit to examine
+     * @param result  the commands executed so far, to which new ones are added
+     * @return whether no contradiction was found
+     * @modifies {@code puzzle}, {@code result}
+     */
+    private boolean fillSingles(final int unit, final CompoundCommand result) {
+        for (KSCell cell : unitCells[unit]) {
+            if (cell.getValue() == KSCell.EMPTY && !fillNakedSingle(cell, result)) {
+                return false;
+            }
+        }
+        final int required = getRequired(unit);
+        for (int digit = 1; digit <= KSConstraints.DIGITS; digit++) {
+            if ((required & KSConstraints.bit(digit)) != 0
+                    && !fillHiddenSingle(unit, digit, result)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the digits that must still be placed in the empty cells of a unit.
+     *
+     * @param unit  the unit
+     * @return the digits missing from a row, column, or nonet; for a cage,
+     *   the digits in every combination that completes the cage sum
+     */
+    private int getRequired(final int unit) {
+        final int used = constraints.getMask(unit);
+        if (unit < KSConstraints.FIRST_CAGE_UNIT) {
+            return KSConstraints.ALL_DIGITS & ~used;
+        }
+        return CombinationTable.getRequired(
+            constraints.getTarget(unit) - constraints.getTotal(unit),
+            constraints.count(unit, KSCell.EMPTY), used);
+    }
+
+    /**
+     * Fills in an empty cell if it has only one candidate.
+     *
+     * @param cell  the empty cell
+     * @param result  the commands executed so far, to which a new one is added
+     * @return whether {@code cell} has a candidate, and filling it in is valid
+     * @modifies {@code puzzle}, {@code result}
+     */
+    private boolean fillNakedSingle(final KSCell cell, final CompoundCommand result) {
+        final int candidates = constraints.getFeasibleCandidates(cell);
+        if (candidates == 0) {
+            return false;
+        }
+        if (Integer.bitCount(candidates) > 1) {
+            return true;
+        }
+        return fill(cell, Integer.numberOfTrailingZeros(candidates) + 1, result);
+    }
+
+    /**
+     * Fills in a digit that must occur in a unit if it fits in only one cell.
+     *
+     * @param unit  the unit
+     * @param digit  the digit that must occur in {@code unit}
+     * @param result  the commands executed so far, to which a new one is added
+     * @return whether {@code digit} occurs or fits somewhere in {@code unit},
+     *   and filling it in is valid
+     * @modifies {@code puzzle}, {@code result}
+     */
+    private boolean fillHiddenSingle(final int unit, final int digit,
+            final CompoundCommand result) {
+        KSCell single = null;
+        for (KSCell cell : unitCells[unit]) {
+            if (cell.getValue() == digit) {
+                // filled in by an earlier single
+                return true;
+            }
+            if (cell.getValue() == KSCell.EMPTY
+                    && (constraints.getFeasibleCandidates(cell) & KSConstraints.bit(digit)) != 0) {
+                if (single != null) {
+                    return true;
+                }
+                single = cell;
+            }
+        }
+        return single != null && fill(single, digit, result);
+    }
+
+    /**
+     * Fills in a cell.
+     *
+     * @param cell  the empty cell
+     * @param digit  the digit to put in {@code cell}
+     * @param result  the commands executed so far, to which the new one is added
+     * @return whether the puzzle is valid at {@code cell} afterwards
+     * @modifies {@code puzzle}, {@code result}
+     */
+    private boolean fill(final KSCell cell, final int digit, final CompoundCommand result) {
+        final Command command = new SetCommand(cell, digit);
+        command.execute();
+        result.add(command);
+        return puzzle.isValid(cell);
+    }
+}
@@ -0,0 +1,109 @@
+package ypa.reasoning;
+
+import java.util.stream.IntStream;
+
+import ypa.command.Command;
+import ypa.command.CompoundCommand;
+import ypa.command.SetCommand;
+import ypa.model.KSCell;
+import ypa.model.KSCompactGrid;
+import ypa.model.KSConstraints;
+import ypa.model.KSGrid;
+import ypa.model.KSPuzzle;
+import ypa.model.KSSnapshot;
+
+/**
+ * When all but one of the candidates of an empty cell lead to a
+ * contradiction after filling in naked singles, then that candidate is forced.
+ * This is {@link GeneralizedEmptyCellByContradiction} with naked singles
+ * as the given reasoner, except that the speculation is done on immutable
+ * {@link KSSnapshot}s instead of executing and reverting commands on the
+ * puzzle. The puzzle is only changed to fill in the forced digit.
+ * <p>
+ * Since snapshots are independent, the cells can be examined concurrently:
+ * in parallel mode, all empty cells are examined in parallel, and the
+ * first forced cell (row-major) is filled in, as in sequential mode.
+ */
+public class SnapshotContradictionReasoner extends Reasoner {
+
+    /** Whether to examine the cells in parallel. */
+    private final boolean parallel;
+
+    /**
+     * Constructs a sequential reasoner for a given puzzle.
+     *
+     * @param puzzle  the puzzle
+     * @throws IllegalArgumentException  if {@code puzzle == null}
+     * @pre {@code puzzle != null}
+     */
+    public SnapshotContradictionReasoner(final KSPuzzle puzzle) {
+        this(puzzle, false);
+    }
+
+    /**
+     * Constructs a reasoner for a given puzzle.
+     *
+     * @param puzzle  the puzzle
+     * @param parallel  whether to examine the cells in parallel
+     * @throws IllegalArgumentException  if {@code puzzle == null}
+     * @pre {@code puzzle != null}
+     */
+    public SnapshotContradictionReasoner(final KSPuzzle puzzle, final boolean parallel) {
+        super(puzzle);
+        this.parallel = parallel;
+    }
+
+    @Override
+    public CompoundCommand apply() {
+        final CompoundCommand result = super.apply();
+        final KSSnapshot state = puzzle.snapshot();
+        if (!state.isConsistent()) {
+            return null;
+        }
+        final int[] survivors = parallel
+            ? IntStream.range(0, KSCompactGrid.CELLS).parallel()
+                .map(i -> survivors(state, i)).toArray()
+            : null;
+        for (int i = 0; i < KSCompactGrid.CELLS; i++) {
+            if (state.get(i) != KSCell.EMPTY) {
+                continue;
+            }
+            final int digits = parallel ? survivors[i] : survivors(state, i);
+            if (digits == 0) {
+                return null;
+            }
+            if (Integer.bitCount(digits) == 1) {
+                final KSCell cell = puzzle.getCell(i / KSGrid.COLS, i % KSGrid.COLS);
+                final Command command = new SetCommand(cell,
+                    Integer.numberOfTrailingZeros(digits) + 1);
+                command.execute();
+                result.add(command);
+                return result;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the candidates of a cell that do not lead to a contradiction
+     * after filling in naked singles.
+     *
+     * @param state  the state to speculate from, which is not changed
+     * @param index  the index of the cell
+     * @return mask of the surviving candidates; 0 if the cell is not empty
+     */
+    private static int survivors(final KSSnapshot state, final int index) {
+        if (state.get(index) != KSCell.EMPTY) {
+            return 0;
+        }
+        final int candidates = state.getCandidates(index);
+        int result = 0;
+        for (int digit = 1; digit <= KSConstraints.DIGITS; digit++) {
+            final int bit = KSConstraints.bit(digit);
+            if ((candidates & bit) != 0 && state.with(index, digit).propagate() != null) {
+                result |= bit;
+            }
+        }
+        return result;
+    }
+}
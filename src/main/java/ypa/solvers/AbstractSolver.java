@@ -1,13 +1,22 @@
 package ypa.solvers;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.Collection;
 import java.util.Stack;
+import java.util.function.Supplier;
 
 import ypa.command.Command;
 import ypa.model.KSPuzzle;
 
 /**
  * Abstract base class for solvers of Killer Sudoku puzzles.
+ * <p>
+ * Subclasses count the work they do in the protected counters,
+ * which are plain fields to keep the overhead negligible; a snapshot
+ * is available via {@link #getStatistics()}. The counters may be read
+ * from another thread while solving, for instance to show progress,
+ * in which case they may lag behind.
  *
  * @author Tom Verhoeff (Eindhoven University of Technology)
  */
@@ -19,6 +28,36 @@ public abstract class AbstractSolver {
     /** Commands executed. */
     protected Stack<Command> commands;
 
+    /** Whether the solver was asked to stop, possibly from another thread. */
+    private volatile boolean cancelled;
+
+    /** The number of search nodes visited. */
+    protected long nodeCount;
+
+    /** The maximum search depth reached. */
+    protected int maxDepth;
+
+    /** The number of speculative placements undone. */
+    protected long backtrackCount;
+
+    /** The number of digits considered for empty cells. */
+    protected long candidateCheckCount;
+
+    /** The number of reasoner applications. */
+    protected long reasonerInvocationCount;
+
+    /** The number of commands executed by reasoner applications. */
+    protected long reasonerYield;
+
+    /** The wall-clock time spent solving, in ns. */
+    private long wallTime;
+
+    /** The CPU time spent solving, in ns. */
+    private long cpuTime;
+
+    /** For measuring CPU time. */
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
     /**
      * Constructs a reasoner for a given puzzle.
      *
@@ -44,6 +83,77 @@ public abstract class AbstractSolver {
         return commands;
     }
 
+    /**
+     * Gets the number of search nodes visited so far.
+     *
+     * @return number of search nodes
+     */
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Gets a snapshot of the work done so far, over all calls of
+     * {@link #solve()}.
+     *
+     * @return the current values of the counters
+     */
+    public SolverStatistics getStatistics() {
+        return new SolverStatistics(getNodeCount(), maxDepth, backtrackCount,
+            candidateCheckCount, reasonerInvocationCount, reasonerYield, wallTime, cpuTime);
+    }
+
+    /**
+     * Runs a search, and adds the wall-clock and CPU time it takes
+     * to the statistics.
+     *
+     * @param <T>  the type of the result
+     * @param search  the search to run
+     * @return the result of {@code search}
+     */
+    protected final <T> T timed(final Supplier<T> search) {
+        final long wallStart = System.nanoTime();
+        final long cpuStart = currentCpuTime();
+        try {
+            return search.get();
+        } finally {
+            wallTime += System.nanoTime() - wallStart;
+            cpuTime += currentCpuTime() - cpuStart;
+        }
+    }
+
+    /**
+     * Gets the CPU time of the current thread.
+     *
+     * @return CPU time in ns, or 0 if it cannot be measured
+     */
+    protected static long currentCpuTime() {
+        return THREADS.isCurrentThreadCpuTimeSupported()
+            ? THREADS.getCurrentThreadCpuTime() : 0;
+    }
+
+    /**
+     * Asks the solver to stop. This may be called from another thread than
+     * the one solving. A solver that is asked to stop gives up as soon as
+     * it notices, and {@link #solve()} then returns false, leaving
+     * the puzzle unchanged.
+     *
+     * @modifies {@code this}
+     * @post {@code isCancelled()}
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Gets whether the solver was asked to stop.
+     *
+     * @return whether {@link #cancel()} was called
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
     /**
      * Either finds one solution of the puzzle from its current state,
      * if solvable, or leaves the puzzle unchanged.
@@ -1,21 +1,29 @@
 package ypa.solvers;
 
 import ypa.command.Command;
+import ypa.command.CompoundCommand;
 import ypa.command.SetCommand;
 import ypa.model.KSCell;
+import ypa.model.KSConstraints;
 import ypa.model.KSPuzzle;
 import ypa.reasoning.Reasoner;
 
 /**
  * A simple recursive backtracking solver for Killer Sudoku.
  * It uses puzzle.getMinNumber() and puzzle.getMaxNumber()
- * to obtain the range of `digits' to try in an empty cell.
+ * to obtain the range of `digits' to try in an empty cell,
+ * skipping those that are not feasible candidates of the cell.
+ * <p>
+ * One reasoner strategy can be injected via the constructor.
+ * If null, it will be ignored; otherwise, it will be invoked
+ * before looking for an empty cell and trying all possible `digits'.
  * <p>
- One reasoner strategy can be injected via the constructor.
- If null, it will be ignored; otherwise, it will be invoked
- before looking for an empty cell and trying all possible `digits'.
- <p>
  * It makes sense for client code to supply a fixpoint strategy.
+ * <p>
+ * The empty cell to speculate on is chosen by a {@link CellSelector},
+ * by default the first empty cell. The number of search nodes, that is,
+ * of digits placed speculatively, is available via {@link #getNodeCount()},
+ * and further counters via {@link #getStatistics()}.
  *
  * @author Tom Verhoeff (Eindhoven University of Technology)
  */
@@ -24,6 +32,9 @@ public class BacktrackSolver extends AbstractSolver {
     /** The strategy to apply before speculating; null if no reasoner. */
     protected Reasoner reasoner;
 
+    /** The strategy to choose the next empty cell. */
+    protected final CellSelector selector;
+
     /* Rep. invariant:
      *  reasoner != null ==> reasoner.puzzle == this.puzzle
      */
@@ -36,42 +47,70 @@ public class BacktrackSolver extends AbstractSolver {
      * @pre {@code puzzle != null}
      */
     public BacktrackSolver(KSPuzzle puzzle, final Reasoner reasoner) {
+        this(puzzle, reasoner, StandardCellSelector.FIRST_EMPTY);
+    }
+
+    /**
+     * Constructs a backtracking solver for a given puzzle,
+     * with a given cell selection strategy.
+     *
+     * @param puzzle  the puzzle
+     * @param reasoner  the reasoner to apply before speculating, or null
+     * @param selector  the strategy to choose the next empty cell
+     * @throws IllegalArgumentException  if {@code puzzle == null || selector == null}
+     * @pre {@code puzzle != null && selector != null}
+     */
+    public BacktrackSolver(final KSPuzzle puzzle, final Reasoner reasoner,
+            final CellSelector selector) {
         super(puzzle);
+        if (selector == null) {
+            throw new IllegalArgumentException(this.getClass().getSimpleName()
+                    + "().pre failed: selector == null");
+        }
         this.reasoner = reasoner;
+        this.selector = selector;
     }
 
 // Auxiliary methods
     /**
-     * Returns first empty cell, or null if no empty cells.
-     * TODO: Could look for "better" empty cell.
+     * Returns an empty cell chosen by the selector, or null if no empty cells.
      *
-     * @return first empty cell, or null if no empty cells
+     * @return empty cell to speculate on, or null if no empty cells
      */
     protected KSCell getEmptyCell() {
-        final KSCell[][] matrix = puzzle.getMatrix();
-
-        for (int i = 0; i < matrix.length; i++) {
-            for (int j = 0; j < matrix[i].length; j++) {
-                if (matrix[i][j].getValue() == 0) {
-                    return matrix[i][j];
-                }
-            }
-        }
-
-        return null;
+        return selector.select(puzzle);
     }
 //
 
     @Override
     public boolean solve() {
+        return timed(() -> solve(0));
+    }
+
+    /**
+     * Solves the puzzle from its current state, below a given number of
+     * speculative placements.
+     *
+     * @param depth  the number of digits placed speculatively so far
+     * @return whether puzzle was solved
+     * @modifies {@code puzzle}
+     * @post {@code
+     *      (\result && puzzle.isSolved()) || (! \result && puzzle unchanged)}
+     */
+    private boolean solve(final int depth) {
+        if (isCancelled()) {
+            return false;
+        }
 // Backtracking solver, using the reasoner if not null
         if (reasoner != null) {
             // first, fill in cells by reasoning
-            final Command compound = reasoner.apply();
+            final CompoundCommand compound = reasoner.apply();
+            reasonerInvocationCount++;
             if (compound == null) {
                 // not solvable
                 return false;
             }
+            reasonerYield += compound.size();
             commands.push(compound);
         }
 
@@ -81,13 +120,21 @@ public class BacktrackSolver extends AbstractSolver {
             return true;
         } else {
             // cell is empty; set it in all possible ways
+            final int candidates = puzzle.getConstraints().getFeasibleCandidates(cell);
             for (int state = puzzle.getMinNumber(); state <= puzzle.getMaxNumber(); ++state) {
+                candidateCheckCount++;
+                if ((candidates & KSConstraints.bit(state)) == 0) {
+                    // state repeats a digit or misses the cage sum
+                    continue;
+                }
                 final Command command = new SetCommand(cell, state);
                 command.execute();
+                nodeCount++;
+                maxDepth = Math.max(maxDepth, depth + 1);
                 if (puzzle.isValid(cell)) {
                     commands.push(command);
                     // number of open cells is one less
-                    if (solve()) {
+                    if (solve(depth + 1)) {
                         return true;
                     }
                     // no solution found
@@ -95,6 +142,7 @@ public class BacktrackSolver extends AbstractSolver {
                 }
                 // restore cell state
                 command.revert();
+                backtrackCount++;
             }
         }
         if (reasoner != null) {
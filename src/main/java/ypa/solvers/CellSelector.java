@@ -0,0 +1,25 @@
+package ypa.solvers;
+
+import ypa.model.KSCell;
+import ypa.model.KSPuzzle;
+
+/**
+ * Strategy for choosing the empty cell on which a backtracking solver
+ * speculates next. A good choice keeps the search tree small: cells with
+ * few options are best tried early, because wrong guesses elsewhere are
+ * then discovered close to the root.
+ *
+ * @see StandardCellSelector
+ */
+public interface CellSelector {
+
+    /**
+     * Selects an empty cell of a puzzle.
+     *
+     * @param puzzle  the puzzle
+     * @return an empty cell of {@code puzzle}, or null if it has no empty cells
+     * @pre {@code puzzle != null}
+     */
+    KSCell select(KSPuzzle puzzle);
+
+}
@@ -0,0 +1,387 @@
+package ypa.solvers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import ypa.command.Command;
+import ypa.command.SetCommand;
+import ypa.model.CombinationTable;
+import ypa.model.KSCell;
+import ypa.model.KSConstraints;
+import ypa.model.KSGrid;
+import ypa.model.KSPuzzle;
+
+/**
+ * A solver for Killer Sudoku that encodes the puzzle as an exact cover
+ * problem and solves it with Knuth's Algorithm X on dancing links (DLX).
+ * <p>
+ * The primary columns of the exact cover matrix are:
+ * <ul>
+ * <li>each cell is filled;</li>
+ * <li>each row, column, and nonet contains each digit;</li>
+ * <li>each cage picks one combination of digits with the right sum
+ *   and length;</li>
+ * <li>each cage accounts for each digit, either by a cell holding it,
+ *   or by a combination that excludes it.</li>
+ * </ul>
+ * A matrix row either places a digit in a cell, or picks a combination
+ * for a cage. Cells that are already filled get only the placement
+ * of their current digit.
+ * <p>
+ * The solver leaves the puzzle unchanged while searching;
+ * once a solution is found, it fills the empty cells with
+ * {@link SetCommand}s, which are recorded in {@code commands}.
+ */
+public class DancingLinksSolver extends AbstractSolver {
+
+    /** Number of cells. */
+    private static final int CELLS = KSConstraints.CELLS;
+
+    /** Number of digits. */
+    private static final int DIGITS = KSConstraints.DIGITS;
+
+    /** First column for "row has digit". */
+    private static final int ROW_DIGIT_COLUMNS = CELLS;
+
+    /** First column for "column has digit". */
+    private static final int COLUMN_DIGIT_COLUMNS = ROW_DIGIT_COLUMNS + CELLS;
+
+    /** First column for "nonet has digit". */
+    private static final int NONET_DIGIT_COLUMNS = COLUMN_DIGIT_COLUMNS + CELLS;
+
+    /** First column for the cages; each cage has a combination column and 9 digit columns. */
+    private static final int CAGE_COLUMNS = NONET_DIGIT_COLUMNS + CELLS;
+
+    /** Number of columns per cage. */
+    private static final int CAGE_STRIDE = DIGITS + 1;
+
+    /** The root of the column header list. */
+    private static final int ROOT = 0;
+
+    // Dancing links, one entry per node; nodes 1..columnCount are column headers
+    /** Left neighbor of each node. */
+    private int[] left;
+
+    /** Right neighbor of each node. */
+    private int[] right;
+
+    /** Upper neighbor of each node. */
+    private int[] up;
+
+    /** Lower neighbor of each node. */
+    private int[] down;
+
+    /** Column header of each node. */
+    private int[] header;
+
+    /** Matrix row of each node; -1 for headers. */
+    private int[] rowOf;
+
+    /** Number of nodes in each column, indexed by header node. */
+    private int[] size;
+
+    /** Number of nodes in use. */
+    private int nodesInUse;
+
+    /** Cell index of each matrix row; -1 for combination rows. */
+    private final List<Integer> rowCells = new ArrayList<>();
+
+    /** Digit of each matrix row; 0 for combination rows. */
+    private final List<Integer> rowDigits = new ArrayList<>();
+
+    /** The matrix rows of the partial solution. */
+    private int[] selected;
+
+    /**
+     * Constructs a dancing links solver for a given puzzle.
+     *
+     * @param puzzle  the puzzle
+     * @throws IllegalArgumentException  if {@code puzzle == null}
+     * @pre {@code puzzle != null}
+     */
+    public DancingLinksSolver(final KSPuzzle puzzle) {
+        super(puzzle);
+    }
+
+    @Override
+    public boolean solve() {
+        if (!timed(() -> buildMatrix() && search(0))) {
+            return false;
+        }
+
+        for (int row : selected) {
+            if (row < 0 || rowCells.get(row) < 0) {
+                continue;
+            }
+            final int index = rowCells.get(row);
+            final KSCell cell = puzzle.getCell(index / KSGrid.COLS, index % KSGrid.COLS);
+            if (cell.getValue() == KSCell.EMPTY) {
+                final Command command = new SetCommand(cell, rowDigits.get(row));
+                command.execute();
+                commands.push(command);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Builds the exact cover matrix for the current state of the puzzle.
+     *
+     * @return false if some cage has no combination at all, true otherwise
+     */
+    private boolean buildMatrix() {
+        // group the cells by cage, in order of first appearance
+        final int[] cageOf = new int[CELLS];
+        final List<Integer> groups = new ArrayList<>();
+        final List<Integer> sizes = new ArrayList<>();
+        for (int i = 0; i < CELLS; i++) {
+            final int group = cellAt(i).getGroup();
+            int cage = groups.indexOf(group);
+            if (cage < 0) {
+                cage = groups.size();
+                groups.add(group);
+                sizes.add(0);
+            }
+            sizes.set(cage, sizes.get(cage) + 1);
+            cageOf[i] = cage;
+        }
+
+        // the digit combinations of each cage
+        final List<int[]> combinations = new ArrayList<>();
+        final int[] allowed = new int[groups.size()];
+        int combinationNodes = 0;
+        for (int cage = 0; cage < groups.size(); cage++) {
+            final int cageSum = puzzle.getConstraints()
+                .getTarget(KSConstraints.cageUnit(groups.get(cage)));
+            final int[] masks = CombinationTable.getCombinations(cageSum, sizes.get(cage));
+            if (masks.length == 0) {
+                return false;
+            }
+            for (int mask : masks) {
+                allowed[cage] |= mask;
+            }
+            combinationNodes += masks.length * (1 + DIGITS - sizes.get(cage));
+            combinations.add(masks);
+        }
+
+        final int columnCount = CAGE_COLUMNS + groups.size() * CAGE_STRIDE;
+        initHeaders(columnCount, 1 + columnCount + CELLS * DIGITS * 5 + combinationNodes);
+        addPlacementRows(cageOf, allowed);
+        addCombinationRows(combinations);
+        selected = new int[CELLS + groups.size()];
+        return true;
+    }
+
+    /**
+     * Allocates the links and creates the column headers, in a circular
+     * list with the root.
+     *
+     * @param columnCount  the number of columns
+     * @param capacity  the total number of nodes
+     */
+    private void initHeaders(final int columnCount, final int capacity) {
+        left = new int[capacity];
+        right = new int[capacity];
+        up = new int[capacity];
+        down = new int[capacity];
+        header = new int[capacity];
+        rowOf = new int[capacity];
+        size = new int[capacity];
+        rowCells.clear();
+        rowDigits.clear();
+
+        for (int node = ROOT; node <= columnCount; node++) {
+            left[node] = node == ROOT ? columnCount : node - 1;
+            right[node] = node == columnCount ? ROOT : node + 1;
+            up[node] = node;
+            down[node] = node;
+            header[node] = node;
+            rowOf[node] = -1;
+        }
+        nodesInUse = columnCount + 1;
+    }
+
+    /**
+     * Adds a row for each digit that can be placed in each cell.
+     *
+     * @param cageOf  the cage of each cell
+     * @param allowed  per cage, the digits occurring in some combination
+     */
+    private void addPlacementRows(final int[] cageOf, final int[] allowed) {
+        for (int i = 0; i < CELLS; i++) {
+            final int value = cellAt(i).getValue();
+            final int rowIndex = i / KSGrid.COLS;
+            final int colIndex = i % KSGrid.COLS;
+            final int nonet = KSConstraints.nonetIndex(rowIndex, colIndex);
+            final int cage = cageOf[i];
+            for (int digit = 1; digit <= DIGITS; digit++) {
+                final boolean fits = value == KSCell.EMPTY || value == digit;
+                if (!fits || (allowed[cage] & KSConstraints.bit(digit)) == 0) {
+                    continue;
+                }
+                addRow(i, digit, new int[] {
+                    i,
+                    ROW_DIGIT_COLUMNS + rowIndex * DIGITS + digit - 1,
+                    COLUMN_DIGIT_COLUMNS + colIndex * DIGITS + digit - 1,
+                    NONET_DIGIT_COLUMNS + nonet * DIGITS + digit - 1,
+                    CAGE_COLUMNS + cage * CAGE_STRIDE + digit,
+                });
+            }
+        }
+    }
+
+    /**
+     * Adds a row for each combination of each cage, which picks the
+     * combination and accounts for the digits it excludes.
+     *
+     * @param combinations  per cage, the masks of its combinations
+     */
+    private void addCombinationRows(final List<int[]> combinations) {
+        for (int cage = 0; cage < combinations.size(); cage++) {
+            for (int mask : combinations.get(cage)) {
+                final int[] columns = new int[1 + DIGITS - Integer.bitCount(mask)];
+                int k = 0;
+                columns[k++] = CAGE_COLUMNS + cage * CAGE_STRIDE;
+                for (int digit = 1; digit <= DIGITS; digit++) {
+                    if ((mask & KSConstraints.bit(digit)) == 0) {
+                        columns[k++] = CAGE_COLUMNS + cage * CAGE_STRIDE + digit;
+                    }
+                }
+                addRow(-1, 0, columns);
+            }
+        }
+    }
+
+    /**
+     * Appends a row to the matrix.
+     *
+     * @param cell  index of the cell of a placement row, or -1
+     * @param digit  digit of a placement row, or 0
+     * @param columns  the columns covered by the row, 0-based
+     */
+    private void addRow(final int cell, final int digit, final int[] columns) {
+        final int row = rowCells.size();
+        rowCells.add(cell);
+        rowDigits.add(digit);
+        final int first = nodesInUse;
+        for (int column : columns) {
+            final int node = nodesInUse++;
+            final int head = column + 1;
+            header[node] = head;
+            rowOf[node] = row;
+            // insert at the bottom of the column
+            up[node] = up[head];
+            down[node] = head;
+            down[up[head]] = node;
+            up[head] = node;
+            size[head]++;
+            // insert at the end of the row
+            left[node] = node == first ? node : nodesInUse - 2;
+            right[node] = first;
+            right[left[node]] = node;
+            left[first] = node;
+        }
+    }
+
+    /**
+     * Searches for an exact cover of the remaining columns.
+     *
+     * @param depth  number of rows selected so far
+     * @return whether an exact cover was found; if so, it is in {@code selected}
+     */
+    private boolean search(final int depth) {
+        if (isCancelled()) {
+            return false;
+        }
+        if (right[ROOT] == ROOT) {
+            for (int i = depth; i < selected.length; i++) {
+                selected[i] = -1;
+            }
+            return true;
+        }
+
+        final int column = smallestColumn();
+        if (size[column] == 0) {
+            return false;
+        }
+
+        cover(column);
+        maxDepth = Math.max(maxDepth, depth + 1);
+        for (int node = down[column]; node != column; node = down[node]) {
+            selected[depth] = rowOf[node];
+            nodeCount++;
+            for (int j = right[node]; j != node; j = right[j]) {
+                cover(header[j]);
+            }
+            if (search(depth + 1)) {
+                return true;
+            }
+            for (int j = left[node]; j != node; j = left[j]) {
+                uncover(header[j]);
+            }
+            backtrackCount++;
+        }
+        uncover(column);
+        return false;
+    }
+
+    /**
+     * Gets the remaining column with the fewest rows.
+     *
+     * @return header node of the smallest column
+     * @pre {@code right[ROOT] != ROOT}
+     */
+    private int smallestColumn() {
+        int column = right[ROOT];
+        for (int c = right[column]; c != ROOT; c = right[c]) {
+            if (size[c] < size[column]) {
+                column = c;
+            }
+        }
+        return column;
+    }
+
+    /**
+     * Removes a column and all rows intersecting it from the matrix.
+     *
+     * @param column  the header node of the column
+     */
+    private void cover(final int column) {
+        right[left[column]] = right[column];
+        left[right[column]] = left[column];
+        for (int i = down[column]; i != column; i = down[i]) {
+            for (int j = right[i]; j != i; j = right[j]) {
+                down[up[j]] = down[j];
+                up[down[j]] = up[j];
+                size[header[j]]--;
+            }
+        }
+    }
+
+    /**
+     * Restores a column removed by {@link #cover(int)}.
+     *
+     * @param column  the header node of the column
+     */
+    private void uncover(final int column) {
+        for (int i = up[column]; i != column; i = up[i]) {
+            for (int j = left[i]; j != i; j = left[j]) {
+                size[header[j]]++;
+                down[up[j]] = j;
+                up[down[j]] = j;
+            }
+        }
+        right[left[column]] = column;
+        left[right[column]] = column;
+    }
+
+    /**
+     * Gets the cell with a given row-major index.
+     *
+     * @param index  the index
+     * @return the cell at {@code index}
+     */
+    private KSCell cellAt(final int index) {
+        return puzzle.getCell(index / KSGrid.COLS, index % KSGrid.COLS);
+    }
+}
@@ -0,0 +1,238 @@
+package ypa.solvers;
+
+import ypa.command.CompoundCommand;
+import ypa.command.SetCommand;
+import ypa.model.KSCell;
+import ypa.model.KSConstraints;
+import ypa.model.KSPuzzle;
+import ypa.reasoning.Reasoner;
+
+/**
+ * A backtracking solver for Killer Sudoku that searches without recursion.
+ * It explores the same search tree as {@link BacktrackSolver} with the same
+ * reasoner and cell selector, but keeps its decisions on its own stack,
+ * with one entry per cell of the grid, allocated once per solver.
+ * <p>
+ * While searching, digits are put in cells directly, without creating
+ * a {@link SetCommand} for every digit tried. Only once a solution is found,
+ * a command is made for each decision on the path to it. Thus, apart from
+ * what the reasoner and the cell selector allocate, searching does not
+ * allocate at all.
+ * <p>
+ * As for {@link BacktrackSolver}, a reasoner can be injected via the
+ * constructor; if not null, it is applied before each decision.
+ * The work is counted as by {@link BacktrackSolver}, so that the statistics
+ * of both solvers can be compared.
+ */
+public class IterativeBacktrackSolver extends AbstractSolver {
+
+    /** The strategy to apply before speculating; null if no reasoner. */
+    private final Reasoner reasoner;
+
+    /** The strategy to choose the next empty cell. */
+    private final CellSelector selector;
+
+    /** The cell of each decision on the stack. */
+    private final KSCell[] cells;
+
+    /** The feasible candidates of each decision. */
+    private final int[] candidates;
+
+    /** The next digit to consider for each decision. */
+    private final int[] next;
+
+    /** The commands of the reasoner before each decision; null if none. */
+    private final CompoundCommand[] reasoned;
+
+    /* Rep. invariant:
+     *  reasoner != null ==> reasoner.puzzle == this.puzzle
+     *  cells.length == candidates.length == next.length == reasoned.length - 1
+     *      == number of cells of puzzle
+     */
+
+    /**
+     * Constructs an iterative backtracking solver for a given puzzle,
+     * with a given cell selection strategy.
+     *
+     * @param puzzle  the puzzle
+     * @param reasoner  the reasoner to apply before speculating, or null
+     * @param selector  the strategy to choose the next empty cell
+     * @throws IllegalArgumentException  if {@code puzzle == null || selector == null}
+     * @pre {@code puzzle != null && selector != null}
+     */
+    public IterativeBacktrackSolver(final KSPuzzle puzzle, final Reasoner reasoner,
+            final CellSelector selector) {
+        super(puzzle);
+        if (selector == null) {
+            throw new IllegalArgumentException(this.getClass().getSimpleName()
+                    + "().pre failed: selector == null");
+        }
+        this.reasoner = reasoner;
+        this.selector = selector;
+        final int size = puzzle.getRowCount() * puzzle.getColumnCount();
+        this.cells = new KSCell[size];
+        this.candidates = new int[size];
+        this.next = new int[size];
+        this.reasoned = new CompoundCommand[size + 1];
+    }
+
+    @Override
+    public boolean solve() {
+        return timed(this::search);
+    }
+
+    /**
+     * Searches for a solution from the current state of the puzzle.
+     *
+     * @return whether puzzle was solved
+     * @modifies {@code puzzle}
+     * @post {@code
+     *      (\result && puzzle.isSolved()) || (! \result && puzzle unchanged)}
+     */
+    private boolean search() {
+        int depth = 0;
+        boolean descend = true;
+        while (depth >= 0) {
+            if (isCancelled()) {
+                // when not descending, the decision at depth is in effect
+                unwind(descend ? depth : depth + 1);
+                return false;
+            }
+            if (descend) {
+                final int result = open(depth);
+                if (result > 0) {
+                    record(depth);
+                    return true;
+                }
+                if (result < 0) {
+                    // not solvable below the previous decision
+                    depth--;
+                    descend = false;
+                    continue;
+                }
+            }
+            if (tryNext(depth)) {
+                depth++;
+                descend = true;
+            } else {
+                // all candidates tried; undo the reasoning before this decision
+                revertReasoned(depth);
+                depth--;
+                descend = false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Opens a decision: applies the reasoner, and selects an empty cell.
+     *
+     * @param depth  the number of decisions in effect
+     * @return 1 if the puzzle is solved, -1 if the reasoner found
+     *   a contradiction, and 0 if a decision was pushed
+     * @modifies {@code puzzle}, the stack at {@code depth}
+     */
+    private int open(final int depth) {
+        reasoned[depth] = null;
+        if (reasoner != null) {
+            final CompoundCommand compound = reasoner.apply();
+            reasonerInvocationCount++;
+            if (compound == null) {
+                return -1;
+            }
+            reasonerYield += compound.size();
+            reasoned[depth] = compound;
+        }
+        final KSCell cell = selector.select(puzzle);
+        if (cell == null) {
+            return 1;
+        }
+        cells[depth] = cell;
+        candidates[depth] = puzzle.getConstraints().getFeasibleCandidates(cell);
+        next[depth] = puzzle.getMinNumber();
+        return 0;
+    }
+
+    /**
+     * Puts the next candidate that is valid in the cell of a decision.
+     * As in {@link BacktrackSolver}, every digit from the minimum to the
+     * maximum number counts as a candidate check.
+     *
+     * @param depth  the index of the decision on the stack
+     * @return whether a candidate was put in the cell; if not, the cell is empty
+     * @modifies {@code puzzle}, the stack at {@code depth}
+     */
+    private boolean tryNext(final int depth) {
+        final KSCell cell = cells[depth];
+        if (cell.getValue() != KSCell.EMPTY) {
+            // the previous candidate led nowhere
+            cell.setState(KSCell.EMPTY);
+            backtrackCount++;
+        }
+        while (next[depth] <= puzzle.getMaxNumber()) {
+            final int digit = next[depth]++;
+            candidateCheckCount++;
+            if ((candidates[depth] & KSConstraints.bit(digit)) == 0) {
+                continue;
+            }
+            cell.setState(digit);
+            nodeCount++;
+            maxDepth = Math.max(maxDepth, depth + 1);
+            if (puzzle.isValid(cell)) {
+                return true;
+            }
+            cell.setState(KSCell.EMPTY);
+            backtrackCount++;
+        }
+        return false;
+    }
+
+    /**
+     * Reverts the reasoning before a decision, if any.
+     *
+     * @param depth  the index of the decision on the stack
+     * @modifies {@code puzzle}
+     */
+    private void revertReasoned(final int depth) {
+        if (reasoned[depth] != null) {
+            reasoned[depth].revert();
+            reasoned[depth] = null;
+        }
+    }
+
+    /**
+     * Undoes all decisions and reasoning on the stack.
+     *
+     * @param depth  the number of decisions in effect, with their reasoning
+     * @modifies {@code puzzle}
+     */
+    private void unwind(final int depth) {
+        for (int d = depth - 1; d >= 0; d--) {
+            cells[d].setState(KSCell.EMPTY);
+            revertReasoned(d);
+        }
+    }
+
+    /**
+     * Records the commands that lead from the initial state to the solution:
+     * the reasoning and the decision at each level, in order.
+     *
+     * @param depth  the number of decisions in effect
+     * @modifies {@code commands}
+     */
+    private void record(final int depth) {
+        for (int d = 0; d <= depth; d++) {
+            if (reasoned[d] != null) {
+                commands.push(reasoned[d]);
+            }
+            if (d < depth) {
+                final int digit = cells[d].getValue();
+                // redo the decision as a command, so that it can be reverted
+                cells[d].setState(KSCell.EMPTY);
+                final SetCommand command = new SetCommand(cells[d], digit);
+                command.execute();
+                commands.push(command);
+            }
+        }
+    }
+}
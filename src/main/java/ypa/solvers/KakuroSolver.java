@@ -0,0 +1,240 @@
+package ypa.solvers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Stack;
+
+import ypa.command.Command;
+import ypa.command.KakuroSetCommand;
+import ypa.model.CombinationTable;
+import ypa.model.Direction;
+import ypa.model.KCell;
+import ypa.model.KEntry;
+import ypa.model.KPuzzle;
+import ypa.model.KSConstraints;
+
+/**
+ * A recursive backtracking solver for Kakuro.
+ * <p>
+ * The candidates of an empty cell are the digits that each of its two
+ * entries can still use: for an entry with remaining sum {@code s},
+ * {@code n} empty cells, and digits {@code used} filled in already,
+ * these are the digits occurring in some combination of {@code n}
+ * distinct digits that sum to {@code s} and avoid {@code used}, as given by
+ * {@link KEntry#getCandidates()}. Each candidate keeps every entry of the cell
+ * completable, so a filled-in grid is solved.
+ * <p>
+ * At each search node, the solver speculates on an empty cell with the
+ * fewest candidates, and backtracks as soon as some empty cell has none.
+ * Like the solvers of Killer Sudoku puzzles (see {@link AbstractSolver}),
+ * it records the commands that led to the solution, and counts its work;
+ * it does not measure CPU time.
+ * <p>
+ * Only digits 1 through {@link CombinationTable#DIGITS} are placed, within
+ * the range of the puzzle's minimum and maximum number.
+ */
+public class KakuroSolver {
+
+    /** The puzzle being solved. */
+    private final KPuzzle puzzle;
+
+    /** The non-blocked cells of the puzzle. */
+    private final List<KCell> cells = new ArrayList<>();
+
+    /** Commands executed. */
+    private final Stack<Command> commands = new Stack<>();
+
+    /** Whether the solver was asked to stop, possibly from another thread. */
+    private volatile boolean cancelled;
+
+    /** The number of search nodes visited. */
+    private long nodeCount;
+
+    /** The maximum search depth reached. */
+    private int maxDepth;
+
+    /** The number of speculative placements undone. */
+    private long backtrackCount;
+
+    /** The number of digits considered for empty cells. */
+    private long candidateCheckCount;
+
+    /** The wall-clock time spent solving, in ns. */
+    private long wallTime;
+
+    /**
+     * Constructs a solver for a given puzzle.
+     *
+     * @param puzzle  the puzzle
+     * @throws IllegalArgumentException  if {@code puzzle == null}
+     * @pre {@code puzzle != null}
+     */
+    public KakuroSolver(final KPuzzle puzzle) {
+        if (puzzle == null) {
+            throw new IllegalArgumentException(this.getClass().getSimpleName()
+                    + "().pre failed: puzzle == null");
+        }
+        this.puzzle = puzzle;
+        for (KCell cell : puzzle.getCells()) {
+            if (cell.isBlocked()) {
+                continue;
+            }
+            cells.add(cell);
+        }
+    }
+
+    /**
+     * Gets the commands whose execution led to current puzzle state.
+     *
+     * @return commands executed to get to current puzzle state
+     */
+    public Collection<Command> getCommands() {
+        return commands;
+    }
+
+    /**
+     * Gets the number of search nodes visited, that is, the number of digits
+     * placed speculatively.
+     *
+     * @return number of digits placed speculatively so far
+     */
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Gets a snapshot of the work done so far, over all calls of
+     * {@link #solve()}. There is no reasoner, and CPU time is not measured.
+     *
+     * @return the current values of the counters
+     */
+    public SolverStatistics getStatistics() {
+        return new SolverStatistics(nodeCount, maxDepth, backtrackCount,
+            candidateCheckCount, 0, 0, wallTime, 0);
+    }
+
+    /**
+     * Asks the solver to stop, as {@link AbstractSolver#cancel()} does.
+     *
+     * @modifies {@code this}
+     * @post {@code isCancelled()}
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Gets whether the solver was asked to stop.
+     *
+     * @return whether {@link #cancel()} was called
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Either finds one solution of the puzzle from its current state,
+     * if solvable, or leaves the puzzle unchanged.
+     *
+     * @return whether puzzle was solved
+     * @modifies {@code puzzle}
+     * @post {@code
+     *      (\result && puzzle.isSolved()) || (! \result && puzzle unchanged)}
+     */
+    public boolean solve() {
+        final long start = System.nanoTime();
+        try {
+            return puzzle.isValid() && solve(0);
+        } finally {
+            wallTime += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Solves the puzzle from its current state, below a given number of
+     * speculative placements.
+     *
+     * @param depth  the number of digits placed speculatively so far
+     * @return whether puzzle was solved
+     * @pre puzzle is valid
+     * @modifies {@code puzzle}
+     * @post {@code
+     *      (\result && puzzle.isSolved()) || (! \result && puzzle unchanged)}
+     */
+    private boolean solve(final int depth) {
+        if (cancelled) {
+            return false;
+        }
+        final int best = select();
+        if (best < 0) {
+            // no more empty cells
+            return true;
+        }
+        // no candidates means a dead end
+        final int bestCandidates = getCandidates(best);
+        final KCell cell = cells.get(best);
+        for (int state = puzzle.getMinNumber(); state <= puzzle.getMaxNumber(); ++state) {
+            candidateCheckCount++;
+            if (state > CombinationTable.DIGITS
+                    || (bestCandidates & KSConstraints.bit(state)) == 0) {
+                continue;
+            }
+            final Command command = new KakuroSetCommand(cell, state);
+            command.execute();
+            nodeCount++;
+            maxDepth = Math.max(maxDepth, depth + 1);
+            commands.push(command);
+            if (solve(depth + 1)) {
+                return true;
+            }
+            commands.pop();
+            command.revert();
+            backtrackCount++;
+        }
+        return false;
+    }
+
+    /**
+     * Selects an empty cell with the fewest candidates. The search stops at
+     * a cell with at most one candidate, which is forced or a dead end.
+     *
+     * @return index in {@code cells} of an empty cell with the fewest
+     *   candidates, or -1 if there are no empty cells
+     */
+    private int select() {
+        int result = -1;
+        int resultCount = Integer.MAX_VALUE;
+        for (int i = 0; i < cells.size() && resultCount > 1; i++) {
+            if (cells.get(i).isEmpty()) {
+                final int count = Integer.bitCount(getCandidates(i));
+                if (count < resultCount) {
+                    result = i;
+                    resultCount = count;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the digits that can be put in an empty cell, keeping each of its
+     * entries completable.
+     *
+     * @param index  the index of the cell in {@code cells}
+     * @return mask with bit {@code d - 1} set iff digit {@code d} is a candidate
+     * @pre {@code cells.get(index).isEmpty()}
+     */
+    private int getCandidates(final int index) {
+        final KCell cell = cells.get(index);
+        int result = KSConstraints.ALL_DIGITS;
+        for (Direction direction : Direction.values()) {
+            final KEntry entry = cell.getEntry(direction);
+            if (entry != null) {
+                result &= entry.getCandidates();
+            }
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,279 @@
+package ypa.solvers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import ypa.command.Command;
+import ypa.command.SetCommand;
+import ypa.model.KSCell;
+import ypa.model.KSCompactGrid;
+import ypa.model.KSConstraints;
+import ypa.model.KSGrid;
+import ypa.model.KSPuzzle;
+
+/**
+ * A backtracking solver for Killer Sudoku that searches in parallel.
+ * The first {@code splitDepth} branching decisions of the search tree are
+ * split into {@link ForkJoinPool} tasks, one per candidate digit;
+ * below that depth each task backtracks sequentially.
+ * Every task works on its own {@link KSCompactGrid} copy, so the puzzle
+ * itself is not touched while searching.
+ * As soon as one task finds a solution, the others stop.
+ * <p>
+ * Cells are chosen by minimum remaining values, over candidates that also
+ * fit the cage sums. Once a solution is found, the empty cells of the
+ * puzzle are filled with {@link SetCommand}s, which are recorded in
+ * {@code commands}.
+ * <p>
+ * The tasks count their work in shared adders, which
+ * {@link #getStatistics()} sums. Its CPU time is the sum of the CPU time
+ * the tasks spend searching and forking, measured on the threads of the pool;
+ * the calling thread, which mostly waits, is not included.
+ * There is no reasoner, so the reasoner counters are 0.
+ */
+public class ParallelBacktrackSolver extends AbstractSolver {
+
+    /** Default number of branching decisions that are split into tasks. */
+    public static final int DEFAULT_SPLIT_DEPTH = 3;
+
+    /** The number of branching decisions split into tasks. */
+    private final int splitDepth;
+
+    /** The pool to run the tasks in. */
+    private final ForkJoinPool pool;
+
+    /** Whether some task found a solution. */
+    private final AtomicBoolean found = new AtomicBoolean();
+
+    /** The number of digits placed speculatively, over all tasks. */
+    private final LongAdder nodeAdder = new LongAdder();
+
+    /** The maximum search depth reached, over all tasks. */
+    private final LongAccumulator depthMax = new LongAccumulator(Math::max, 0);
+
+    /** The number of speculative placements undone, over all tasks. */
+    private final LongAdder backtrackAdder = new LongAdder();
+
+    /** The number of digits considered for empty cells, over all tasks. */
+    private final LongAdder checkAdder = new LongAdder();
+
+    /** The CPU time spent by the tasks, in ns. */
+    private final LongAdder cpuAdder = new LongAdder();
+
+    /**
+     * Constructs a parallel solver for a given puzzle, splitting the first
+     * {@link #DEFAULT_SPLIT_DEPTH} decisions, in the common pool.
+     *
+     * @param puzzle  the puzzle
+     * @throws IllegalArgumentException  if {@code puzzle == null}
+     * @pre {@code puzzle != null}
+     */
+    public ParallelBacktrackSolver(final KSPuzzle puzzle) {
+        this(puzzle, DEFAULT_SPLIT_DEPTH, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a parallel solver for a given puzzle.
+     *
+     * @param puzzle  the puzzle
+     * @param splitDepth  the number of branching decisions split into tasks
+     * @param pool  the pool to run the tasks in
+     * @throws IllegalArgumentException  if precondition is violated
+     * @pre {@code puzzle != null && 0 <= splitDepth && pool != null}
+     */
+    public ParallelBacktrackSolver(final KSPuzzle puzzle, final int splitDepth,
+            final ForkJoinPool pool) {
+        super(puzzle);
+        if (splitDepth < 0) {
+            throw new IllegalArgumentException(this.getClass().getSimpleName()
+                    + "().pre failed: splitDepth == " + splitDepth + " < 0");
+        }
+        if (pool == null) {
+            throw new IllegalArgumentException(this.getClass().getSimpleName()
+                    + "().pre failed: pool == null");
+        }
+        this.splitDepth = splitDepth;
+        this.pool = pool;
+    }
+
+    /**
+     * Gets the number of search nodes visited by all tasks, that is,
+     * the number of digits placed speculatively.
+     *
+     * @return number of digits placed speculatively so far
+     */
+    @Override
+    public long getNodeCount() {
+        return nodeAdder.sum();
+    }
+
+    /**
+     * Gets a snapshot of the work done so far by all tasks, over all calls
+     * of {@link #solve()}. The CPU time is that of the tasks, not that of
+     * the calling thread.
+     *
+     * @return the current values of the counters
+     */
+    @Override
+    public SolverStatistics getStatistics() {
+        return new SolverStatistics(nodeAdder.sum(), (int) depthMax.get(),
+            backtrackAdder.sum(), checkAdder.sum(), 0, 0,
+            super.getStatistics().wallTime(), cpuAdder.sum());
+    }
+
+    @Override
+    public boolean solve() {
+        final KSCompactGrid grid = puzzle.toCompactGrid();
+        if (!grid.isConsistent()) {
+            return false;
+        }
+        found.set(false);
+        final KSCompactGrid solution = timed(() -> pool.invoke(new SearchTask(grid, 0)));
+        if (solution == null) {
+            return false;
+        }
+
+        for (int i = 0; i < KSConstraints.CELLS; i++) {
+            final KSCell cell = puzzle.getCell(i / KSGrid.COLS, i % KSGrid.COLS);
+            if (cell.getValue() == KSCell.EMPTY) {
+                final Command command = new SetCommand(cell, solution.get(i));
+                command.execute();
+                commands.push(command);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Searches sequentially for a completion of a grid.
+     *
+     * @param grid  the grid to complete
+     * @param depth  the number of digits placed in {@code grid} by the search
+     * @return whether {@code grid} was completed; if not, it is unchanged
+     * @modifies {@code grid}
+     */
+    private boolean search(final KSCompactGrid grid, final int depth) {
+        if (found.get() || isCancelled()) {
+            return false;
+        }
+        final int index = grid.mostConstrained();
+        if (index < 0) {
+            return true;
+        }
+        final int candidates = grid.getCandidates(index);
+        for (int digit = 1; digit <= KSConstraints.DIGITS; digit++) {
+            checkAdder.increment();
+            if ((candidates & KSConstraints.bit(digit)) == 0) {
+                continue;
+            }
+            grid.set(index, digit);
+            nodeAdder.increment();
+            depthMax.accumulate(depth + 1);
+            if (search(grid, depth + 1)) {
+                return true;
+            }
+            grid.clear(index);
+            backtrackAdder.increment();
+        }
+        return false;
+    }
+
+    /**
+     * Task that searches for a completion of its own grid,
+     * forking a subtask per candidate while above the split depth.
+     */
+    private final class SearchTask extends RecursiveTask<KSCompactGrid> {
+
+        /** The grid to complete, owned by this task. */
+        private final KSCompactGrid grid;
+
+        /** The number of branching decisions above this task. */
+        private final int depth;
+
+        /**
+         * Constructs a task for a given grid.
+         *
+         * @param grid  the grid, which is not shared with other tasks
+         * @param depth  the number of branching decisions above this task
+         */
+        SearchTask(final KSCompactGrid grid, final int depth) {
+            this.grid = grid;
+            this.depth = depth;
+        }
+
+        @Override
+        protected KSCompactGrid compute() {
+            final long cpuStart = currentCpuTime();
+            if (depth >= splitDepth) {
+                final boolean solved = search(grid, depth);
+                cpuAdder.add(currentCpuTime() - cpuStart);
+                return solved && found.compareAndSet(false, true) ? grid : null;
+            }
+            if (found.get() || ParallelBacktrackSolver.this.isCancelled()) {
+                return null;
+            }
+            final int index = grid.mostConstrained();
+            if (index < 0) {
+                return found.compareAndSet(false, true) ? grid : null;
+            }
+
+            final List<SearchTask> tasks = forkBranches(index);
+            // joining may run other tasks on this thread, which count their own time
+            cpuAdder.add(currentCpuTime() - cpuStart);
+            return joinFirst(tasks);
+        }
+
+        /**
+         * Forks a subtask for each candidate of a cell.
+         *
+         * @param index  the index of the empty cell to branch on
+         * @return the forked subtasks
+         */
+        private List<SearchTask> forkBranches(final int index) {
+            final int candidates = grid.getCandidates(index);
+            final List<SearchTask> tasks = new ArrayList<>();
+            for (int digit = 1; digit <= KSConstraints.DIGITS; digit++) {
+                checkAdder.increment();
+                if ((candidates & KSConstraints.bit(digit)) != 0) {
+                    final KSCompactGrid copy = new KSCompactGrid(grid);
+                    copy.set(index, digit);
+                    nodeAdder.increment();
+                    depthMax.accumulate(depth + 1);
+                    final SearchTask task = new SearchTask(copy, depth + 1);
+                    task.fork();
+                    tasks.add(task);
+                }
+            }
+            return tasks;
+        }
+
+        /**
+         * Joins subtasks until one of them returns a solution,
+         * and cancels the others.
+         *
+         * @param tasks  the forked subtasks
+         * @return the first solution found, or null if none
+         */
+        private KSCompactGrid joinFirst(final List<SearchTask> tasks) {
+            KSCompactGrid result = null;
+            for (SearchTask task : tasks) {
+                if (result != null) {
+                    // a solution is in; the remaining tasks need not run
+                    task.cancel(false);
+                } else {
+                    result = task.join();
+                    if (result == null) {
+                        // the subtask's placement led nowhere
+                        backtrackAdder.increment();
+                    }
+                }
+            }
+            return result;
+        }
+    }
+}
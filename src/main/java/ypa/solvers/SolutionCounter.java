@@ -0,0 +1,344 @@
+package ypa.solvers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import ypa.model.KSCompactGrid;
+import ypa.model.KSConstraints;
+import ypa.model.KSPuzzle;
+
+/**
+ * Counts the solutions of a Killer Sudoku puzzle, from its current state,
+ * up to a given limit. With limit 2, this tells whether a puzzle has
+ * no solution, exactly one, or more than one.
+ * <p>
+ * The search is that of {@link ParallelBacktrackSolver}: it works on
+ * {@link KSCompactGrid} copies, choosing cells by minimum remaining values,
+ * and splits the first {@code splitDepth} branching decisions into
+ * {@link ForkJoinPool} tasks. Unlike a solver, it continues after
+ * a solution, does not record commands, and leaves the puzzle unchanged.
+ * As soon as the limit is reached, all tasks stop.
+ * <p>
+ * Each task counts its nodes locally, and adds them to the shared node
+ * count every {@link #CHECK_INTERVAL} nodes, when it also checks the node
+ * limit; hence, the node limit may be exceeded by that many nodes per task.
+ */
+public class SolutionCounter {
+
+    /** Default number of branching decisions that are split into tasks. */
+    public static final int DEFAULT_SPLIT_DEPTH = ParallelBacktrackSolver.DEFAULT_SPLIT_DEPTH;
+
+    /** The number of nodes a task visits between checks of the node limit. */
+    static final int CHECK_INTERVAL = 256;
+
+    /** The puzzle whose solutions are counted; null if counting for a grid. */
+    private final KSPuzzle puzzle;
+
+    /** The grid whose solutions are counted; null if counting for a puzzle. */
+    private final KSCompactGrid grid;
+
+    /** The number of solutions at which counting stops. */
+    private final int limit;
+
+    /** The number of branching decisions split into tasks. */
+    private final int splitDepth;
+
+    /** The pool to run the tasks in. */
+    private final ForkJoinPool pool;
+
+    /** The number of solutions found so far, over all tasks. */
+    private final AtomicInteger count = new AtomicInteger();
+
+    /** The number of digits placed speculatively, over all tasks. */
+    private final LongAdder nodeCount = new LongAdder();
+
+    /** The number of nodes after which counting is given up; 0 if unbounded. */
+    private long nodeLimit;
+
+    /** Whether the last count was given up because of the node limit. */
+    private volatile boolean aborted;
+
+    /**
+     * Constructs a counter for a given puzzle, splitting the first
+     * {@link #DEFAULT_SPLIT_DEPTH} decisions, in the common pool.
+     *
+     * @param puzzle  the puzzle
+     * @param limit  the number of solutions at which to stop counting
+     * @throws IllegalArgumentException  if precondition is violated
+     * @pre {@code puzzle != null && 1 <= limit}
+     */
+    public SolutionCounter(final KSPuzzle puzzle, final int limit) {
+        this(puzzle, limit, DEFAULT_SPLIT_DEPTH, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a counter for a given puzzle.
+     * With {@code splitDepth == 0}, the count is done sequentially,
+     * in the calling thread.
+     *
+     * @param puzzle  the puzzle
+     * @param limit  the number of solutions at which to stop counting
+     * @param splitDepth  the number of branching decisions split into tasks
+     * @param pool  the pool to run the tasks in
+     * @throws IllegalArgumentException  if precondition is violated
+     * @pre {@code puzzle != null && 1 <= limit && 0 <= splitDepth && pool != null}
+     */
+    public SolutionCounter(final KSPuzzle puzzle, final int limit, final int splitDepth,
+            final ForkJoinPool pool) {
+        this(puzzle, null, limit, splitDepth, pool);
+        if (puzzle == null) {
+            throw new IllegalArgumentException(this.getClass().getSimpleName()
+                    + "().pre failed: puzzle == null");
+        }
+    }
+
+    /**
+     * Constructs a counter for a given compact grid, for instance one that
+     * is being generated, without making a puzzle of it.
+     * The grid itself is not modified.
+     *
+     * @param grid  the grid
+     * @param limit  the number of solutions at which to stop counting
+     * @param splitDepth  the number of branching decisions split into tasks
+     * @param pool  the pool to run the tasks in
+     * @throws IllegalArgumentException  if precondition is violated
+     * @pre {@code grid != null && 1 <= limit && 0 <= splitDepth && pool != null}
+     */
+    public SolutionCounter(final KSCompactGrid grid, final int limit, final int splitDepth,
+            final ForkJoinPool pool) {
+        this(null, grid, limit, splitDepth, pool);
+        if (grid == null) {
+            throw new IllegalArgumentException(this.getClass().getSimpleName()
+                    + "().pre failed: grid == null");
+        }
+    }
+
+    /**
+     * Constructs a counter for a given puzzle or grid.
+     *
+     * @param puzzle  the puzzle, or null
+     * @param grid  the grid, if {@code puzzle == null}
+     * @param limit  the number of solutions at which to stop counting
+     * @param splitDepth  the number of branching decisions split into tasks
+     * @param pool  the pool to run the tasks in
+     * @throws IllegalArgumentException  if precondition is violated
+     * @pre {@code 1 <= limit && 0 <= splitDepth && pool != null}
+     */
+    private SolutionCounter(final KSPuzzle puzzle, final KSCompactGrid grid, final int limit,
+            final int splitDepth, final ForkJoinPool pool) {
+        if (limit < 1) {
+            throw new IllegalArgumentException(this.getClass().getSimpleName()
+                    + "().pre failed: limit == " + limit + " < 1");
+        }
+        if (splitDepth < 0) {
+            throw new IllegalArgumentException(this.getClass().getSimpleName()
+                    + "().pre failed: splitDepth == " + splitDepth + " < 0");
+        }
+        if (pool == null) {
+            throw new IllegalArgumentException(this.getClass().getSimpleName()
+                    + "().pre failed: pool == null");
+        }
+        this.puzzle = puzzle;
+        this.grid = grid;
+        this.limit = limit;
+        this.splitDepth = splitDepth;
+        this.pool = pool;
+    }
+
+    /**
+     * Gets the number of search nodes visited by all tasks, that is,
+     * the number of digits placed speculatively.
+     *
+     * @return number of digits placed speculatively so far
+     */
+    public long getNodeCount() {
+        return nodeCount.sum();
+    }
+
+    /**
+     * Sets the number of search nodes after which counting is given up.
+     * This bounds the time to decide uniqueness, at the price of
+     * not deciding it for some puzzles. The limit is checked every
+     * {@link #CHECK_INTERVAL} nodes of a task.
+     *
+     * @param nodeLimit  the number of nodes, or 0 for no limit
+     * @throws IllegalArgumentException  if {@code nodeLimit < 0}
+     * @modifies {@code this}
+     */
+    public void setNodeLimit(final long nodeLimit) {
+        if (nodeLimit < 0) {
+            throw new IllegalArgumentException(this.getClass().getSimpleName()
+                    + ".setNodeLimit().pre failed: nodeLimit == " + nodeLimit + " < 0");
+        }
+        this.nodeLimit = nodeLimit;
+    }
+
+    /**
+     * Gets whether the last count was given up because the node limit was
+     * exceeded. If so, the count is only a lower bound.
+     *
+     * @return whether the last count was given up
+     */
+    public boolean isAborted() {
+        return aborted;
+    }
+
+    /**
+     * Counts the solutions of the puzzle (or grid) from its current state,
+     * up to the limit.
+     *
+     * @return the number of solutions, or the limit if there are at least
+     *   that many
+     */
+    public int count() {
+        final KSCompactGrid start = puzzle == null
+            ? new KSCompactGrid(grid) : puzzle.toCompactGrid();
+        count.set(0);
+        nodeCount.reset();
+        aborted = false;
+        if (!start.isConsistent()) {
+            return 0;
+        }
+        if (splitDepth == 0) {
+            new CountTask(start, 0).compute();
+        } else {
+            pool.invoke(new CountTask(start, 0));
+        }
+        return Math.min(count.get(), limit);
+    }
+
+    /**
+     * Determines whether the puzzle has exactly one solution
+     * from its current state.
+     *
+     * @return whether the puzzle was found to have exactly one solution,
+     *   within the node limit
+     * @pre {@code limit >= 2}
+     */
+    public boolean isUnique() {
+        return count() == 1 && !aborted;
+    }
+
+    /**
+     * Gets whether enough solutions were found, or counting was given up.
+     *
+     * @return whether the limit was reached, or the node limit exceeded
+     */
+    private boolean done() {
+        return count.get() >= limit || aborted;
+    }
+
+    /**
+     * Task that counts the completions of its own grid,
+     * forking a subtask per candidate while above the split depth.
+     */
+    private final class CountTask extends RecursiveAction {
+
+        /** The grid to complete, owned by this task. */
+        private final KSCompactGrid grid;
+
+        /** The number of branching decisions above this task. */
+        private final int depth;
+
+        /** The number of nodes visited that are not yet in {@code nodeCount}. */
+        private int pending;
+
+        /**
+         * Constructs a task for a given grid.
+         *
+         * @param grid  the grid, which is not shared with other tasks
+         * @param depth  the number of branching decisions above this task
+         */
+        CountTask(final KSCompactGrid grid, final int depth) {
+            this.grid = grid;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            if (depth >= splitDepth) {
+                search(grid);
+                flush();
+                return;
+            }
+            if (done()) {
+                return;
+            }
+            final int index = grid.mostConstrained();
+            if (index < 0) {
+                count.incrementAndGet();
+                return;
+            }
+
+            final int candidates = grid.getCandidates(index);
+            final List<CountTask> tasks = new ArrayList<>();
+            for (int digit = 1; digit <= KSConstraints.DIGITS; digit++) {
+                if ((candidates & KSConstraints.bit(digit)) != 0) {
+                    final KSCompactGrid copy = new KSCompactGrid(grid);
+                    copy.set(index, digit);
+                    visit();
+                    tasks.add(new CountTask(copy, depth + 1));
+                }
+            }
+            flush();
+            invokeAll(tasks);
+        }
+
+        /**
+         * Counts sequentially the completions of a grid.
+         *
+         * @param grid  the grid to complete
+         * @modifies {@code count}; {@code grid} is restored afterwards
+         */
+        private void search(final KSCompactGrid grid) {
+            if (done()) {
+                return;
+            }
+            final int index = grid.mostConstrained();
+            if (index < 0) {
+                count.incrementAndGet();
+                return;
+            }
+            final int candidates = grid.getCandidates(index);
+            for (int digit = 1; digit <= KSConstraints.DIGITS && !done(); digit++) {
+                if ((candidates & KSConstraints.bit(digit)) == 0) {
+                    continue;
+                }
+                grid.set(index, digit);
+                visit();
+                search(grid);
+                grid.clear(index);
+            }
+        }
+
+        /**
+         * Counts a search node, and checks the node limit every
+         * {@link #CHECK_INTERVAL} nodes.
+         *
+         * @modifies {@code pending}, {@code nodeCount}, {@code aborted}
+         */
+        private void visit() {
+            if (++pending == CHECK_INTERVAL) {
+                flush();
+            }
+        }
+
+        /**
+         * Adds the pending nodes to the shared node count, and gives up
+         * when the node limit is exceeded.
+         *
+         * @modifies {@code pending}, {@code nodeCount}, {@code aborted}
+         */
+        private void flush() {
+            nodeCount.add(pending);
+            pending = 0;
+            if (nodeLimit > 0 && nodeCount.sum() > nodeLimit) {
+                aborted = true;
+            }
+        }
+    }
+}
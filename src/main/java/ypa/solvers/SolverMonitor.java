@@ -0,0 +1,133 @@
+package ypa.solvers;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Aggregates the {@link SolverStatistics} of many solves, for instance of
+ * a batch run, and makes the totals available via JMX. Solvers do not
+ * report to a monitor themselves; the code running them records their
+ * statistics after each solve. Recording is thread-safe.
+ */
+public class SolverMonitor implements SolverMonitorMXBean {
+
+    /** The name under which {@link #register()} registers a monitor. */
+    public static final String OBJECT_NAME = "ypa.solvers:type=SolverMonitor";
+
+    /** The number of solves recorded. */
+    private long solveCount;
+
+    /** The total number of search nodes. */
+    private long totalNodes;
+
+    /** The total number of backtracks. */
+    private long totalBacktracks;
+
+    /** The total wall-clock time, in ns. */
+    private long totalWallTime;
+
+    /** The total CPU time, in ns. */
+    private long totalCpuTime;
+
+    /** The largest number of search nodes of a solve. */
+    private long maxNodes;
+
+    /** The name of the puzzle with {@code maxNodes} search nodes; null if none. */
+    private String maxNodesPuzzle;
+
+    /** The statistics of the last solve; null if none. */
+    private SolverStatistics last;
+
+    /**
+     * Records the statistics of a solve.
+     *
+     * @param name  the name of the puzzle solved
+     * @param statistics  the statistics of the solver after solving
+     * @throws IllegalArgumentException  if {@code statistics == null}
+     * @pre {@code statistics != null}
+     * @modifies {@code this}
+     */
+    public synchronized void record(final String name, final SolverStatistics statistics) {
+        if (statistics == null) {
+            throw new IllegalArgumentException(getClass().getSimpleName()
+                + ".record().pre failed: statistics == null");
+        }
+        solveCount++;
+        totalNodes += statistics.nodes();
+        totalBacktracks += statistics.backtracks();
+        totalWallTime += statistics.wallTime();
+        totalCpuTime += statistics.cpuTime();
+        if (maxNodesPuzzle == null || statistics.nodes() > maxNodes) {
+            maxNodes = statistics.nodes();
+            maxNodesPuzzle = name;
+        }
+        last = statistics;
+    }
+
+    /**
+     * Registers this monitor with the platform MBean server,
+     * under {@link #OBJECT_NAME}.
+     *
+     * @throws JMException  if registration fails, for instance because
+     *   a monitor is registered already
+     */
+    public void register() throws JMException {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        server.registerMBean(this, new ObjectName(OBJECT_NAME));
+    }
+
+    @Override
+    public synchronized long getSolveCount() {
+        return solveCount;
+    }
+
+    @Override
+    public synchronized long getTotalNodes() {
+        return totalNodes;
+    }
+
+    @Override
+    public synchronized long getTotalBacktracks() {
+        return totalBacktracks;
+    }
+
+    @Override
+    public synchronized long getTotalWallTimeMillis() {
+        return totalWallTime / 1_000_000;
+    }
+
+    @Override
+    public synchronized long getTotalCpuTimeMillis() {
+        return totalCpuTime / 1_000_000;
+    }
+
+    @Override
+    public synchronized long getMaxNodes() {
+        return maxNodes;
+    }
+
+    @Override
+    public synchronized String getMaxNodesPuzzle() {
+        return maxNodesPuzzle;
+    }
+
+    @Override
+    public synchronized String getLastStatistics() {
+        return last == null ? null : last.toString();
+    }
+
+    @Override
+    public synchronized void reset() {
+        solveCount = 0;
+        totalNodes = 0;
+        totalBacktracks = 0;
+        totalWallTime = 0;
+        totalCpuTime = 0;
+        maxNodes = 0;
+        maxNodesPuzzle = null;
+        last = null;
+    }
+}
@@ -0,0 +1,69 @@
+package ypa.solvers;
+
+/**
+ * Management interface of a {@link SolverMonitor}, for JMX clients
+ * such as JConsole.
+ */
+public interface SolverMonitorMXBean {
+
+    /**
+     * Gets the number of solves recorded.
+     *
+     * @return number of solves
+     */
+    long getSolveCount();
+
+    /**
+     * Gets the total number of search nodes over all solves.
+     *
+     * @return total number of search nodes
+     */
+    long getTotalNodes();
+
+    /**
+     * Gets the total number of backtracks over all solves.
+     *
+     * @return total number of backtracks
+     */
+    long getTotalBacktracks();
+
+    /**
+     * Gets the total wall-clock time over all solves.
+     *
+     * @return total wall-clock time, in ms
+     */
+    long getTotalWallTimeMillis();
+
+    /**
+     * Gets the total CPU time of the solving threads over all solves.
+     *
+     * @return total CPU time, in ms
+     */
+    long getTotalCpuTimeMillis();
+
+    /**
+     * Gets the largest number of search nodes of a single solve.
+     *
+     * @return maximum number of search nodes
+     */
+    long getMaxNodes();
+
+    /**
+     * Gets the name of the puzzle with the largest number of search nodes.
+     *
+     * @return name of the hardest puzzle, or null if none recorded
+     */
+    String getMaxNodesPuzzle();
+
+    /**
+     * Gets the statistics of the last recorded solve.
+     *
+     * @return description of the last solve, or null if none recorded
+     */
+    String getLastStatistics();
+
+    /**
+     * Forgets all recorded solves.
+     */
+    void reset();
+}
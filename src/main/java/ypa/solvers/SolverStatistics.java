@@ -0,0 +1,63 @@
+package ypa.solvers;
+
+/**
+ * Snapshot of the work done by a solver, over all its calls of
+ * {@link AbstractSolver#solve()} so far. Solvers count with plain fields,
+ * and only make a snapshot when asked; counters that a solver does not
+ * keep are 0.
+ * <p>
+ * The counters are:
+ * <ul>
+ * <li>nodes: digits (or, for dancing links, matrix rows) placed
+ *   speculatively;</li>
+ * <li>maximum depth: the largest number of speculative placements
+ *   in effect at the same time;</li>
+ * <li>backtracks: speculative placements undone because they led nowhere;</li>
+ * <li>candidate checks: digits considered for an empty cell, whether or not
+ *   they were candidates;</li>
+ * <li>reasoner invocations: applications of the reasoner;</li>
+ * <li>reasoner yield: the commands executed by those applications,
+ *   that is, cells filled in by reasoning;</li>
+ * <li>wall time and CPU time spent in {@code solve()}, in ns. CPU time is
+ *   that of the calling thread only, except for
+ *   {@link ParallelBacktrackSolver}, which sums that of its tasks;
+ *   it is 0 if the JVM cannot measure it.</li>
+ * </ul>
+ *
+ * @param nodes  the number of search nodes
+ * @param maxDepth  the maximum search depth
+ * @param backtracks  the number of backtracks
+ * @param candidateChecks  the number of candidate checks
+ * @param reasonerInvocations  the number of reasoner applications
+ * @param reasonerYield  the number of commands executed by the reasoner
+ * @param wallTime  the wall-clock time, in ns
+ * @param cpuTime  the CPU time of the solving thread, in ns
+ */
+public record SolverStatistics(long nodes, int maxDepth, long backtracks,
+        long candidateChecks, long reasonerInvocations, long reasonerYield,
+        long wallTime, long cpuTime) {
+
+    /**
+     * Gets the average number of commands per reasoner application.
+     *
+     * @return {@code reasonerYield / reasonerInvocations}, or 0 if the
+     *   reasoner was not applied
+     */
+    public double getYieldPerInvocation() {
+        return reasonerInvocations == 0 ? 0 : (double) reasonerYield / reasonerInvocations;
+    }
+
+    /**
+     * Describes the counters in one line, with times in ms.
+     *
+     * @return description of the counters
+     */
+    @Override
+    public String toString() {
+        return "nodes=" + nodes + " maxDepth=" + maxDepth + " backtracks=" + backtracks
+            + " candidateChecks=" + candidateChecks
+            + " reasonerInvocations=" + reasonerInvocations
+            + " reasonerYield=" + reasonerYield
+            + " wallMs=" + wallTime / 1_000_000 + " cpuMs=" + cpuTime / 1_000_000;
+    }
+}
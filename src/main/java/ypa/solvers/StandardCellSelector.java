@@ -0,0 +1,106 @@
+package ypa.solvers;
+
+import ypa.model.CombinationTable;
+import ypa.model.KSCell;
+import ypa.model.KSConstraints;
+import ypa.model.KSGrid;
+import ypa.model.KSPuzzle;
+
+/**
+ * The standard cell selection strategies.
+ * Except for {@link #FIRST_EMPTY}, each strategy scores the empty cells
+ * and selects the first one (row-major) with the lowest score.
+ * Candidates are those of {@link KSConstraints#getFeasibleCandidates(KSCell)};
+ * an empty cell without candidates is selected at once,
+ * since it makes the current state a dead end.
+ */
+public enum StandardCellSelector implements CellSelector {
+
+    /** The first empty cell, row-major. */
+    FIRST_EMPTY {
+        @Override
+        int score(final KSConstraints constraints, final KSCell cell, final int candidates) {
+            return 0;
+        }
+    },
+
+    /** The cell with the fewest candidate digits (minimum remaining values). */
+    MINIMUM_REMAINING_VALUES {
+        @Override
+        int score(final KSConstraints constraints, final KSCell cell, final int candidates) {
+            return Integer.bitCount(candidates);
+        }
+    },
+
+    /**
+     * A cell of the cage with the fewest digit combinations that still fit its
+     * remaining sum; ties are broken by the number of candidates.
+     */
+    CAGE_TIGHTNESS {
+        @Override
+        int score(final KSConstraints constraints, final KSCell cell, final int candidates) {
+            final int cage = KSConstraints.cageUnit(cell.getGroup());
+            final int combinations = CombinationTable.count(
+                constraints.getTarget(cage) - constraints.getTotal(cage),
+                constraints.count(cage, KSCell.EMPTY), constraints.getMask(cage));
+            return combinations * TIE_BREAK + Integer.bitCount(candidates);
+        }
+    },
+
+    /**
+     * The cell with the fewest candidate digits; ties are broken by the
+     * degree heuristic, that is, in favor of the cell sharing a unit with
+     * the most empty cells.
+     * A cell sharing two units with another empty cell counts it twice.
+     */
+    DEGREE {
+        @Override
+        int score(final KSConstraints constraints, final KSCell cell, final int candidates) {
+            int degree = constraints.count(KSConstraints.rowUnit(cell), KSCell.EMPTY)
+                + constraints.count(KSConstraints.columnUnit(cell), KSCell.EMPTY);
+            degree += constraints.count(KSConstraints.nonetUnit(cell), KSCell.EMPTY)
+                + constraints.count(KSConstraints.cageUnit(cell.getGroup()), KSCell.EMPTY);
+            return Integer.bitCount(candidates) * (MAX_DEGREE + 1) + MAX_DEGREE - degree;
+        }
+    };
+
+    /** Factor that makes the primary score dominate the number of candidates. */
+    private static final int TIE_BREAK = KSConstraints.DIGITS + 1;
+
+    /** Upper bound on the degree of a cell, counting the cell itself in each unit. */
+    private static final int MAX_DEGREE = 4 * KSConstraints.DIGITS;
+
+    /**
+     * Scores an empty cell; lower is better.
+     *
+     * @param constraints  the constraint state of the puzzle
+     * @param cell  the empty cell
+     * @param candidates  the candidates of {@code cell}, nonzero
+     * @return nonnegative score of {@code cell}
+     */
+    abstract int score(KSConstraints constraints, KSCell cell, int candidates);
+
+    @Override
+    public KSCell select(final KSPuzzle puzzle) {
+        final KSConstraints constraints = puzzle.getConstraints();
+        KSCell best = null;
+        int bestScore = Integer.MAX_VALUE;
+        // visit only the empty cells, via the bitset of the constraints
+        for (int i = constraints.nextEmpty(0); i >= 0; i = constraints.nextEmpty(i + 1)) {
+            final KSCell cell = puzzle.getCell(i / KSGrid.COLS, i % KSGrid.COLS);
+            if (this == FIRST_EMPTY) {
+                return cell;
+            }
+            final int candidates = constraints.getFeasibleCandidates(cell);
+            if (candidates == 0) {
+                return cell;
+            }
+            final int score = score(constraints, cell, candidates);
+            if (score < bestScore) {
+                best = cell;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+}
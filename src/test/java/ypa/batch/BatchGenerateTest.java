@@ -0,0 +1,70 @@
+package ypa.batch;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Scanner;
+
+import ypa.model.KSPuzzle;
+import ypa.solvers.SolutionCounter;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for {@link BatchGenerate}.
+ */
+public class BatchGenerateTest {
+
+    /**
+     * Test of run, writing to the output stream.
+     */
+    @Test
+    public void testRunOutput() throws IOException {
+        System.out.println("BatchGenerate run, output");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+        new BatchGenerate(new String[] {"--count", "2", "--seed", "5"}, out).run();
+
+        String[] puzzles = bytes.toString(StandardCharsets.UTF_8).split("\n\n");
+        assertEquals(2, puzzles.length);
+        for (String text : puzzles) {
+            KSPuzzle puzzle = new KSPuzzle(new Scanner(text), "generated");
+            assertTrue(new SolutionCounter(puzzle, 2).isUnique(), text);
+        }
+    }
+
+    /**
+     * Test of run, writing files to a directory.
+     */
+    @Test
+    public void testRunDirectory(@TempDir final Path dir) throws IOException {
+        System.out.println("BatchGenerate run, directory");
+        new BatchGenerate(new String[] {"--seed", "9", "--max-cage", "3",
+            "--dir", dir.toString()}, System.out).run();
+        assertTrue(Files.exists(dir.resolve("gen-9.zgr")));
+    }
+
+    /**
+     * Test of constructor, with invalid arguments.
+     */
+    @Test
+    public void testConstructorInvalid() {
+        System.out.println("BatchGenerate constructor, invalid");
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> new BatchGenerate(new String[] {"--count", "0"}, System.out)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> new BatchGenerate(new String[] {"--max-cage", "x"}, System.out)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> new BatchGenerate(new String[] {"--seed"}, System.out)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> new BatchGenerate(new String[] {"--bogus", "1"}, System.out))
+        );
+    }
+}
@@ -0,0 +1,214 @@
+package ypa.batch;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for {@link BatchSolve}.
+ */
+public class BatchSolveTest {
+
+    /** Output of the batch run. */
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+    /**
+     * Runs a batch with given arguments and standard input.
+     *
+     * @return the output lines, sorted
+     */
+    private List<String> run(final boolean expected, final String input, final String... args)
+            throws IOException, InterruptedException {
+        PrintStream out = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+        BatchSolve instance = new BatchSolve(args, out);
+        assertEquals(expected, instance.run(new BufferedReader(new StringReader(input))));
+        String[] lines = bytes.toString(StandardCharsets.UTF_8).split("\\R");
+        Arrays.sort(lines);
+        return Arrays.asList(lines);
+    }
+
+    /**
+     * Test of run, on explicit files.
+     */
+    @Test
+    public void testRunFiles() throws IOException, InterruptedException {
+        System.out.println("BatchSolve run, files");
+        List<String> lines = run(true, "", "--threads", "2",
+                "puzzles/puzzle1.zgr", "puzzles/puzzle3.zgr");
+
+        assertEquals(2, lines.size());
+        for (String line : lines) {
+            String[] fields = line.split("\t");
+            assertAll(
+                    () -> assertEquals(4, fields.length, line),
+                    () -> assertEquals(BatchSolve.SOLVED, fields[1], line),
+                    () -> assertTrue(fields[3].matches("[1-9]{81}"), line)
+            );
+        }
+        assertTrue(lines.get(0).startsWith("puzzle1.zgr\t"));
+    }
+
+    /**
+     * Test of run, on paths from standard input, with a missing file.
+     */
+    @Test
+    public void testRunStdin() throws IOException, InterruptedException {
+        System.out.println("BatchSolve run, standard input");
+        List<String> lines = run(false, "puzzles/puzzle2.zgr\n\npuzzles/missing.zgr\n",
+                "--solver", "dlx");
+
+        assertAll(
+                () -> assertEquals(2, lines.size()),
+                () -> assertTrue(lines.get(0).startsWith("missing.zgr\terror\t"), lines.get(0)),
+                () -> assertTrue(lines.get(1).startsWith("puzzle2.zgr\tsolved\t"), lines.get(1))
+        );
+    }
+
+    /**
+     * Test of run, with statistics and a monitor.
+     */
+    @Test
+    public void testRunStatistics() throws IOException, InterruptedException {
+        System.out.println("BatchSolve run, statistics");
+        PrintStream out = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+        BatchSolve instance = new BatchSolve(new String[] {"--stats", "--jmx",
+            "puzzles/puzzle1.zgr", "puzzles/puzzle3.zgr"}, out);
+        assertTrue(instance.run(new BufferedReader(new StringReader(""))));
+        String[] lines = bytes.toString(StandardCharsets.UTF_8).split("\\R");
+
+        assertEquals(2, lines.length);
+        for (String line : lines) {
+            String[] fields = line.split("\t");
+            assertAll(
+                    () -> assertEquals(5, fields.length, line),
+                    () -> assertTrue(fields[4].startsWith("nodes="), line)
+            );
+        }
+        assertEquals(2, instance.getMonitor().getSolveCount());
+    }
+
+    /**
+     * Test of run, checking uniqueness.
+     */
+    @Test
+    public void testRunUnique() throws IOException, InterruptedException {
+        System.out.println("BatchSolve run, unique");
+        List<String> lines = run(true, "", "--unique", "puzzles/puzzle1.zgr",
+                "puzzles/puzzle4.zgr");
+
+        assertEquals(2, lines.size());
+        for (String line : lines) {
+            String[] fields = line.split("\t");
+            assertAll(
+                    () -> assertEquals(4, fields.length, line),
+                    () -> assertEquals(BatchSolve.UNIQUE, fields[1], line),
+                    () -> assertEquals("1", fields[3], line)
+            );
+        }
+    }
+
+    /**
+     * Test of run, grading difficulty.
+     */
+    @Test
+    public void testRunGrade() throws IOException, InterruptedException {
+        System.out.println("BatchSolve run, grade");
+        List<String> lines = run(true, "", "--grade", "puzzles/puzzle1.zgr");
+
+        assertEquals(1, lines.size());
+        String[] fields = lines.get(0).split("\t");
+        assertAll(
+                () -> assertEquals(4, fields.length, lines.get(0)),
+                () -> assertEquals(BatchSolve.GRADED, fields[1], lines.get(0)),
+                () -> assertTrue(fields[3].startsWith("score="), lines.get(0))
+        );
+    }
+
+    /**
+     * Test of run, on the puzzles folder, which holds Killer Sudoku and
+     * Kakuro puzzles: all of them are solved.
+     */
+    @Test
+    public void testRunFolder() throws IOException, InterruptedException {
+        System.out.println("BatchSolve run, folder");
+        List<String> lines = run(true, "", "puzzles");
+
+        assertEquals(12, lines.size());
+        for (String line : lines) {
+            String[] fields = line.split("\t");
+            assertAll(
+                    () -> assertEquals(4, fields.length, line),
+                    () -> assertEquals(BatchSolve.SOLVED, fields[1], line),
+                    () -> assertTrue(fields[3].matches("[1-9]+"), line)
+            );
+        }
+        assertTrue(lines.get(0).startsWith("example.zgr\t"), lines.get(0));
+    }
+
+    /**
+     * Test of run, checking uniqueness of a Kakuro puzzle, which is skipped.
+     */
+    @Test
+    public void testRunUniqueKakuro() throws IOException, InterruptedException {
+        System.out.println("BatchSolve run, unique, Kakuro");
+        List<String> lines = run(true, "", "--unique", "puzzles/example.zgr");
+
+        assertEquals(1, lines.size());
+        String[] fields = lines.get(0).split("\t");
+        assertAll(
+                () -> assertEquals(BatchSolve.SKIPPED, fields[1], lines.get(0)),
+                () -> assertTrue(fields[3].contains("--unique"), lines.get(0))
+        );
+    }
+
+    /**
+     * Test of run, on a file that is not a puzzle.
+     *
+     * @param dir  a temporary folder for the file
+     */
+    @Test
+    public void testRunMalformed(@TempDir final Path dir)
+            throws IOException, InterruptedException {
+        System.out.println("BatchSolve run, malformed");
+        Path file = dir.resolve("malformed.zgr");
+        Files.writeString(file, "1 2 x\n");
+        List<String> lines = run(false, "", file.toString());
+
+        assertEquals(1, lines.size());
+        String[] fields = lines.get(0).split("\t");
+        assertAll(
+                () -> assertEquals(BatchSolve.ERROR, fields[1], lines.get(0)),
+                () -> assertTrue(fields[3].startsWith("malformed puzzle file"), lines.get(0))
+        );
+    }
+
+    /**
+     * Test of the constructor, with invalid arguments.
+     */
+    @Test
+    public void testInvalidArguments() {
+        System.out.println("BatchSolve invalid arguments");
+        PrintStream out = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> new BatchSolve(new String[] {"--threads", "0"}, out)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> new BatchSolve(new String[] {"--solver", "magic"}, out)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> new BatchSolve(new String[] {"--verbose"}, out))
+        );
+    }
+
+}
@@ -0,0 +1,95 @@
+package ypa.generator;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
+
+import ypa.model.KSCell;
+import ypa.model.KSPuzzle;
+import ypa.solvers.DancingLinksSolver;
+import ypa.solvers.SolutionCounter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for {@link KSGenerator}.
+ */
+public class KSGeneratorTest {
+
+    /**
+     * Test of constructor, with an invalid maximum cage size.
+     */
+    @Test
+    public void testConstructorInvalid() {
+        System.out.println("KSGenerator constructor, invalid");
+        Throwable e = assertThrows(IllegalArgumentException.class, () -> {
+            new KSGenerator(1L, 10, ForkJoinPool.commonPool());
+        });
+        assertNotNull(e.getMessage(), "Message should not be null");
+    }
+
+    /**
+     * Test of generate method: the puzzle can be read, has exactly one
+     * solution, and its cage sums match that solution.
+     */
+    @Test
+    public void testGenerate() {
+        System.out.println("generate");
+        KSGenerator instance = new KSGenerator(42L);
+        String text = instance.generate();
+        System.out.println(text);
+        KSPuzzle puzzle = new KSPuzzle(new Scanner(text), "generated");
+        assertEquals(1, new SolutionCounter(puzzle, 2).count(), "unique");
+
+        assertTrue(new DancingLinksSolver(puzzle).solve(), "solved");
+        Map<Integer, Integer> sums = new HashMap<>();
+        Map<Integer, Integer> sizes = new HashMap<>();
+        for (int i = 0; i < 9; i++) {
+            for (int j = 0; j < 9; j++) {
+                KSCell cell = puzzle.getCell(i, j);
+                sums.merge(cell.getGroup(), cell.getValue(), Integer::sum);
+                sizes.merge(cell.getGroup(), 1, Integer::sum);
+            }
+        }
+        String[] lines = text.split("\n");
+        String[] expected = lines[9].split(" ");
+        assertEquals(sums.size(), expected.length, "number of cages");
+        for (int group = 1; group <= expected.length; group++) {
+            assertEquals(Integer.parseInt(expected[group - 1]), sums.get(group), "sum " + group);
+            assertTrue(sizes.get(group) <= KSGenerator.DEFAULT_MAX_CAGE_SIZE, "size " + group);
+        }
+    }
+
+    /**
+     * Test of generate method: the same seed gives the same puzzles,
+     * regardless of the pool.
+     */
+    @Test
+    public void testGenerateDeterministic() {
+        System.out.println("generate, deterministic");
+        KSGenerator first = new KSGenerator(7L);
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            KSGenerator second = new KSGenerator(7L, KSGenerator.DEFAULT_MAX_CAGE_SIZE, pool);
+            assertEquals(first.generate(), second.generate(), "first puzzle");
+            assertEquals(first.generate(), second.generate(), "second puzzle");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Test of generatePuzzle method, with cages of one cell.
+     */
+    @Test
+    public void testGeneratePuzzleSingletons() {
+        System.out.println("generatePuzzle, singletons");
+        KSGenerator instance = new KSGenerator(3L, 1, ForkJoinPool.commonPool());
+        KSPuzzle puzzle = instance.generatePuzzle("singletons");
+        assertEquals("singletons", puzzle.getName());
+        assertTrue(new SolutionCounter(puzzle, 2).isUnique(), "unique");
+    }
+}
@@ -0,0 +1,191 @@
+package ypa.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for {@link ByteTokenizer}, and for reading puzzles with it
+ * exactly as with a {@link Scanner}.
+ */
+public class ByteTokenizerTest {
+
+    /**
+     * Creates a tokenizer over a string.
+     */
+    private static ByteTokenizer tokenizer(final String text) {
+        return new ByteTokenizer(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads a file from the "puzzles" folder.
+     */
+    private static String read(final String name) throws IOException {
+        return Files.readString(new File("puzzles/" + name).toPath());
+    }
+
+    /**
+     * Test of constructor of ByteTokenizer.
+     */
+    @Test
+    public void testConstructor() {
+        System.out.println("ByteTokenizer constructor");
+        Throwable e = assertThrows(NullPointerException.class, () -> {
+            new ByteTokenizer(null);
+        });
+        assertNotNull(e.getMessage(), "Message should not be null");
+    }
+
+    /**
+     * Test of next and hasNext methods.
+     */
+    @Test
+    public void testNext() {
+        System.out.println("ByteTokenizer next");
+        ByteTokenizer instance = tokenizer("  ab\t12\r\n= ");
+        assertTrue(instance.hasNext());
+        assertTrue(instance.hasNext("ab"));
+        assertFalse(instance.hasNext("a"));
+        assertEquals("ab", instance.next());
+        assertEquals("12", instance.next());
+        instance.next("=");
+        assertFalse(instance.hasNext());
+        assertThrows(NoSuchElementException.class, () -> instance.next());
+    }
+
+    /**
+     * Test of nextInt method.
+     */
+    @Test
+    public void testNextInt() {
+        System.out.println("ByteTokenizer nextInt");
+        ByteTokenizer instance = tokenizer("7 -13 +5 2147483647 -2147483648");
+        assertEquals(7, instance.nextInt());
+        assertEquals(-13, instance.nextInt());
+        assertEquals(5, instance.nextInt());
+        assertEquals(Integer.MAX_VALUE, instance.nextInt());
+        assertEquals(Integer.MIN_VALUE, instance.nextInt());
+        assertThrows(NoSuchElementException.class, () -> instance.nextInt());
+    }
+
+    /**
+     * Test that nextInt fails as Scanner.nextInt does, without consuming.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"x", "-", "1x", "99999999999", "2147483648", "99999999999x"})
+    public void testNextIntMismatch(final String token) {
+        System.out.println("ByteTokenizer nextInt mismatch " + token);
+        Throwable expected = assertThrows(InputMismatchException.class, () -> {
+            new Scanner(token).nextInt();
+        });
+        ByteTokenizer instance = tokenizer(token);
+        Throwable actual = assertThrows(InputMismatchException.class, () -> {
+            instance.nextInt();
+        });
+        assertEquals(expected.getMessage(), actual.getMessage(), "message");
+        assertEquals(token, instance.next(), "token not consumed");
+    }
+
+    /**
+     * Test of nextLetter, nextChar and nextSingleChar methods.
+     */
+    @Test
+    public void testNextChar() {
+        System.out.println("ByteTokenizer nextChar");
+        ByteTokenizer instance = tokenizer(" B12 - |x 1");
+        assertTrue(instance.hasNextLetter());
+        assertEquals('B', instance.nextLetter());
+        assertEquals(12, instance.nextInt());
+        assertFalse(instance.hasNextLetter());
+        assertEquals('-', instance.nextSingleChar());
+        assertThrows(InputMismatchException.class, () -> instance.nextSingleChar());
+        assertEquals('|', instance.nextChar());
+        assertEquals('x', instance.nextChar());
+        assertThrows(InputMismatchException.class, () -> instance.nextLetter());
+    }
+
+    /**
+     * Test that Killer Sudoku puzzles read with a tokenizer
+     * equal those read with a scanner.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"puzzle1.zgr", "puzzle2.zgr", "puzzle3.zgr", "puzzle4.zgr"})
+    public void testKSPuzzle(final String name) throws IOException {
+        System.out.println("ByteTokenizer KSPuzzle " + name);
+        final String text = read(name);
+        KSPuzzle expected = new KSPuzzle(new Scanner(text), name);
+        KSPuzzle actual = new KSPuzzle(tokenizer(text), name);
+        assertEquals(expected.toString(), actual.toString());
+        assertEquals(expected.toCompactGrid().toString(), actual.toCompactGrid().toString());
+        for (int i = 0; i < KSGrid.ROWS; i++) {
+            for (int j = 0; j < KSGrid.COLS; j++) {
+                assertEquals(expected.getCell(i, j).getCageSum(),
+                    actual.getCell(i, j).getCageSum(), "cage sum at " + i + ", " + j);
+            }
+        }
+    }
+
+    /**
+     * Test that invalid Killer Sudoku input fails with the same
+     * exception as with a scanner.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"", "x", "0", "-1", "82", "1 2 x"})
+    public void testKSPuzzleInvalid(final String prefix) throws IOException {
+        System.out.println("ByteTokenizer KSPuzzle invalid " + prefix);
+        final String text = prefix.isEmpty() ? "" : prefix + " " + read("puzzle1.zgr");
+        Throwable expected = assertThrows(RuntimeException.class, () -> {
+            new KSPuzzle(new Scanner(text), "invalid");
+        });
+        Throwable actual = assertThrows(RuntimeException.class, () -> {
+            new KSPuzzle(tokenizer(text), "invalid");
+        });
+        assertEquals(expected.getClass(), actual.getClass(), "exception");
+        assertEquals(expected.getMessage(), actual.getMessage(), "message");
+    }
+
+    /**
+     * Test that Kakuro puzzles read with a tokenizer equal those read
+     * with a scanner, including a state section.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"example.zgr", "intermediair-2001-24.zgr"})
+    public void testKPuzzle(final String name) throws IOException {
+        System.out.println("ByteTokenizer KPuzzle " + name);
+        final String text = read(name) + "\n= a2 = 1\nb1 = 2 c3 = 1\n";
+        KGrid expected = new KGrid(new Scanner(text));
+        KGrid actual = new KGrid(tokenizer(text));
+        assertEquals(expected.toString(), actual.toString());
+        assertEquals(expected.gridAsString(), actual.gridAsString());
+    }
+
+    /**
+     * Test that invalid Kakuro input fails with the same
+     * exception as with a scanner, whose message names the parser.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"a 2 - 9", "a 2 + 9 3", "a x - 9 3", "a 2 -- 9 3"})
+    public void testKPuzzleInvalid(final String text) {
+        System.out.println("ByteTokenizer KPuzzle invalid " + text);
+        Throwable expected = assertThrows(RuntimeException.class, () -> {
+            new KGrid(new Scanner(text));
+        });
+        Throwable actual = assertThrows(RuntimeException.class, () -> {
+            new KGrid(tokenizer(text));
+        });
+        assertEquals(expected.getClass(), actual.getClass(), "exception");
+        assertEquals(expected.getMessage().replace("(Scanner)", "(ByteTokenizer)"),
+                actual.getMessage(), "message");
+    }
+
+}
@@ -0,0 +1,97 @@
+package ypa.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for {@code CombinationTable}.
+ */
+public class CombinationTableTest {
+
+    /**
+     * Test of getCombinations.
+     */
+    @Test
+    public void testGetCombinations() {
+        System.out.println("CombinationTable getCombinations");
+        assertAll(
+                () -> assertArrayEquals(new int[] {0b11}, CombinationTable.getCombinations(3, 2)),
+                () -> assertArrayEquals(new int[] {KSConstraints.ALL_DIGITS},
+                        CombinationTable.getCombinations(45, 9)),
+                () -> assertArrayEquals(new int[] {0}, CombinationTable.getCombinations(0, 0)),
+                () -> assertEquals(4, CombinationTable.getCombinations(10, 2).length),
+                () -> assertEquals(0, CombinationTable.getCombinations(18, 2).length),
+                () -> assertEquals(0, CombinationTable.getCombinations(46, 9).length)
+        );
+    }
+
+    /**
+     * Test of getCandidates, with and without used digits.
+     */
+    @Test
+    public void testGetCandidates() {
+        System.out.println("CombinationTable getCandidates");
+        // 10 in two: 1+9, 2+8, 3+7, 4+6
+        int all = 0b111101111;
+        int withoutOne = 0b011101110;
+        assertAll(
+                () -> assertEquals(all, CombinationTable.getCandidates(10, 2, 0)),
+                () -> assertEquals(withoutOne,
+                        CombinationTable.getCandidates(10, 2, KSConstraints.bit(1))),
+                () -> assertEquals(0b110, CombinationTable.getCandidates(5, 2, 0b1001)),
+                () -> assertEquals(0, CombinationTable.getCandidates(3, 2, KSConstraints.bit(2))),
+                () -> assertEquals(0, CombinationTable.getCandidates(-1, 1, 0)),
+                () -> assertEquals(0, CombinationTable.getCandidates(5, 10, 0))
+        );
+    }
+
+    /**
+     * Test of count and sum.
+     */
+    @Test
+    public void testCountAndSum() {
+        System.out.println("CombinationTable count, sum");
+        assertAll(
+                () -> assertEquals(4, CombinationTable.count(10, 2, 0)),
+                () -> assertEquals(3, CombinationTable.count(10, 2, KSConstraints.bit(1))),
+                () -> assertEquals(0, CombinationTable.count(50, 2, 0)),
+                () -> assertEquals(45, CombinationTable.sum(KSConstraints.ALL_DIGITS)),
+                () -> assertEquals(9, CombinationTable.sum(0b100000000))
+        );
+    }
+
+    /**
+     * Test of getRequired method.
+     */
+    @Test
+    public void testGetRequired() {
+        System.out.println("CombinationTable getRequired");
+        // 7 in three: 1+2+4 only; 10 in three: 1+2+7, 1+3+6, 1+4+5, 2+3+5
+        assertAll(
+                () -> assertEquals(0b1011, CombinationTable.getRequired(7, 3, 0)),
+                () -> assertEquals(0, CombinationTable.getRequired(10, 3, 0)),
+                () -> assertEquals(0b1, CombinationTable.getRequired(10, 3, 0b100)),
+                () -> assertEquals(0, CombinationTable.getRequired(7, 3, KSConstraints.bit(1))),
+                () -> assertEquals(0, CombinationTable.getRequired(0, 0, 0)),
+                () -> assertEquals(0, CombinationTable.getRequired(50, 2, 0))
+        );
+    }
+
+    /**
+     * Test of getCandidates and getCombinations, by specification.
+     */
+    @Test
+    public void testBySpec() {
+        System.out.println("CombinationTable by KSpec");
+        KSpec spec = new KSpec(10, 2);
+        assertAll(
+                () -> assertEquals(CombinationTable.getCandidates(10, 2, 0b1),
+                        CombinationTable.getCandidates(spec, 0b1)),
+                () -> assertArrayEquals(CombinationTable.getCombinations(10, 2),
+                        CombinationTable.getCombinations(spec)),
+                () -> assertArrayEquals(new int[] {0b111},
+                        CombinationTable.getCombinations(new KSpec(6, 3)))
+        );
+    }
+
+}
@@ -59,4 +59,34 @@ public class HistogramTest {
         }
     }
 
+    /**
+     * Tests adjust method, with a state beyond the initial capacity.
+     */
+    @Test
+    public void testAdjustLargeState() {
+        System.out.println("adjust, large state");
+        assertEquals(0, instance.get(100), "before");
+        instance.adjust(100, 2);
+        assertEquals(2, instance.get(100), "after");
+        assertEquals(0, instance.getDigits(), "getDigits");
+    }
+
+    /**
+     * Tests getDigits method, of class Histogram.
+     */
+    @Test
+    public void testGetDigits() {
+        System.out.println("getDigits");
+        instance.adjust(KCell.EMPTY, 3);
+        instance.adjust(KCell.BLOCKED, 1);
+        assertEquals(0, instance.getDigits(), "no digits");
+        instance.adjust(1, 1);
+        instance.adjust(9, 2);
+        assertEquals(0b100000001, instance.getDigits(), "1 and 9");
+        instance.adjust(9, -1);
+        assertEquals(0b100000001, instance.getDigits(), "9 once more");
+        instance.adjust(9, -1);
+        assertEquals(0b1, instance.getDigits(), "9 gone");
+    }
+
 }
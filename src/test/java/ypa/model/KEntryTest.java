@@ -102,4 +102,60 @@ public class KEntryTest {
         assertFalse(instance.isValid(), "isValid, no empty, sum too low");
     }
 
+    /**
+     * Test isValid() and getUsedDigits(), with a repeated digit.
+     */
+    @Test
+    public void testIsValidRepeated() {
+        System.out.println("isValid, repeated digit");
+        KEntry instance = new KEntry(new Scanner("a 2 -  9 3"));
+        KCell[] cells = new KCell[] {
+            new KCell(KCell.EMPTY),
+            new KCell(KCell.EMPTY),
+            new KCell(KCell.EMPTY)
+        };
+        for (KCell cell : cells) {
+            instance.add(cell);
+            cell.add(instance);
+        }
+        cells[0].setState(2);
+        cells[1].setState(2);
+        assertEquals(0b10, instance.getUsedDigits(), "getUsedDigits, 2 twice");
+        assertFalse(instance.isValid(), "isValid, 2 twice");
+        cells[1].setState(3);
+        assertEquals(0b110, instance.getUsedDigits(), "getUsedDigits, 2 and 3");
+        assertTrue(instance.isValid(), "isValid, 2 and 3");
+        cells[0].setState(KCell.EMPTY);
+        assertEquals(0b100, instance.getUsedDigits(), "getUsedDigits, 3");
+    }
+
+    /**
+     * Test getCandidates().
+     */
+    @Test
+    public void testGetCandidates() {
+        System.out.println("getCandidates");
+        KEntry instance = new KEntry(new Scanner("a 2 -  9 3"));
+        KCell[] cells = new KCell[] {
+            new KCell(KCell.EMPTY),
+            new KCell(KCell.EMPTY),
+            new KCell(KCell.EMPTY)
+        };
+        for (KCell cell : cells) {
+            instance.add(cell);
+            cell.add(instance);
+        }
+        // 9 in three: 1+2+6, 1+3+5, 2+3+4
+        assertEquals(0b111111, instance.getCandidates(), "all empty");
+        cells[0].setState(1);
+        // 8 in two, without 1: 2+6, 3+5
+        assertEquals(0b110110, instance.getCandidates(), "1 filled in");
+        cells[1].setState(4);
+        assertEquals(0, instance.getCandidates(), "4 needs another 4");
+        cells[1].setState(5);
+        assertEquals(0b100, instance.getCandidates(), "3 is forced");
+        cells[2].setState(3);
+        assertEquals(0, instance.getCandidates(), "full");
+    }
+
 }
@@ -83,4 +83,74 @@ public class KGridTest {
         );
     }
 
+    /**
+     * Tests isValid after moves, which re-checks only the entries changed.
+     */
+    @Test
+    public void testIsValidAfterMoves() {
+        System.out.println("isValid, after moves");
+        final KGrid instance = new KGrid(new Scanner("""
+                a 2 -  9 3
+                a 2 |  3 2
+                """));
+        final KCell shared = instance.getCell(1, 2);
+        final KCell below = instance.getCell(2, 2);
+        assertTrue(instance.isValid(), "isValid, empty");
+        shared.setState(8);
+        assertFalse(instance.isValid(), "isValid, both entries too high");
+        assertFalse(instance.isValid(), "isValid, unchanged");
+        shared.setState(1);
+        assertTrue(instance.isValid(), "isValid, 1");
+        below.setState(1);
+        assertFalse(instance.isValid(), "isValid, 1 twice");
+        below.setState(2);
+        instance.getCell(1, 3).setState(3);
+        assertTrue(instance.isValid(), "isValid, after two moves");
+        instance.clear();
+        assertTrue(instance.isValid(), "isValid, cleared");
+    }
+
+    /**
+     * Tests isValid for a grid whose initial state is invalid.
+     */
+    @Test
+    public void testIsValidInitiallyInvalid() {
+        System.out.println("isValid, initially invalid");
+        final KGrid instance = new KGrid(new Scanner("""
+                a 2 -  9 3
+                a 2 |  3 2
+                =
+                a 2 = 9
+                """));
+        assertFalse(instance.isValid(), "isValid");
+        instance.clear();
+        assertTrue(instance.isValid(), "isValid, cleared");
+    }
+
+    /**
+     * Tests the entries of the cells.
+     */
+    @Test
+    public void testGetEntry() {
+        System.out.println("KCell.getEntry");
+        final KGrid instance = new KGrid(new Scanner("""
+                a 2 -  9 3
+                a 2 |  3 2
+                """));
+        final KEntry horizontal = instance.getEntries().get(0);
+        final KEntry vertical = instance.getEntries().get(1);
+        final KCell shared = instance.getCell(1, 2);
+        assertAll(
+                () -> assertSame(horizontal, shared.getEntry(Direction.HORIZONTAL), "shared -"),
+                () -> assertSame(vertical, shared.getEntry(Direction.VERTICAL), "shared |"),
+                () -> assertSame(horizontal,
+                        instance.getCell(1, 4).getEntry(Direction.HORIZONTAL), "right -"),
+                () -> assertNull(instance.getCell(1, 4).getEntry(Direction.VERTICAL), "right |"),
+                () -> assertNull(instance.getCell(2, 2).getEntry(Direction.HORIZONTAL), "below -"),
+                () -> assertNull(instance.getCell(0, 0).getEntry(Direction.VERTICAL), "blocked"),
+                () -> assertEquals(new Location(2, 2).toString(),
+                        instance.getCell(2, 2).getLocation().toString(), "getLocation")
+        );
+    }
+
 }
@@ -0,0 +1,142 @@
+package ypa.model;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.Arrays;
+import java.util.Scanner;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for {@code KSCompactGrid}.
+ */
+public class KSCompactGridTest {
+
+    private KSPuzzle puzzle;
+
+    /**
+     * Load in the example killer sudoku.
+     */
+    @BeforeEach
+    void setUp() {
+        try {
+            Scanner scanner = new Scanner(new File("puzzles/puzzle1.zgr"));
+            puzzle = new KSPuzzle(scanner, "TestPuzzle");
+        } catch (FileNotFoundException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Test of the conversion from a puzzle.
+     */
+    @Test
+    public void testConstructorFromGrid() {
+        System.out.println("KSCompactGrid constructor, from grid");
+        puzzle.getCell(0, 0).setState(2);
+        KSCompactGrid instance = puzzle.toCompactGrid();
+
+        assertAll(
+                () -> assertTrue(instance.isConsistent()),
+                () -> assertEquals(2, instance.get(0)),
+                () -> assertEquals(80, instance.getEmptyCount()),
+                () -> assertEquals(1, instance.getCage(0)),
+                () -> assertEquals(2, instance.getCageSize(1)),
+                () -> assertEquals(3, instance.getCageSum(1)),
+                () -> assertEquals(29, instance.getCage(80))
+        );
+    }
+
+    /**
+     * Test of the conversion from a puzzle with conflicting digits.
+     */
+    @Test
+    public void testConstructorFromInconsistentGrid() {
+        System.out.println("KSCompactGrid constructor, conflicting digits");
+        puzzle.getCell(0, 2).setState(5);
+        puzzle.getCell(0, 7).setState(5);
+        KSCompactGrid instance = puzzle.toCompactGrid();
+
+        assertAll(
+                () -> assertFalse(instance.isConsistent()),
+                () -> assertEquals(5, instance.get(2)),
+                () -> assertEquals(KSCell.EMPTY, instance.get(7))
+        );
+    }
+
+    /**
+     * Test of the constructor from a raw layout with an oversized cage.
+     */
+    @Test
+    public void testConstructorInvalidLayout() {
+        System.out.println("KSCompactGrid constructor, cage too large");
+        byte[] cages = new byte[KSCompactGrid.CELLS];
+        Arrays.fill(cages, (byte) 1);
+        short[] sums = new short[KSConstraints.MAX_GROUP + 1];
+
+        Throwable e = assertThrows(IllegalArgumentException.class,
+                () -> new KSCompactGrid(cages, sums));
+        assertEquals("invalid puzzle instance - more than 9 numbers in a cage", e.getMessage());
+    }
+
+    /**
+     * Test of getCandidates, including pruning by cage sum.
+     */
+    @Test
+    public void testGetCandidates() {
+        System.out.println("KSCompactGrid getCandidates");
+        KSCompactGrid instance = puzzle.toCompactGrid();
+        // cage 1 has two cells summing to 3: only 1 and 2 fit
+        assertEquals(0b11, instance.getCandidates(0));
+
+        instance.set(0, 2);
+
+        assertAll(
+                () -> assertEquals(0b1, instance.getCandidates(1)),
+                () -> assertEquals(0, instance.getCandidates(9) & KSConstraints.bit(2)),
+                () -> assertFalse(instance.isFull())
+        );
+    }
+
+    /**
+     * Test of set and clear.
+     */
+    @Test
+    public void testSetAndClear() {
+        System.out.println("KSCompactGrid set, clear");
+        KSCompactGrid instance = puzzle.toCompactGrid();
+        int before = instance.getCandidates(40);
+        instance.set(41, 9);
+        assertEquals(0, instance.getCandidates(40) & KSConstraints.bit(9));
+
+        instance.clear(41);
+
+        assertAll(
+                () -> assertEquals(before, instance.getCandidates(40)),
+                () -> assertEquals(KSCell.EMPTY, instance.get(41)),
+                () -> assertEquals(KSCompactGrid.CELLS, instance.getEmptyCount())
+        );
+    }
+
+    /**
+     * Test that a copy is independent of the original.
+     */
+    @Test
+    public void testCopy() {
+        System.out.println("KSCompactGrid copy");
+        KSCompactGrid original = puzzle.toCompactGrid();
+        original.set(0, 1);
+        KSCompactGrid copy = new KSCompactGrid(original);
+        copy.set(1, 2);
+
+        assertAll(
+                () -> assertEquals(1, copy.get(0)),
+                () -> assertEquals(2, copy.get(1)),
+                () -> assertEquals(KSCell.EMPTY, original.get(1)),
+                () -> assertEquals(1, original.firstEmpty()),
+                () -> assertEquals("12" + ".".repeat(79), copy.toString())
+        );
+    }
+
+}
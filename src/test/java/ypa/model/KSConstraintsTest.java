@@ -0,0 +1,211 @@
+package ypa.model;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.Scanner;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for {@code KSConstraints}.
+ */
+public class KSConstraintsTest {
+
+    private KSGrid ksGrid;
+
+    private KSConstraints constraints;
+
+    /**
+     * Load in the example killer sudoku.
+     */
+    @BeforeEach
+    void setUp() {
+        try {
+            Scanner scanner = new Scanner(new File("puzzles/puzzle1.zgr"));
+            ksGrid = new KSGrid(scanner);
+            constraints = ksGrid.getConstraints();
+        } catch (FileNotFoundException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Test of the initial state, for an empty grid.
+     */
+    @Test
+    public void testInitialState() {
+        System.out.println("KSConstraints initial state");
+        int row = KSConstraints.FIRST_ROW_UNIT;
+        int cage = KSConstraints.cageUnit(1);
+
+        assertAll(
+                () -> assertEquals(9, constraints.count(row, KSCell.EMPTY)),
+                () -> assertEquals(0, constraints.getMask(row)),
+                () -> assertEquals(45, constraints.getTarget(row)),
+                () -> assertEquals(2, constraints.getSize(cage)),
+                () -> assertEquals(3, constraints.getTarget(cage)),
+                () -> assertEquals(0, constraints.getSize(KSConstraints.cageUnit(81)))
+        );
+    }
+
+    /**
+     * Test that the empty-cell count and bitset follow changes of state,
+     * including changes between two digits.
+     */
+    @Test
+    public void testEmptyCells() {
+        System.out.println("KSConstraints empty cells");
+        assertAll(
+                () -> assertEquals(81, constraints.getEmptyCount()),
+                () -> assertFalse(constraints.isFull()),
+                () -> assertEquals(0, constraints.nextEmpty(0)),
+                () -> assertEquals(80, constraints.nextEmpty(80))
+        );
+        ksGrid.getCell(0, 0).setState(1);
+        ksGrid.getCell(7, 1).setState(2);
+        ksGrid.getCell(7, 1).setState(3);
+        assertAll(
+                () -> assertEquals(79, constraints.getEmptyCount()),
+                () -> assertEquals(1, constraints.nextEmpty(0)),
+                () -> assertEquals(65, constraints.nextEmpty(64), "across the words"),
+                () -> assertEquals(ksGrid.getCell(0, 1), ksGrid.getFirstEmptyCell())
+        );
+        for (int i = 0; i < 9; i++) {
+            for (int j = 0; j < 9; j++) {
+                ksGrid.getCell(i, j).setState(1);
+            }
+        }
+        assertAll(
+                () -> assertTrue(constraints.isFull()),
+                () -> assertTrue(ksGrid.isFull()),
+                () -> assertEquals(-1, constraints.nextEmpty(0)),
+                () -> assertNull(ksGrid.getFirstEmptyCell())
+        );
+        ksGrid.getCell(8, 8).setState(KSCell.EMPTY);
+        assertAll(
+                () -> assertEquals(1, constraints.getEmptyCount()),
+                () -> assertEquals(80, constraints.nextEmpty(0)),
+                () -> assertEquals(-1, constraints.nextEmpty(81))
+        );
+    }
+
+    /**
+     * Test that setting and resetting a cell updates masks, counts, and totals.
+     */
+    @Test
+    public void testUpdate() {
+        System.out.println("KSConstraints update");
+        KSCell cell = ksGrid.getCell(4, 4);
+        int nonet = KSConstraints.nonetUnit(cell);
+        cell.setState(7);
+
+        assertAll(
+                () -> assertEquals(KSConstraints.FIRST_NONET_UNIT + 4, nonet),
+                () -> assertEquals(KSConstraints.bit(7), constraints.getMask(nonet)),
+                () -> assertEquals(7, constraints.getTotal(nonet)),
+                () -> assertEquals(8, constraints.count(nonet, KSCell.EMPTY))
+        );
+
+        cell.setState(KSCell.EMPTY);
+
+        assertAll(
+                () -> assertEquals(0, constraints.getMask(nonet)),
+                () -> assertEquals(0, constraints.getTotal(nonet)),
+                () -> assertEquals(9, constraints.count(nonet, KSCell.EMPTY))
+        );
+    }
+
+    /**
+     * Test that a digit stays in the mask while a duplicate remains.
+     */
+    @Test
+    public void testUpdateDuplicate() {
+        System.out.println("KSConstraints update, duplicate digit");
+        KSCell first = ksGrid.getCell(0, 0);
+        KSCell second = ksGrid.getCell(0, 5);
+        int row = KSConstraints.rowUnit(first);
+        first.setState(1);
+        second.setState(1);
+        assertFalse(constraints.isValid(first));
+
+        second.setState(KSCell.EMPTY);
+
+        assertAll(
+                () -> assertEquals(KSConstraints.bit(1), constraints.getMask(row)),
+                () -> assertTrue(constraints.isValid(first))
+        );
+    }
+
+    /**
+     * Test of getCandidates, excluding digits from row, column, nonet, and cage.
+     */
+    @Test
+    public void testGetCandidates() {
+        System.out.println("KSConstraints getCandidates");
+        ksGrid.getCell(0, 8).setState(1); // row
+        ksGrid.getCell(8, 0).setState(2); // column
+        ksGrid.getCell(2, 2).setState(3); // nonet
+        ksGrid.getCell(0, 1).setState(4); // cage
+
+        int expected = KSConstraints.ALL_DIGITS & ~0b1111; // digits 1 through 4 used
+        assertEquals(expected, constraints.getCandidates(ksGrid.getCell(0, 0)));
+    }
+
+    /**
+     * Test of getFeasibleCandidates, also excluding digits that miss the cage sum.
+     */
+    @Test
+    public void testGetFeasibleCandidates() {
+        System.out.println("KSConstraints getFeasibleCandidates");
+        // the cage of (0, 0) has two cells summing to 3
+        assertEquals(0b11, constraints.getFeasibleCandidates(ksGrid.getCell(0, 0)));
+
+        ksGrid.getCell(0, 1).setState(4);
+
+        assertEquals(0, constraints.getFeasibleCandidates(ksGrid.getCell(0, 0)));
+    }
+
+    /**
+     * Test of isValid for a full cage.
+     */
+    @Test
+    public void testIsValidCageSum() {
+        System.out.println("KSConstraints isValid, full cage");
+        KSCell first = ksGrid.getCell(0, 0);
+        KSCell second = ksGrid.getCell(0, 1);
+        first.setState(1);
+        second.setState(3);
+        assertFalse(constraints.isValid(second), "sum 4 != 3");
+        second.setState(2);
+        assertTrue(constraints.isValid(second), "sum 3 == 3");
+    }
+
+    /**
+     * Test of isValid for a partially filled cage that cannot reach its sum.
+     */
+    @Test
+    public void testIsValidPartialCage() {
+        System.out.println("KSConstraints isValid, partial cage");
+        // the cage of (0, 2), (0, 3), and (0, 4) sums to 15
+        KSCell first = ksGrid.getCell(0, 2);
+        KSCell second = ksGrid.getCell(0, 3);
+        first.setState(1);
+        second.setState(2);
+        assertFalse(constraints.isValid(second), "12 left for one cell");
+        second.setState(5);
+        assertTrue(constraints.isValid(second), "9 left for one cell");
+    }
+
+    /**
+     * Test that invalid states are rejected for cells in a grid.
+     */
+    @Test
+    public void testUpdateInvalidState() {
+        System.out.println("KSConstraints update, invalid state");
+        KSCell cell = ksGrid.getCell(0, 0);
+        assertThrows(IllegalArgumentException.class, () -> cell.setState(10));
+        assertEquals(KSCell.EMPTY, cell.getValue());
+    }
+
+}
@@ -53,6 +53,27 @@ public class KSPuzzleTest {
         assertEquals(9, matrix[0].length);
     }
     
+    /**
+     * Test the copy constructor of class KSPuzzle: the copy has the same
+     * state, and changes to it do not affect the original.
+     */
+    @Test
+    public void testCopyConstructor() {
+        System.out.println("KSPuzzle copy constructor");
+        ksPuzzle.getCell(0, 0).setState(1);
+        KSPuzzle copy = new KSPuzzle(ksPuzzle);
+        assertEquals(ksPuzzle.getName(), copy.getName());
+        assertEquals(ksPuzzle.toString(), copy.toString());
+        assertEquals(ksPuzzle.toCompactGrid().toString(), copy.toCompactGrid().toString());
+        assertNotSame(ksPuzzle.getCell(0, 0), copy.getCell(0, 0));
+        assertEquals(ksPuzzle.getCell(0, 0).getCageSum(), copy.getCell(0, 0).getCageSum());
+        assertEquals(ksPuzzle.getConstraints().getMask(0), copy.getConstraints().getMask(0));
+
+        copy.getCell(0, 1).setState(2);
+        assertEquals(KSCell.EMPTY, ksPuzzle.getCell(0, 1).getState());
+        assertNotEquals(ksPuzzle.getConstraints().getMask(0), copy.getConstraints().getMask(0));
+    }
+
     /**
      * Test of getMatrix method, of class KSPuzzle.
      */
@@ -0,0 +1,117 @@
+package ypa.model;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.List;
+import java.util.Scanner;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import ypa.solvers.DancingLinksSolver;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for {@link KSSnapshot}.
+ */
+public class KSSnapshotTest {
+
+    private KSPuzzle puzzle;
+
+    /**
+     * Load in the example killer sudoku.
+     */
+    @BeforeEach
+    void setUp() throws FileNotFoundException {
+        puzzle = new KSPuzzle(new Scanner(new File("puzzles/puzzle1.zgr")), "TestPuzzle");
+    }
+
+    /**
+     * Test of snapshot: it is not affected by later changes to the puzzle.
+     */
+    @Test
+    public void testSnapshot() {
+        System.out.println("KSSnapshot, snapshot");
+        puzzle.getCell(0, 0).setState(2);
+        KSSnapshot instance = puzzle.snapshot();
+        int candidates = puzzle.getConstraints().getFeasibleCandidates(puzzle.getCell(0, 2));
+        puzzle.getCell(0, 1).setState(3);
+        assertAll(
+                () -> assertTrue(instance.isConsistent(), "isConsistent"),
+                () -> assertEquals(2, instance.get(0), "get(0)"),
+                () -> assertEquals(KSCell.EMPTY, instance.get(1), "get(1)"),
+                () -> assertEquals(80, instance.getEmptyCount(), "getEmptyCount"),
+                () -> assertEquals(candidates, instance.getCandidates(2),
+                        "candidates match the puzzle")
+        );
+    }
+
+    /**
+     * Test of with: the original is unchanged, and invalid digits are refused.
+     */
+    @Test
+    public void testWith() {
+        System.out.println("KSSnapshot, with");
+        KSSnapshot instance = puzzle.snapshot();
+        int digit = Integer.numberOfTrailingZeros(instance.getCandidates(0)) + 1;
+        KSSnapshot result = instance.with(0, digit);
+        assertAll(
+                () -> assertEquals(digit, result.get(0), "result"),
+                () -> assertEquals(KSCell.EMPTY, instance.get(0), "original"),
+                () -> assertEquals(0, result.getCandidates(1) & KSConstraints.bit(digit),
+                        "digit used in row"),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> result.with(0, digit), "not empty"),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> result.with(1, digit), "not a candidate")
+        );
+    }
+
+    /**
+     * Test of propagate, on a solution with a few cells emptied,
+     * and on an inconsistent state.
+     */
+    @Test
+    public void testPropagate() {
+        System.out.println("KSSnapshot, propagate");
+        assertTrue(new DancingLinksSolver(puzzle).solve());
+        String solution = puzzle.snapshot().toString();
+        puzzle.getCell(0, 0).setState(KSCell.EMPTY);
+        puzzle.getCell(4, 4).setState(KSCell.EMPTY);
+        puzzle.getCell(8, 8).setState(KSCell.EMPTY);
+        KSSnapshot instance = puzzle.snapshot();
+        KSSnapshot result = instance.propagate();
+        assertAll(
+                () -> assertEquals(solution, result.toString(), "filled in"),
+                () -> assertEquals(3, instance.getEmptyCount(), "original")
+        );
+
+        puzzle.getCell(0, 0).setState(puzzle.getCell(0, 1).getValue());
+        assertNull(puzzle.snapshot().propagate(), "inconsistent");
+    }
+
+    /**
+     * Test of with and propagate from several threads at once: each thread
+     * gets its own state, and the shared snapshot stays unchanged.
+     */
+    @Test
+    public void testConcurrent() {
+        System.out.println("KSSnapshot, concurrent");
+        KSSnapshot instance = puzzle.snapshot();
+        String before = instance.toString();
+        int candidates = instance.getCandidates(0);
+        List<String> results = IntStream.rangeClosed(1, KSConstraints.DIGITS).parallel()
+                .filter(digit -> (candidates & KSConstraints.bit(digit)) != 0)
+                .mapToObj(digit -> instance.with(0, digit).propagate())
+                .map(state -> state == null ? "dead end" : state.toString())
+                .collect(Collectors.toList());
+        assertEquals(Integer.bitCount(candidates), results.size());
+        for (String result : results) {
+            assertTrue("dead end".equals(result) || result.charAt(0) != '.', result);
+        }
+        assertEquals(before, instance.toString(), "unchanged");
+    }
+}
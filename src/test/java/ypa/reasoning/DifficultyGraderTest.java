@@ -0,0 +1,120 @@
+package ypa.reasoning;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.List;
+import java.util.Scanner;
+
+import ypa.model.KSPuzzle;
+import ypa.solvers.DancingLinksSolver;
+import ypa.reasoning.DifficultyGrader.Technique;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for {@link DifficultyGrader}.
+ */
+public class DifficultyGraderTest {
+
+    /**
+     * Loads a killer sudoku from the "puzzles" folder.
+     */
+    private static KSPuzzle load(final String name) throws FileNotFoundException {
+        return new KSPuzzle(new Scanner(new File("puzzles/" + name)), name);
+    }
+
+    /**
+     * Test of constructor of DifficultyGrader.
+     */
+    @Test
+    public void testConstructor() {
+        System.out.println("DifficultyGrader constructor");
+        Throwable e = assertThrows(IllegalArgumentException.class, () -> {
+            new DifficultyGrader(null);
+        });
+        assertNotNull(e.getMessage(), "Message should not be null");
+    }
+
+    /**
+     * Test of grade method, on the example puzzles: the steps per technique,
+     * the score, and the hardest technique are as expected, and the puzzle
+     * is left unchanged.
+     *
+     * @param name  the file name of the puzzle
+     * @param singles  the expected number of steps with singles
+     * @param rule45  the expected number of steps with the rule of 45
+     * @param contradiction  the expected number of steps by contradiction
+     * @param score  the expected score
+     * @param hardest  the expected hardest technique
+     */
+    @ParameterizedTest
+    @CsvSource({
+        "puzzle1.zgr, 6, 2, 5, 62, CONTRADICTION",
+        "puzzle2.zgr, 3, 2, 1, 19, CONTRADICTION",
+        "puzzle3.zgr, 2, 2, 0,  8, RULE_OF_45",
+        "puzzle4.zgr, 2, 1, 1, 15, CONTRADICTION"
+    })
+    public void testGrade(final String name, final int singles, final int rule45,
+            final int contradiction, final int score, final Technique hardest)
+            throws FileNotFoundException {
+        System.out.println("grade " + name);
+        KSPuzzle puzzle = load(name);
+        String before = puzzle.toCompactGrid().toString();
+        DifficultyGrader instance = new DifficultyGrader(puzzle);
+        boolean result = instance.grade();
+        System.out.println(name + ": " + result + " " + instance);
+        assertAll(
+                () -> assertTrue(result, "solved by the ladder"),
+                () -> assertEquals(result, instance.isSolved(), "isSolved"),
+                () -> assertEquals(singles, instance.getCount(Technique.SINGLES), "singles"),
+                () -> assertEquals(rule45, instance.getCount(Technique.RULE_OF_45), "rule of 45"),
+                () -> assertEquals(contradiction, instance.getCount(Technique.CONTRADICTION),
+                        "contradiction"),
+                () -> assertEquals(score, instance.getScore(), "score"),
+                () -> assertEquals(hardest, instance.getHardest(), "hardest"),
+                () -> assertEquals(before, puzzle.toCompactGrid().toString(), "unchanged")
+        );
+    }
+
+    /**
+     * Test of grade method: the ladder starts at the bottom, and grading
+     * again gives the same steps.
+     */
+    @Test
+    public void testGradeSteps() throws FileNotFoundException {
+        System.out.println("grade, steps");
+        KSPuzzle puzzle = load("puzzle3.zgr");
+        DifficultyGrader instance = new DifficultyGrader(puzzle);
+        instance.grade();
+        List<Technique> steps = List.copyOf(instance.getSteps());
+        instance.grade();
+        assertAll(
+                () -> assertEquals(steps, instance.getSteps(), "same steps"),
+                () -> assertEquals(Technique.SINGLES, steps.get(steps.size() - 1),
+                        "singles finish the puzzle"),
+                () -> assertEquals("score=8 SINGLES=2 RULE_OF_45=2 CONTRADICTION=0",
+                        instance.toString(), "toString")
+        );
+    }
+
+    /**
+     * Test of grade method, on a full grid: no steps are needed.
+     */
+    @Test
+    public void testGradeSolved() throws FileNotFoundException {
+        System.out.println("grade solved");
+        KSPuzzle puzzle = load("puzzle1.zgr");
+        DifficultyGrader instance = new DifficultyGrader(puzzle);
+        instance.grade();
+        new DancingLinksSolver(puzzle).solve();
+        assertAll(
+                () -> assertTrue(instance.grade(), "return value"),
+                () -> assertEquals(0, instance.getScore(), "score"),
+                () -> assertNull(instance.getHardest(), "hardest")
+        );
+    }
+}
@@ -1,64 +1,72 @@
-//package ypa.reasoning;
-//
-//import org.junit.jupiter.api.BeforeEach;
-//import org.junit.jupiter.api.Test;
-//
-//import ypa.command.CompoundCommand;
-//import ypa.model.KCell;
-//import ypa.model.KPuzzle;
-//import ypa.reasoning.EmptyCellReasoner;
-//
-//import java.util.Scanner;
-//
-//import static org.junit.jupiter.api.Assertions.*;
-//
-///**
-// * Test cases for {@link EmptyCellReasoner}.
-// *
-// * @author wstomv
-// */
-//public class EmptyCellReasonerTest {
-//
-//    private KPuzzle puzzle;
-//
-//    @BeforeEach
-//    public void setUp() {
-//        puzzle = new KPuzzle(new Scanner(ReasonerTest.PUZZLE), "Test");
-//    }
-//
-//    /**
-//     * Test of applyToCell method, of class EmptyCellReasoner.
-//     */
-//    @Test
-//    public void testApplyToCell() {
-//        System.out.println("applyToCell");
-//        EmptyCellReasoner instance = new EmptyCellReasonerImpl(puzzle);
-//        KCell cell = puzzle.getCell(1, 1);
-//        CompoundCommand result = instance.applyToCell(cell);
-//        assertAll(
-//                () -> assertEquals(0, result.size(), "result.size()"),
-//                () -> assertFalse(result.isExecuted(), "result.executed")
-//        );
-//    }
-//
-//    /**
-//     * Test of apply method, of class EmptyCellReasoner.
-//     */
-//    @Test
-//    public void testApply() {
-//        System.out.println("apply");
-//        EmptyCellReasoner instance = new EmptyCellReasonerImpl(puzzle);
-//        CompoundCommand result = instance.apply();
-//        assertAll(
-//                () -> assertEquals(0, result.size(), "result.size()"),
-//                () -> assertTrue(result.isExecuted(), "result.executed")
-//        );
-//    }
-//
-//    private static class EmptyCellReasonerImpl extends EmptyCellReasoner {
-//        public EmptyCellReasonerImpl(KPuzzle puzzle) {
-//            super(puzzle);
-//        }
-//    }
-//
-//}
+package ypa.reasoning;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.Scanner;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ypa.command.CompoundCommand;
+import ypa.model.KSCell;
+import ypa.model.KSPuzzle;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for {@link EmptyCellReasoner}.
+ *
+ * @author wstomv
+ */
+public class EmptyCellReasonerTest {
+
+    private KSPuzzle puzzle;
+
+    /**
+     * Load in the example killer sudoku for testing.
+     */
+    @BeforeEach
+    public void setUp() {
+        try {
+            puzzle = new KSPuzzle(new Scanner(new File("puzzles/puzzle1.zgr")), "Test");
+        } catch (FileNotFoundException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Test of applyToCell method, of class EmptyCellReasoner.
+     */
+    @Test
+    public void testApplyToCell() {
+        System.out.println("applyToCell");
+        EmptyCellReasoner instance = new EmptyCellReasonerImpl(puzzle);
+        KSCell cell = puzzle.getCell(1, 1);
+        CompoundCommand result = instance.applyToCell(cell);
+        assertAll(
+                () -> assertEquals(0, result.size(), "result.size()"),
+                () -> assertFalse(result.isExecuted(), "result.executed")
+        );
+    }
+
+    /**
+     * Test of apply method, of class EmptyCellReasoner.
+     */
+    @Test
+    public void testApply() {
+        System.out.println("apply");
+        EmptyCellReasoner instance = new EmptyCellReasonerImpl(puzzle);
+        CompoundCommand result = instance.apply();
+        assertAll(
+                () -> assertEquals(0, result.size(), "result.size()"),
+                () -> assertTrue(result.isExecuted(), "result.executed")
+        );
+    }
+
+    private static class EmptyCellReasonerImpl extends EmptyCellReasoner {
+        public EmptyCellReasonerImpl(KSPuzzle puzzle) {
+            super(puzzle);
+        }
+    }
+
+}
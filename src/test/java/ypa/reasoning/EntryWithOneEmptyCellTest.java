@@ -1,76 +1,108 @@
-//package ypa.reasoning;
-//
-//import org.junit.jupiter.api.BeforeEach;
-//import org.junit.jupiter.api.Test;
-//
-//import ypa.command.CompoundCommand;
-//import ypa.model.KCell;
-//import ypa.model.KPuzzle;
-//import ypa.reasoning.EntryWithOneEmptyCell;
-//
-//import java.util.Scanner;
-//
-//import static org.junit.jupiter.api.Assertions.*;
-//
-///**
-// * Test cases for {@link EntryWithOneEmptyCell}.
-// *
-// * @author wstomv
-// */
-//public class EntryWithOneEmptyCellTest {
-//
-//    private KPuzzle puzzle;
-//
-//    /**
-//     * Prepares each test case.
-//     */
-//    @BeforeEach
-//    public void setUp() {
-//        puzzle = new KPuzzle(new Scanner(ReasonerTest.PUZZLE), "Test");
-//        System.out.println(puzzle);
-//        System.out.println(puzzle.gridAsString());
-//    }
-//
-//    /**
-//     * Test of applyToCell method, of class EntryWithOneEmptyCell.
-//     */
-//    @Test
-//    public void testApplyToCell() {
-//        System.out.println("applyToCell");
-//        KCell cell11 = puzzle.getCell(1, 1);
-//        cell11.setState(1);
-//        KCell cell12 = puzzle.getCell(1, 2);
-//        EntryWithOneEmptyCell instance = new EntryWithOneEmptyCell(puzzle);
-//        System.out.println(puzzle.gridAsString());
-//        CompoundCommand result = instance.applyToCell(cell12);
-//        System.out.println(puzzle.gridAsString());
-//        assertAll(
-//                () -> assertEquals(1, result.size(), "result.size()"),
-//                () -> assertFalse(result.isExecuted(), "result.executed"),
-//                () -> assertEquals(1, cell11.getState(), "cell 1, 1 state"),
-//                () -> assertEquals(KCell.EMPTY, cell12.getState(), "cell 1, 2 state")
-//        );
-//    }
-//
-//    /**
-//     * Test of apply method, of class EntryWithOneEmptyCell.
-//     */
-//    @Test
-//    public void testApply() {
-//        System.out.println("apply");
-//        KCell cell11 = puzzle.getCell(1, 1);
-//        cell11.setState(1);
-//        KCell cell12 = puzzle.getCell(1, 2);
-//        EntryWithOneEmptyCell instance = new EntryWithOneEmptyCell(puzzle);
-//        System.out.println(puzzle.gridAsString());
-//        CompoundCommand result = instance.apply();
-//        System.out.println(puzzle.gridAsString());
-//        assertAll(
-//                () -> assertEquals(1, result.size(), "result.size()"),
-//                () -> assertTrue(result.isExecuted(), "result.executed"),
-//                () -> assertEquals(1, cell11.getState(), "cell 1, 1 state"),
-//                () -> assertEquals(2, cell12.getState(), "new cell 1, 2 state")
-//        );
-//    }
-//
-//}
+package ypa.reasoning;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.Scanner;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ypa.command.CompoundCommand;
+import ypa.model.KSCell;
+import ypa.model.KSConstraints;
+import ypa.model.KSPuzzle;
+import ypa.solvers.DancingLinksSolver;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for {@link EntryWithOneEmptyCell}.
+ *
+ * @author wstomv
+ */
+public class EntryWithOneEmptyCellTest {
+
+    private KSPuzzle puzzle;
+
+    private KSPuzzle solved;
+
+    /**
+     * Prepares each test case: the first row is filled in,
+     * except for its last cell.
+     */
+    @BeforeEach
+    public void setUp() {
+        try {
+            puzzle = new KSPuzzle(new Scanner(new File("puzzles/puzzle1.zgr")), "Test");
+            solved = new KSPuzzle(new Scanner(new File("puzzles/puzzle1.zgr")), "Solved");
+        } catch (FileNotFoundException e) {
+            e.printStackTrace();
+        }
+        new DancingLinksSolver(solved).solve();
+        for (int j = 0; j < 8; j++) {
+            puzzle.getCell(0, j).setState(solved.getCell(0, j).getValue());
+        }
+    }
+
+    /**
+     * Test of applyToCell method, of class EntryWithOneEmptyCell.
+     */
+    @Test
+    public void testApplyToCell() {
+        System.out.println("applyToCell");
+        KSCell cell08 = puzzle.getCell(0, 8);
+        EntryWithOneEmptyCell instance = new EntryWithOneEmptyCell(puzzle);
+        CompoundCommand result = instance.applyToCell(cell08);
+        assertAll(
+                () -> assertEquals(1, result.size(), "result.size()"),
+                () -> assertFalse(result.isExecuted(), "result.executed"),
+                () -> assertEquals(KSCell.EMPTY, cell08.getState(), "cell 0, 8 state")
+        );
+    }
+
+    /**
+     * Test of apply method, of class EntryWithOneEmptyCell.
+     */
+    @Test
+    public void testApply() {
+        System.out.println("apply");
+        KSCell cell08 = puzzle.getCell(0, 8);
+        EntryWithOneEmptyCell instance = new EntryWithOneEmptyCell(puzzle);
+        CompoundCommand result = instance.apply();
+        assertAll(
+                () -> assertEquals(1, result.size(), "result.size()"),
+                () -> assertTrue(result.isExecuted(), "result.executed"),
+                () -> assertEquals(solved.getCell(0, 8).getValue(), cell08.getState(),
+                        "new cell 0, 8 state")
+        );
+    }
+
+    /**
+     * Test of apply method, for a single unit.
+     */
+    @Test
+    public void testApplyUnit() {
+        System.out.println("apply, single unit");
+        EntryWithOneEmptyCell column = new EntryWithOneEmptyCell(puzzle,
+                KSConstraints.FIRST_COLUMN_UNIT + 8);
+        EntryWithOneEmptyCell row = new EntryWithOneEmptyCell(puzzle, KSConstraints.FIRST_ROW_UNIT);
+        assertAll(
+                () -> assertArrayEquals(new int[] {KSConstraints.FIRST_ROW_UNIT}, row.getUnits()),
+                () -> assertEquals(0, column.apply().size(), "column has 9 empty cells"),
+                () -> assertEquals(1, row.apply().size(), "row has 1 empty cell")
+        );
+    }
+
+    /**
+     * Test of constructor for a single unit, with a unit out of range.
+     */
+    @Test
+    public void testConstructorInvalidUnit() {
+        System.out.println("EntryWithOneEmptyCell constructor, invalid unit");
+        Throwable e = assertThrows(IllegalArgumentException.class, () -> {
+            new EntryWithOneEmptyCell(puzzle, KSConstraints.UNIT_COUNT);
+        });
+        assertNotNull(e.getMessage(), "Message should not be null");
+    }
+
+}
@@ -1,109 +1,195 @@
-//package ypa.reasoning;
-//
-//import org.junit.jupiter.api.BeforeEach;
-//import org.junit.jupiter.api.Test;
-//
-//import ypa.command.CompoundCommand;
-//import ypa.model.KCell;
-//import ypa.model.KPuzzle;
-//import ypa.reasoning.EntryWithOneEmptyCell;
-//import ypa.reasoning.FixpointReasoner;
-//import ypa.reasoning.Reasoner;
-//
-//import java.util.Scanner;
-//
-//import static org.junit.jupiter.api.Assertions.*;
-//
-///**
-// * Test cases for {@link FixpointReasoner}.
-// *
-// * @author wstomv
-// */
-//public class FixpointReasonerTest {
-//
-//    private KPuzzle puzzle;
-//
-//    @BeforeEach
-//    public void setUp() {
-//        puzzle = new KPuzzle(new Scanner(ReasonerTest.PUZZLE), "Test");
-//    }
-//
-//    /**
-//     * Test of apply method, of class FixpointReasoner.
-//     */
-//    @Test
-//    public void testApplyEmpty() {
-//        System.out.println("apply empty");
-//        Reasoner reasoner = new EntryWithOneEmptyCell(puzzle);
-//        FixpointReasoner instance = new FixpointReasoner(puzzle, reasoner);
-//        System.out.println(puzzle.gridAsString());
-//        CompoundCommand result = instance.apply();
-//        System.out.println(puzzle.gridAsString());
-//        assertAll(
-//                () -> assertEquals(0, result.size(), "result.size()"),
-//                () -> assertTrue(result.isExecuted(), "result.executed"),
-//                () -> assertFalse(puzzle.isSolved(), "puzzle solved")
-//        );
-//    }
-//
-//    /**
-//     * Test of apply method, of class FixpointReasoner.
-//     */
-//    @Test
-//    public void testApplySolved() {
-//        System.out.println("apply solved");
-//        KCell cell11 = puzzle.getCell(1, 1);
-//        cell11.setState(1);
-//        Reasoner reasoner = new EntryWithOneEmptyCell(puzzle);
-//        FixpointReasoner instance = new FixpointReasoner(puzzle, reasoner);
-//        System.out.println(puzzle.gridAsString());
-//        CompoundCommand result = instance.apply();
-//        System.out.println(puzzle.gridAsString());
-//        assertAll(
-//                () -> assertEquals(3, result.size(), "result.size()"),
-//                () -> assertTrue(result.isExecuted(), "result.executed"),
-//                () -> assertTrue(puzzle.isSolved(), "puzzle solved")
-//        );
-//    }
-//
-//    /**
-//     * Test of apply method, of class FixpointReasoner.
-//     */
-//    @Test
-//    public void testApplyUnsolvable1() {
-//        System.out.println("apply immediately unsolvable");
-//        KCell cell = puzzle.getCell(2, 1);
-//        cell.setState(2);
-//        Reasoner reasoner = new EntryWithOneEmptyCell(puzzle);
-//        FixpointReasoner instance = new FixpointReasoner(puzzle, reasoner);
-//        System.out.println(puzzle.gridAsString());
-//        CompoundCommand result = instance.apply();
-//        System.out.println(puzzle.gridAsString());
-//        assertAll(
-//                () -> assertNull(result, "result null"),
-//                () -> assertFalse(puzzle.isSolved(), "puzzle not solved"),
-//                () -> assertEquals(3, puzzle.getStateCount(KCell.EMPTY), "puzzle unchanged")
-//        );
-//    }
-//
-//    /**
-//     * Test of apply method, of class FixpointReasoner.
-//     */
-//    @Test
-//    public void testApplyUnsolvable2() {
-//        System.out.println("apply indirectly unsolvable");
-//        KCell cell = puzzle.getCell(1, 2);
-//        cell.setState(1);
-//        Reasoner reasoner = new EntryWithOneEmptyCell(puzzle);
-//        FixpointReasoner instance = new FixpointReasoner(puzzle, reasoner);
-//        System.out.println(puzzle.gridAsString());
-//        CompoundCommand result = instance.apply();
-//        System.out.println(puzzle.gridAsString());
-//        assertAll(
-//                () -> assertNull(result, "result null"),
-//                () -> assertFalse(puzzle.isSolved(), "puzzle not solved"),
-//                () -> assertEquals(3, puzzle.getStateCount(KCell.EMPTY), "puzzle unchanged")
-//        );
-//    }
-//
-//}
+package ypa.reasoning;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.Scanner;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ypa.command.CompoundCommand;
+import ypa.model.KSCell;
+import ypa.model.KSConstraints;
+import ypa.model.KSPuzzle;
+import ypa.solvers.DancingLinksSolver;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for {@link FixpointReasoner}.
+ *
+ * @author wstomv
+ */
+public class FixpointReasonerTest {
+
+    private KSPuzzle puzzle;
+
+    private KSPuzzle solved;
+
+    /**
+     * Load in the example killer sudoku and its solution.
+     */
+    @BeforeEach
+    public void setUp() {
+        try {
+            puzzle = new KSPuzzle(new Scanner(new File("puzzles/puzzle1.zgr")), "Test");
+            solved = new KSPuzzle(new Scanner(new File("puzzles/puzzle1.zgr")), "Solved");
+        } catch (FileNotFoundException e) {
+            e.printStackTrace();
+        }
+        new DancingLinksSolver(solved).solve();
+    }
+
+    /**
+     * Fills in the solution, except for the first row and, optionally,
+     * the first column.
+     */
+    private void fillAllButFirstRow(final boolean firstColumn) {
+        for (int i = 1; i < puzzle.getRowCount(); i++) {
+            for (int j = firstColumn ? 1 : 0; j < puzzle.getColumnCount(); j++) {
+                puzzle.getCell(i, j).setState(solved.getCell(i, j).getValue());
+            }
+        }
+    }
+
+    /**
+     * Counts the empty cells of the puzzle.
+     */
+    private int countEmpty() {
+        int result = 0;
+        for (int i = 0; i < KSConstraints.DIGITS; i++) {
+            result += puzzle.getConstraints().count(KSConstraints.FIRST_ROW_UNIT + i,
+                    KSCell.EMPTY);
+        }
+        return result;
+    }
+
+    /**
+     * Test of apply method, of class FixpointReasoner.
+     */
+    @Test
+    public void testApplyEmpty() {
+        System.out.println("apply empty");
+        Reasoner reasoner = new EntryWithOneEmptyCell(puzzle);
+        FixpointReasoner instance = new FixpointReasoner(puzzle, reasoner);
+        CompoundCommand result = instance.apply();
+        assertAll(
+                () -> assertEquals(0, result.size(), "result.size()"),
+                () -> assertTrue(result.isExecuted(), "result.executed"),
+                () -> assertFalse(puzzle.isSolved(puzzle.getCell(0, 0)), "puzzle solved")
+        );
+    }
+
+    /**
+     * Test of apply method, of class FixpointReasoner.
+     */
+    @Test
+    public void testApplySolved() {
+        System.out.println("apply solved");
+        fillAllButFirstRow(false);
+        Reasoner reasoner = new EntryWithOneEmptyCell(puzzle);
+        FixpointReasoner instance = new FixpointReasoner(puzzle, reasoner);
+        CompoundCommand result = instance.apply();
+        assertAll(
+                () -> assertEquals(9, result.size(), "result.size()"),
+                () -> assertTrue(result.isExecuted(), "result.executed"),
+                () -> assertTrue(puzzle.isSolved(puzzle.getCell(0, 0)), "puzzle solved")
+        );
+    }
+
+    /**
+     * Test of apply method, of class FixpointReasoner.
+     */
+    @Test
+    public void testApplyUnsolvable1() {
+        System.out.println("apply immediately unsolvable");
+        fillAllButFirstRow(false);
+        // the digit forced in the first cell is already in the last one
+        puzzle.getCell(0, 8).setState(solved.getCell(0, 0).getValue());
+        Reasoner reasoner = new EntryWithOneEmptyCell(puzzle);
+        FixpointReasoner instance = new FixpointReasoner(puzzle, reasoner);
+        CompoundCommand result = instance.apply();
+        assertAll(
+                () -> assertNull(result, "result null"),
+                () -> assertEquals(8, countEmpty(), "puzzle unchanged")
+        );
+    }
+
+    /**
+     * Test of apply method, of class FixpointReasoner.
+     */
+    @Test
+    public void testApplyUnsolvable2() {
+        System.out.println("apply indirectly unsolvable");
+        fillAllButFirstRow(false);
+        // the digit forced in the eighth cell is already in the last one
+        puzzle.getCell(0, 8).setState(solved.getCell(0, 7).getValue());
+        Reasoner reasoner = new EntryWithOneEmptyCell(puzzle);
+        FixpointReasoner instance = new FixpointReasoner(puzzle, reasoner);
+        CompoundCommand result = instance.apply();
+        assertAll(
+                () -> assertNull(result, "result null"),
+                () -> assertEquals(8, countEmpty(), "puzzle unchanged")
+        );
+    }
+
+    /**
+     * Test of apply method, with a compound reasoner of single-unit reasoners:
+     * the worklist reaches the same fixpoint as repeating the compound
+     * reasoner, with fewer applications of its reasoners.
+     */
+    @Test
+    public void testApplyWorklist() throws FileNotFoundException {
+        System.out.println("apply worklist");
+        fillAllButFirstRow(true);
+        KSPuzzle naive = new KSPuzzle(new Scanner(new File("puzzles/puzzle1.zgr")), "Naive");
+        for (int i = 0; i < puzzle.getRowCount(); i++) {
+            for (int j = 0; j < puzzle.getColumnCount(); j++) {
+                naive.getCell(i, j).setState(puzzle.getCell(i, j).getValue());
+            }
+        }
+
+        FixpointReasoner instance = new FixpointReasoner(puzzle, unitReasoners(puzzle, null));
+        CompoundCommand result = instance.apply();
+
+        final long[] naiveCount = new long[1];
+        CompoundReasoner compound = unitReasoners(naive, naiveCount);
+        int naiveSize = 0;
+        for (CompoundCommand c = compound.apply(); c.size() > 0; c = compound.apply()) {
+            naiveSize += c.size();
+        }
+
+        final int size = naiveSize;
+        assertAll(
+                () -> assertEquals(17, result.size(), "result.size()"),
+                () -> assertEquals(size, result.size(), "same as naive"),
+                () -> assertTrue(puzzle.isSolved(puzzle.getCell(0, 0)), "puzzle solved"),
+                () -> assertTrue(instance.getInvocationCount() < naiveCount[0],
+                        instance.getInvocationCount() + " < " + naiveCount[0])
+        );
+    }
+
+    /**
+     * Makes a compound reasoner with an {@link EntryWithOneEmptyCell}
+     * reasoner for each unit.
+     *
+     * @param p  the puzzle
+     * @param count  where to count applications of the unit reasoners, or null
+     */
+    private static CompoundReasoner unitReasoners(final KSPuzzle p, final long[] count) {
+        CompoundReasoner result = new CompoundReasoner(p);
+        for (int unit = 0; unit < KSConstraints.UNIT_COUNT; unit++) {
+            result.add(new EntryWithOneEmptyCell(p, unit) {
+                @Override
+                public CompoundCommand apply() {
+                    if (count != null) {
+                        count[0]++;
+                    }
+                    return super.apply();
+                }
+            });
+        }
+        return result;
+    }
+
+}
@@ -1,76 +1,86 @@
-//package ypa.reasoning;
-//
-//import org.junit.jupiter.api.BeforeEach;
-//import org.junit.jupiter.api.Test;
-//
-//import ypa.command.CompoundCommand;
-//import ypa.model.KCell;
-//import ypa.model.KPuzzle;
-//import ypa.reasoning.EmptyCellReasoner;
-//import ypa.reasoning.EntryWithOneEmptyCell;
-//import ypa.reasoning.GeneralizedEmptyCellByContradiction;
-//import ypa.reasoning.Reasoner;
-//
-//import java.util.Scanner;
-//
-//import static org.junit.jupiter.api.Assertions.*;
-//
-///**
-// * Test cases for {@link GeneralizedEmptyCellByContradiction}.
-// *
-// * @author wstomv
-// */
-//public class GeneralizedEmptyCellByContradictionTest {
-//
-//    private KPuzzle puzzle;
-//
-//    /**
-//     * Prepares each test case.
-//     */
-//    @BeforeEach
-//    public void setUp() {
-//        puzzle = new KPuzzle(new Scanner(ReasonerTest.PUZZLE), "Test");
-//        System.out.println(puzzle);
-//        System.out.println(puzzle.gridAsString());
-//    }
-//
-//    /**
-//     * Test of applyToCell method, of class EntryWithOneEmptyCell.
-//     */
-//    @Test
-//    public void testApplyToCell() {
-//        System.out.println("applyToCell");
-//        KCell cell11 = puzzle.getCell(1, 1);
-//        cell11.setState(1);
-//        KCell cell12 = puzzle.getCell(1, 2);
-//        Reasoner reasoner = new EntryWithOneEmptyCell(puzzle);
-//        EmptyCellReasoner instance = new GeneralizedEmptyCellByContradiction(puzzle, reasoner);
-//        System.out.println(puzzle.gridAsString());
-//        CompoundCommand result = instance.applyToCell(cell12);
-//        System.out.println(puzzle.gridAsString());
-//        assertAll(
-//                () -> assertEquals(1, result.size(), "result.size()"),
-//                () -> assertFalse(result.isExecuted(), "result.executed"),
-//                () -> assertEquals(1, cell11.getState(), "cell 1, 1 state"),
-//                () -> assertEquals(KCell.EMPTY, cell12.getState(), "cell 1, 2 state")
-//        );
-//    }
-//
-//    /**
-//     * Test of apply method, of class EntryWithOneEmptyCell.
-//     */
-//    @Test
-//    public void testApply() {
-//        System.out.println("apply");
-//        Reasoner reasoner = new EntryWithOneEmptyCell(puzzle);
-//        EmptyCellReasoner instance = new GeneralizedEmptyCellByContradiction(puzzle, reasoner);
-//        System.out.println(puzzle.gridAsString());
-//        CompoundCommand result = instance.apply();
-//        System.out.println(puzzle.gridAsString());
-//        assertAll(
-//                () -> assertEquals(1, result.size(), "result.size()"),
-//                () -> assertTrue(result.isExecuted(), "result.executed")
-//        );
-//    }
-//
-//}
+package ypa.reasoning;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.Scanner;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ypa.command.CompoundCommand;
+import ypa.model.KSCell;
+import ypa.model.KSPuzzle;
+import ypa.solvers.DancingLinksSolver;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for {@link GeneralizedEmptyCellByContradiction}.
+ *
+ * @author wstomv
+ */
+public class GeneralizedEmptyCellByContradictionTest {
+
+    private KSPuzzle puzzle;
+
+    private KSPuzzle solved;
+
+    /**
+     * Prepares each test case: the solution is filled in,
+     * except for the last two cells of the first row.
+     */
+    @BeforeEach
+    public void setUp() {
+        try {
+            puzzle = new KSPuzzle(new Scanner(new File("puzzles/puzzle1.zgr")), "Test");
+            solved = new KSPuzzle(new Scanner(new File("puzzles/puzzle1.zgr")), "Solved");
+        } catch (FileNotFoundException e) {
+            e.printStackTrace();
+        }
+        new DancingLinksSolver(solved).solve();
+        for (int i = 0; i < puzzle.getRowCount(); i++) {
+            for (int j = 0; j < puzzle.getColumnCount(); j++) {
+                if (i > 0 || j < 7) {
+                    puzzle.getCell(i, j).setState(solved.getCell(i, j).getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * Test of applyToCell method, of class GeneralizedEmptyCellByContradiction.
+     */
+    @Test
+    public void testApplyToCell() {
+        System.out.println("applyToCell");
+        KSCell cell07 = puzzle.getCell(0, 7);
+        Reasoner reasoner = new EntryWithOneEmptyCell(puzzle);
+        EmptyCellReasoner instance = new GeneralizedEmptyCellByContradiction(puzzle, reasoner);
+        CompoundCommand result = instance.applyToCell(cell07);
+        assertAll(
+                () -> assertEquals(1, result.size(), "result.size()"),
+                () -> assertFalse(result.isExecuted(), "result.executed"),
+                () -> assertEquals(KSCell.EMPTY, cell07.getState(), "cell 0, 7 state"),
+                () -> assertEquals(KSCell.EMPTY, puzzle.getCell(0, 8).getState(),
+                        "cell 0, 8 state")
+        );
+    }
+
+    /**
+     * Test of apply method, of class GeneralizedEmptyCellByContradiction.
+     */
+    @Test
+    public void testApply() {
+        System.out.println("apply");
+        Reasoner reasoner = new EntryWithOneEmptyCell(puzzle);
+        EmptyCellReasoner instance = new GeneralizedEmptyCellByContradiction(puzzle, reasoner);
+        CompoundCommand result = instance.apply();
+        assertAll(
+                () -> assertEquals(1, result.size(), "result.size()"),
+                () -> assertTrue(result.isExecuted(), "result.executed"),
+                () -> assertEquals(solved.getCell(0, 7).getValue(),
+                        puzzle.getCell(0, 7).getValue(), "cell 0, 7 state")
+        );
+    }
+
+}
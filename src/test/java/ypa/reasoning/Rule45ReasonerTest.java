@@ -8,9 +8,12 @@ import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import static org.junit.jupiter.api.Assertions.*;
 import ypa.command.CompoundCommand;
 import ypa.model.KSCell;
+import ypa.model.KSConstraints;
 import ypa.model.KSPuzzle;
 import ypa.solvers.BacktrackSolver;
 
@@ -58,5 +61,136 @@ public class Rule45ReasonerTest {
             }
         }
     }
-    
+
+    /**
+     * Test the constructor with puzzle == null.
+     */
+    @Test
+    public void testConstructorWithNullPuzzle() {
+        System.out.println("Rule45Reasoner constructor, puzzle == null");
+        Throwable e = assertThrows(IllegalArgumentException.class, () -> {
+            new Rule45Reasoner(null);
+        });
+        assertNotNull(e.getMessage(), "Message should not be null");
+    }
+
+    /**
+     * Test of apply method: the cells filled in agree with the solution.
+     */
+    @Test
+    public void testApply() throws FileNotFoundException {
+        System.out.println("Rule45Reasoner apply");
+        puzzle = new KSPuzzle(new Scanner(new File("puzzles/puzzle2.zgr")), "puzzle2");
+        KSPuzzle solved = new KSPuzzle(new Scanner(new File("puzzles/puzzle2.zgr")), "solved");
+        assertTrue(new BacktrackSolver(solved, null).solve());
+
+        CompoundCommand result = new Rule45Reasoner(puzzle).apply();
+        assertNotNull(result, "no contradiction");
+        assertTrue(result.size() > 0, "some cells filled in");
+        assertTrue(result.isExecuted(), "executed");
+        for (int i = 0; i < puzzle.getRowCount(); i++) {
+            for (int j = 0; j < puzzle.getColumnCount(); j++) {
+                int value = puzzle.getCell(i, j).getValue();
+                if (value != KSCell.EMPTY) {
+                    assertEquals(solved.getCell(i, j).getValue(), value, "at " + i + ", " + j);
+                }
+            }
+        }
+    }
+
+    /**
+     * Test of apply method, when a filled in cell violates a sum constraint.
+     */
+    @Test
+    public void testApplyContradiction() throws FileNotFoundException {
+        System.out.println("Rule45Reasoner apply, contradiction");
+        puzzle = new KSPuzzle(new Scanner(new File("puzzles/puzzle2.zgr")), "puzzle2");
+        Rule45Reasoner instance = new Rule45Reasoner(puzzle);
+        CompoundCommand result = instance.apply();
+        KSCell cell = result.getCells().iterator().next();
+        int value = cell.getValue();
+        result.revert();
+        cell.setState(value % 9 + 1);
+        String before = puzzle.toString();
+
+        assertAll(
+                () -> assertNull(instance.apply(), "return value"),
+                () -> assertEquals(before, puzzle.toString(), "puzzle not modified")
+        );
+    }
+
+    /**
+     * Test of BacktrackSolver with a rule of 45 reasoner.
+     */
+    @Test
+    public void testBacktrackSolver() throws FileNotFoundException {
+        System.out.println("Rule45Reasoner in BacktrackSolver");
+        puzzle = new KSPuzzle(new Scanner(new File("puzzles/puzzle2.zgr")), "puzzle2");
+        BacktrackSolver solver = new BacktrackSolver(puzzle, new Rule45Reasoner(puzzle));
+
+        assertTrue(solver.solve(), "solved");
+        for (int i = 0; i < puzzle.getRowCount(); i++) {
+            for (int j = 0; j < puzzle.getColumnCount(); j++) {
+                assertTrue(puzzle.isSolved(puzzle.getCell(i, j)), "at " + i + ", " + j);
+            }
+        }
+    }
+
+    /**
+     * Test of perConstraint: each reasoner depends on fewer units than the
+     * whole rule, and a {@link FixpointReasoner} over them reaches the same
+     * fixpoint as over the whole rule. All constraints are checked once;
+     * after that, only those involving a changed unit are checked again,
+     * whereas the whole rule checks all of them after every change.
+     *
+     * @param name  the file name of the puzzle
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"puzzle2.zgr", "puzzle3.zgr", "puzzle4.zgr"})
+    public void testPerConstraint(final String name) throws FileNotFoundException {
+        System.out.println("Rule45Reasoner perConstraint " + name);
+        puzzle = new KSPuzzle(new Scanner(new File("puzzles/" + name)), name);
+        KSPuzzle whole = new KSPuzzle(puzzle);
+        Rule45Reasoner rule45 = new Rule45Reasoner(whole);
+        CompoundCommand wholeResult = new FixpointReasoner(whole, rule45).apply();
+
+        CompoundReasoner compound = Rule45Reasoner.perConstraint(puzzle);
+        CompoundCommand result = new FixpointReasoner(puzzle, compound).apply();
+        long checks = 0;
+        for (Reasoner part : compound.getReasoners()) {
+            assertTrue(part.getUnits().length < rule45.getUnits().length, "fewer units");
+            checks += ((Rule45Reasoner) part).getCheckCount();
+        }
+        System.out.println(checks + " checks instead of " + rule45.getCheckCount());
+
+        final long recheckCount = checks - compound.getReasoners().size();
+        final long wholeRecheckCount = rule45.getCheckCount() - compound.getReasoners().size();
+        assertAll(
+                () -> assertTrue(wholeResult.size() > 0, "progress"),
+                () -> assertEquals(wholeResult.size(), result.size(), "same as whole"),
+                () -> assertEquals(whole.toCompactGrid().toString(),
+                        puzzle.toCompactGrid().toString(), "same fixpoint"),
+                () -> assertTrue(2 * recheckCount < wholeRecheckCount,
+                        recheckCount + " rechecks, far fewer than " + wholeRecheckCount)
+        );
+    }
+
+    /**
+     * Test of getUnits: the units are distinct, in increasing order,
+     * and in range, and the result is a copy.
+     */
+    @Test
+    public void testGetUnits() {
+        System.out.println("Rule45Reasoner getUnits");
+        Rule45Reasoner reasoner = new Rule45Reasoner(puzzle);
+        int[] units = reasoner.getUnits();
+        assertTrue(units.length > 0, "some units");
+        for (int i = 0; i < units.length; i++) {
+            assertTrue(0 <= units[i] && units[i] < KSConstraints.UNIT_COUNT, "in range");
+            assertTrue(i == 0 || units[i - 1] < units[i], "increasing");
+        }
+        units[0] = -1;
+        assertNotEquals(-1, reasoner.getUnits()[0], "copy");
+    }
+
 }
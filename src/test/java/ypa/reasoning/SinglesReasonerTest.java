@@ -0,0 +1,135 @@
+package ypa.reasoning;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.Scanner;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+import ypa.command.CompoundCommand;
+import ypa.model.KSCell;
+import ypa.model.KSPuzzle;
+import ypa.solvers.BacktrackSolver;
+import ypa.solvers.DancingLinksSolver;
+import ypa.solvers.StandardCellSelector;
+
+/**
+ * Test cases for {@link SinglesReasoner}.
+ */
+public class SinglesReasonerTest {
+
+    private KSPuzzle puzzle;
+
+    /**
+     * Load in the example killer sudoku for testing.
+     */
+    @BeforeEach
+    void setUp() {
+        try {
+            puzzle = load("puzzle1.zgr");
+        } catch (FileNotFoundException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Loads a killer sudoku from the "puzzles" folder.
+     */
+    private static KSPuzzle load(final String name) throws FileNotFoundException {
+        return new KSPuzzle(new Scanner(new File("puzzles/" + name)), name);
+    }
+
+    /**
+     * Test the constructor with puzzle == null.
+     */
+    @Test
+    public void testConstructorWithNullPuzzle() {
+        System.out.println("SinglesReasoner constructor, puzzle == null");
+        Throwable e = assertThrows(IllegalArgumentException.class, () -> {
+            new SinglesReasoner(null);
+        });
+        assertNotNull(e.getMessage(), "Message should not be null");
+    }
+
+    /**
+     * Test of apply method: every cell filled in agrees with the solution,
+     * and a second application finds nothing new.
+     */
+    @Test
+    public void testApply() throws FileNotFoundException {
+        System.out.println("SinglesReasoner apply");
+        KSPuzzle solved = load("puzzle1.zgr");
+        assertTrue(new DancingLinksSolver(solved).solve());
+        // fill in the top left nonet, except its top left cell
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                if (i + j > 0) {
+                    puzzle.getCell(i, j).setState(solved.getCell(i, j).getValue());
+                }
+            }
+        }
+        SinglesReasoner instance = new SinglesReasoner(puzzle);
+
+        CompoundCommand result = instance.apply();
+        assertNotNull(result, "no contradiction");
+        assertNotEquals(KSCell.EMPTY, puzzle.getCell(0, 0).getValue(), "naked single");
+        for (int i = 0; i < puzzle.getRowCount(); i++) {
+            for (int j = 0; j < puzzle.getColumnCount(); j++) {
+                int value = puzzle.getCell(i, j).getValue();
+                if (value != KSCell.EMPTY) {
+                    assertEquals(solved.getCell(i, j).getValue(), value, "at " + i + ", " + j);
+                }
+            }
+        }
+        assertEquals(0, instance.apply().size(), "fixpoint reached");
+
+        result.revert();
+        assertEquals(KSCell.EMPTY, puzzle.getCell(0, 0).getValue(), "reverted");
+        assertEquals(result.size(), instance.apply().size(), "singles found again");
+    }
+
+    /**
+     * Test of apply method, from a state that cannot be completed.
+     */
+    @Test
+    public void testApplyContradiction() {
+        System.out.println("SinglesReasoner apply, contradiction");
+        // two 1s in the first row leave too few cells for the missing digits
+        puzzle.getCell(0, 0).setState(1);
+        puzzle.getCell(0, 1).setState(1);
+        String before = puzzle.toString();
+        SinglesReasoner instance = new SinglesReasoner(puzzle);
+
+        assertAll(
+                () -> assertNull(instance.apply(), "return value"),
+                () -> assertEquals(before, puzzle.toString(), "puzzle not modified")
+        );
+    }
+
+    /**
+     * Test of BacktrackSolver with a singles reasoner: it solves the example
+     * puzzles with fewer search nodes than without.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"puzzle1.zgr", "puzzle2.zgr", "puzzle3.zgr", "puzzle4.zgr"})
+    public void testBacktrackSolver(final String name) throws FileNotFoundException {
+        System.out.println("SinglesReasoner in BacktrackSolver " + name);
+        KSPuzzle plain = load(name);
+        BacktrackSolver without = new BacktrackSolver(plain, null,
+                StandardCellSelector.MINIMUM_REMAINING_VALUES);
+        assertTrue(without.solve());
+
+        KSPuzzle reasoned = load(name);
+        BacktrackSolver with = new BacktrackSolver(reasoned, new SinglesReasoner(reasoned),
+                StandardCellSelector.MINIMUM_REMAINING_VALUES);
+        assertTrue(with.solve(), "return value");
+        assertEquals(plain.toCompactGrid().toString(), reasoned.toCompactGrid().toString());
+        assertTrue(with.getNodeCount() < without.getNodeCount(),
+                with.getNodeCount() + " < " + without.getNodeCount());
+    }
+
+}
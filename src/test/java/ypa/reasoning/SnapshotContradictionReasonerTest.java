@@ -0,0 +1,87 @@
+package ypa.reasoning;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.Scanner;
+
+import ypa.command.CompoundCommand;
+import ypa.model.KSCell;
+import ypa.model.KSPuzzle;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for {@link SnapshotContradictionReasoner}.
+ */
+public class SnapshotContradictionReasonerTest {
+
+    private KSPuzzle puzzle;
+
+    /**
+     * Load in the example killer sudoku.
+     */
+    @BeforeEach
+    void setUp() throws FileNotFoundException {
+        puzzle = new KSPuzzle(new Scanner(new File("puzzles/puzzle1.zgr")), "TestPuzzle");
+    }
+
+    /**
+     * Test of apply method: fills in one forced cell, and only that.
+     */
+    @Test
+    public void testApply() {
+        System.out.println("SnapshotContradictionReasoner apply");
+        String before = puzzle.snapshot().toString();
+        CompoundCommand result = new SnapshotContradictionReasoner(puzzle).apply();
+        assertNotNull(result);
+        assertEquals(1, result.size());
+        KSCell cell = result.getCells().iterator().next();
+        assertAll(
+                () -> assertTrue(result.isExecuted(), "executed"),
+                () -> assertNotEquals(KSCell.EMPTY, cell.getValue(), "filled"),
+                () -> assertTrue(puzzle.isValid(cell), "valid")
+        );
+        result.revert();
+        assertEquals(before, puzzle.snapshot().toString(), "reverted");
+    }
+
+    /**
+     * Test of apply method, in parallel: same result as sequentially,
+     * also when repeated to a fixpoint.
+     */
+    @Test
+    public void testApplyParallel() {
+        System.out.println("SnapshotContradictionReasoner apply, parallel");
+        CompoundCommand sequential = new SnapshotContradictionReasoner(puzzle).apply();
+        String expected = puzzle.snapshot().toString();
+        sequential.revert();
+        new SnapshotContradictionReasoner(puzzle, true).apply();
+        assertEquals(expected, puzzle.snapshot().toString(), "same cell");
+
+        puzzle.clear();
+        assertNotNull(new FixpointReasoner(puzzle,
+                new SnapshotContradictionReasoner(puzzle)).apply());
+        String fixpoint = puzzle.snapshot().toString();
+        puzzle.clear();
+        assertNotNull(new FixpointReasoner(puzzle,
+                new SnapshotContradictionReasoner(puzzle, true)).apply());
+        assertAll(
+                () -> assertTrue(puzzle.snapshot().getEmptyCount() < 81, "progress"),
+                () -> assertEquals(fixpoint, puzzle.snapshot().toString(), "fixpoint")
+        );
+    }
+
+    /**
+     * Test of apply method, on a state that cannot be completed.
+     */
+    @Test
+    public void testApplyContradiction() {
+        System.out.println("SnapshotContradictionReasoner apply, contradiction");
+        puzzle.getCell(0, 0).setState(1);
+        puzzle.getCell(0, 1).setState(1);
+        assertNull(new SnapshotContradictionReasoner(puzzle).apply());
+    }
+}
@@ -7,10 +7,13 @@ import ypa.model.KPuzzle;
 //import ypa.reasoning.FixpointReasoner;
 import ypa.reasoning.Reasoner;
 import ypa.reasoning.ReasonerTest;
+import ypa.reasoning.SinglesReasoner;
 import ypa.solvers.BacktrackSolver;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
 import java.util.Scanner;
 
@@ -72,6 +75,108 @@ public class BacktrackSolverTest {
         );
     }
 
+    /**
+     * Test of solve method, after cancel.
+     */
+    @Test
+    public void testSolveCanceled() {
+        System.out.println("solve canceled");
+        BacktrackSolver instance = new BacktrackSolver(puzzle, null);
+        String before = puzzle.toCompactGrid().toString();
+        instance.cancel();
+        assertAll(
+                () -> assertTrue(instance.isCancelled(), "isCancelled"),
+                () -> assertFalse(instance.solve(), "return value"),
+                () -> assertEquals(before, puzzle.toCompactGrid().toString(), "puzzle unchanged")
+        );
+    }
+
+    /**
+     * Test of constructor of BacktrackSolver, without selector.
+     */
+    @Test
+    public void testConstructorNullSelector() {
+        System.out.println("BacktrackSolver constructor, null selector");
+        Throwable e = assertThrows(IllegalArgumentException.class, () -> {
+            new BacktrackSolver(puzzle, null, null);
+        });
+        assertNotNull(e.getMessage(), "Message should not be null");
+    }
+
+    /**
+     * Test of solve method, with each standard cell selector.
+     */
+    @ParameterizedTest
+    @EnumSource(StandardCellSelector.class)
+    public void testSolveWithSelector(final StandardCellSelector selector) {
+        System.out.println("solve with " + selector);
+        BacktrackSolver instance = new BacktrackSolver(puzzle, null, selector);
+        boolean result = instance.solve();
+        System.out.println(selector + ": " + instance.getNodeCount() + " nodes");
+        KSCell cell = puzzle.getCell(0, 0);
+        assertAll(
+                () -> assertTrue(result, "return value"),
+                () -> assertTrue(puzzle.isSolved(cell), "puzzle solved"),
+                () -> assertTrue(instance.getNodeCount() > 0, "node count")
+        );
+    }
+
+    /**
+     * Test of getStatistics method: without reasoner, every node either
+     * stays on the path to the solution or is backtracked.
+     */
+    @Test
+    public void testGetStatistics() {
+        System.out.println("getStatistics");
+        BacktrackSolver instance = new BacktrackSolver(puzzle, null,
+                StandardCellSelector.MINIMUM_REMAINING_VALUES);
+        assertTrue(instance.solve());
+        SolverStatistics statistics = instance.getStatistics();
+        System.out.println(statistics);
+        assertAll(
+                () -> assertEquals(instance.getNodeCount(), statistics.nodes(), "nodes"),
+                () -> assertEquals(81, statistics.nodes() - statistics.backtracks(), "path"),
+                () -> assertEquals(81, statistics.maxDepth(), "maxDepth"),
+                () -> assertTrue(statistics.candidateChecks() >= statistics.nodes(), "checks"),
+                () -> assertEquals(0, statistics.reasonerInvocations(), "invocations"),
+                () -> assertTrue(statistics.wallTime() > 0, "wallTime")
+        );
+    }
+
+    /**
+     * Test of getStatistics method, with a reasoner.
+     */
+    @Test
+    public void testGetStatisticsWithReasoner() {
+        System.out.println("getStatistics with reasoner");
+        BacktrackSolver instance = new BacktrackSolver(puzzle, new SinglesReasoner(puzzle),
+                StandardCellSelector.MINIMUM_REMAINING_VALUES);
+        assertTrue(instance.solve());
+        SolverStatistics statistics = instance.getStatistics();
+        assertAll(
+                () -> assertTrue(statistics.reasonerInvocations() > statistics.backtracks(),
+                        "one application per valid node, and one at the root"),
+                () -> assertTrue(statistics.reasonerYield() > 0, "yield"),
+                () -> assertTrue(statistics.maxDepth() < 81, "maxDepth")
+        );
+    }
+
+    /**
+     * Test that minimum remaining values visits fewer nodes than first empty.
+     */
+    @Test
+    public void testMinimumRemainingValuesNodeCount() {
+        System.out.println("node count, MRV vs. first empty");
+        BacktrackSolver first = new BacktrackSolver(puzzle, null);
+        first.solve();
+        puzzle.clear();
+        BacktrackSolver mrv = new BacktrackSolver(puzzle, null,
+                StandardCellSelector.MINIMUM_REMAINING_VALUES);
+        mrv.solve();
+        assertTrue(mrv.getNodeCount() < first.getNodeCount(),
+                mrv.getNodeCount() + " < " + first.getNodeCount());
+    }
+
 //    /**
 //     * Test of solve method, of class BacktrackSolver.
 //     */
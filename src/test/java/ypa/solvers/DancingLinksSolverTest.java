@@ -0,0 +1,111 @@
+package ypa.solvers;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.Scanner;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+import ypa.command.Command;
+import ypa.model.KSCell;
+import ypa.model.KSPuzzle;
+
+/**
+ * Test cases for {@link DancingLinksSolver}.
+ */
+public class DancingLinksSolverTest {
+
+    /**
+     * Loads a killer sudoku from the "puzzles" folder.
+     */
+    private static KSPuzzle load(final String name) throws FileNotFoundException {
+        return new KSPuzzle(new Scanner(new File("puzzles/" + name)), name);
+    }
+
+    /**
+     * Test of constructor of DancingLinksSolver.
+     */
+    @Test
+    public void testConstructor() {
+        System.out.println("DancingLinksSolver constructor");
+        Throwable e = assertThrows(IllegalArgumentException.class, () -> {
+            new DancingLinksSolver(null);
+        });
+        assertNotNull(e.getMessage(), "Message should not be null");
+    }
+
+    /**
+     * Test of solve method, on the example puzzles.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"puzzle1.zgr", "puzzle2.zgr", "puzzle3.zgr", "puzzle4.zgr"})
+    public void testSolve(final String name) throws FileNotFoundException {
+        System.out.println("DancingLinksSolver solve " + name);
+        KSPuzzle puzzle = load(name);
+        DancingLinksSolver instance = new DancingLinksSolver(puzzle);
+
+        assertTrue(instance.solve(), "return value");
+        for (int i = 0; i < puzzle.getRowCount(); i++) {
+            for (int j = 0; j < puzzle.getColumnCount(); j++) {
+                KSCell cell = puzzle.getCell(i, j);
+                assertTrue(puzzle.isSolved(cell), "puzzle solved at " + i + ", " + j);
+            }
+        }
+        assertEquals(81, instance.getCommands().size(), "one command per cell");
+    }
+
+    /**
+     * Test that the recorded commands can be reverted.
+     */
+    @Test
+    public void testSolveCommandsRevertible() throws FileNotFoundException {
+        System.out.println("DancingLinksSolver solve, revert commands");
+        KSPuzzle puzzle = load("puzzle1.zgr");
+        DancingLinksSolver instance = new DancingLinksSolver(puzzle);
+        assertTrue(instance.solve());
+
+        for (Command command : instance.getCommands()) {
+            command.revert();
+        }
+        assertEquals(KSCell.EMPTY, puzzle.getCell(8, 8).getValue());
+    }
+
+    /**
+     * Test of getStatistics method.
+     */
+    @Test
+    public void testGetStatistics() throws FileNotFoundException {
+        System.out.println("DancingLinksSolver getStatistics");
+        DancingLinksSolver instance = new DancingLinksSolver(load("puzzle1.zgr"));
+        assertTrue(instance.solve());
+        SolverStatistics statistics = instance.getStatistics();
+        assertAll(
+                () -> assertTrue(statistics.nodes() > statistics.backtracks(), "nodes"),
+                () -> assertTrue(statistics.maxDepth() > 0, "maxDepth"),
+                () -> assertTrue(statistics.wallTime() > 0, "wallTime")
+        );
+    }
+
+    /**
+     * Test of solve method, from a state that cannot be completed.
+     */
+    @Test
+    public void testSolveUnsolvable() throws FileNotFoundException {
+        System.out.println("DancingLinksSolver solve, unsolvable");
+        KSPuzzle puzzle = load("puzzle1.zgr");
+        puzzle.getCell(0, 0).setState(1);
+        puzzle.getCell(0, 1).setState(1);
+        String before = puzzle.getCell(0, 2) + "|" + puzzle.getCell(8, 8);
+        DancingLinksSolver instance = new DancingLinksSolver(puzzle);
+
+        assertAll(
+                () -> assertFalse(instance.solve(), "return value"),
+                () -> assertTrue(instance.getCommands().isEmpty(), "no commands"),
+                () -> assertEquals(before, puzzle.getCell(0, 2) + "|" + puzzle.getCell(8, 8))
+        );
+    }
+
+}
@@ -0,0 +1,160 @@
+package ypa.solvers;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Scanner;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+import ypa.command.Command;
+import ypa.model.KSCell;
+import ypa.model.KSPuzzle;
+import ypa.reasoning.SinglesReasoner;
+
+/**
+ * Test cases for {@link IterativeBacktrackSolver}.
+ */
+public class IterativeBacktrackSolverTest {
+
+    /**
+     * Loads a killer sudoku from the "puzzles" folder.
+     */
+    private static KSPuzzle load(final String name) throws FileNotFoundException {
+        return new KSPuzzle(new Scanner(new File("puzzles/" + name)), name);
+    }
+
+    /**
+     * Test of constructor of IterativeBacktrackSolver.
+     */
+    @Test
+    public void testConstructor() throws FileNotFoundException {
+        System.out.println("IterativeBacktrackSolver constructor");
+        KSPuzzle puzzle = load("puzzle1.zgr");
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class, () -> {
+                    new IterativeBacktrackSolver(null, null,
+                            StandardCellSelector.FIRST_EMPTY);
+                }),
+                () -> assertThrows(IllegalArgumentException.class, () -> {
+                    new IterativeBacktrackSolver(puzzle, null, null);
+                })
+        );
+    }
+
+    /**
+     * Test of solve method: the search tree is the same as that of
+     * {@link BacktrackSolver}, with and without reasoner.
+     */
+    @ParameterizedTest
+    @CsvSource({
+        "puzzle1.zgr, FIRST_EMPTY, false",
+        "puzzle1.zgr, MINIMUM_REMAINING_VALUES, false",
+        "puzzle2.zgr, MINIMUM_REMAINING_VALUES, false",
+        "puzzle3.zgr, MINIMUM_REMAINING_VALUES, false",
+        "puzzle4.zgr, MINIMUM_REMAINING_VALUES, false",
+        "puzzle2.zgr, MINIMUM_REMAINING_VALUES, true",
+        "puzzle4.zgr, MINIMUM_REMAINING_VALUES, true"
+    })
+    public void testSolve(final String name, final StandardCellSelector selector,
+            final boolean reasoning) throws FileNotFoundException {
+        System.out.println("IterativeBacktrackSolver solve " + name + " " + selector
+                + (reasoning ? " with reasoner" : ""));
+        KSPuzzle expected = load(name);
+        BacktrackSolver recursive = new BacktrackSolver(expected,
+                reasoning ? new SinglesReasoner(expected) : null, selector);
+        assertTrue(recursive.solve());
+
+        KSPuzzle puzzle = load(name);
+        IterativeBacktrackSolver instance = new IterativeBacktrackSolver(puzzle,
+                reasoning ? new SinglesReasoner(puzzle) : null, selector);
+        assertTrue(instance.solve(), "return value");
+        SolverStatistics statistics = instance.getStatistics();
+        assertAll(
+                () -> assertTrue(puzzle.isSolved(puzzle.getCell(0, 0)), "puzzle solved"),
+                () -> assertEquals(expected.toCompactGrid().toString(),
+                        puzzle.toCompactGrid().toString(), "solution"),
+                () -> assertEquals(recursive.getNodeCount(), instance.getNodeCount(), "nodes"),
+                () -> assertEquals(recursive.getStatistics().backtracks(),
+                        statistics.backtracks(), "backtracks"),
+                () -> assertEquals(recursive.getStatistics().maxDepth(),
+                        statistics.maxDepth(), "maxDepth"),
+                () -> assertEquals(recursive.getStatistics().candidateChecks(),
+                        statistics.candidateChecks(), "candidateChecks")
+        );
+    }
+
+    /**
+     * Test that reverting the recorded commands, last first,
+     * restores the initial state.
+     */
+    @Test
+    public void testSolveCommandsRevertible() throws FileNotFoundException {
+        System.out.println("IterativeBacktrackSolver solve, revert commands");
+        KSPuzzle puzzle = load("puzzle3.zgr");
+        String before = puzzle.toCompactGrid().toString();
+        IterativeBacktrackSolver instance = new IterativeBacktrackSolver(puzzle,
+                new SinglesReasoner(puzzle), StandardCellSelector.MINIMUM_REMAINING_VALUES);
+        assertTrue(instance.solve());
+
+        List<Command> commands = new ArrayList<>(instance.getCommands());
+        Collections.reverse(commands);
+        for (Command command : commands) {
+            command.revert();
+        }
+        assertEquals(before, puzzle.toCompactGrid().toString());
+    }
+
+    /**
+     * Test of solve method, from a state that cannot be completed.
+     */
+    @Test
+    public void testSolveUnsolvable() throws FileNotFoundException {
+        System.out.println("IterativeBacktrackSolver solve, unsolvable");
+        KSPuzzle puzzle = load("puzzle1.zgr");
+        // the same digit twice in the top left nonet
+        puzzle.getCell(0, 0).setState(1);
+        puzzle.getCell(1, 1).setState(1);
+        String before = puzzle.toCompactGrid().toString();
+        IterativeBacktrackSolver instance = new IterativeBacktrackSolver(puzzle,
+                null, StandardCellSelector.MINIMUM_REMAINING_VALUES);
+
+        assertAll(
+                () -> assertFalse(instance.solve(), "return value"),
+                () -> assertTrue(instance.getCommands().isEmpty(), "no commands"),
+                () -> assertEquals(before, puzzle.toCompactGrid().toString(), "unchanged")
+        );
+    }
+
+    /**
+     * Test of solve method, canceled in the middle of the search.
+     */
+    @Test
+    public void testSolveCanceled() throws FileNotFoundException {
+        System.out.println("IterativeBacktrackSolver solve, canceled");
+        KSPuzzle puzzle = load("puzzle1.zgr");
+        String before = puzzle.toCompactGrid().toString();
+        IterativeBacktrackSolver[] instance = new IterativeBacktrackSolver[1];
+        int[] selections = new int[1];
+        // cancels once 5 cells have been selected
+        CellSelector selector = p -> {
+            if (++selections[0] == 5) {
+                instance[0].cancel();
+            }
+            return StandardCellSelector.FIRST_EMPTY.select(p);
+        };
+        instance[0] = new IterativeBacktrackSolver(puzzle, new SinglesReasoner(puzzle), selector);
+        assertAll(
+                () -> assertFalse(instance[0].solve(), "return value"),
+                () -> assertTrue(instance[0].getNodeCount() > 0, "search started"),
+                () -> assertEquals(before, puzzle.toCompactGrid().toString(), "unchanged"),
+                () -> assertEquals(KSCell.EMPTY, puzzle.getCell(0, 0).getValue())
+        );
+    }
+
+}
@@ -0,0 +1,106 @@
+package ypa.solvers;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.Scanner;
+
+import ypa.model.KCell;
+import ypa.model.KPuzzle;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for {@link KakuroSolver}.
+ */
+public class KakuroSolverTest {
+
+    /**
+     * Loads a Kakuro puzzle from the "puzzles" folder.
+     *
+     * @param name  the file name
+     * @return the puzzle
+     */
+    private static KPuzzle load(final String name) throws FileNotFoundException {
+        return new KPuzzle(new Scanner(new File("puzzles/" + name)), name);
+    }
+
+    /**
+     * Test of constructor, with null puzzle.
+     */
+    @Test
+    public void testConstructorNull() {
+        System.out.println("KakuroSolver constructor, null");
+        Throwable e = assertThrows(IllegalArgumentException.class, () -> {
+            new KakuroSolver(null);
+        });
+        assertNotNull(e.getMessage(), "Message should not be null");
+    }
+
+    /**
+     * Test of solve method, on Kakuro puzzles: one command per empty cell
+     * remains on the path to the solution.
+     *
+     * @param name  the file name of the puzzle
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"example.zgr", "intermediair-2001-24.zgr",
+        "intermediair-2002-02.zgr", "intermediair-2003-17.zgr"})
+    public void testSolve(final String name) throws FileNotFoundException {
+        System.out.println("solve " + name);
+        KPuzzle puzzle = load(name);
+        int empty = puzzle.getStateCount(KCell.EMPTY);
+        KakuroSolver instance = new KakuroSolver(puzzle);
+        boolean result = instance.solve();
+        System.out.println(puzzle.gridAsString());
+        SolverStatistics statistics = instance.getStatistics();
+        System.out.println(statistics);
+        assertAll(
+                () -> assertTrue(result, "return value"),
+                () -> assertTrue(puzzle.isSolved(), "puzzle solved"),
+                () -> assertEquals(empty, instance.getCommands().size(), "commands"),
+                () -> assertEquals(empty, statistics.nodes() - statistics.backtracks(), "path"),
+                () -> assertEquals(empty, statistics.maxDepth(), "maxDepth")
+        );
+    }
+
+    /**
+     * Test of solve method, on a puzzle without solution.
+     */
+    @Test
+    public void testSolveUnsolvable() {
+        System.out.println("solve, unsolvable");
+        KPuzzle puzzle = new KPuzzle(new Scanner("""
+                a 2 -  4 2
+                b 2 -  4 2
+                a 2 |  3 2
+                a 3 |  5 2
+                """), "unsolvable");
+        KakuroSolver instance = new KakuroSolver(puzzle);
+        assertAll(
+                () -> assertFalse(instance.solve(), "return value"),
+                () -> assertEquals(4, puzzle.getStateCount(KCell.EMPTY), "puzzle unchanged"),
+                () -> assertTrue(instance.getCommands().isEmpty(), "commands")
+        );
+    }
+
+    /**
+     * Test of solve method, after cancel.
+     */
+    @Test
+    public void testSolveCanceled() throws FileNotFoundException {
+        System.out.println("solve canceled");
+        KPuzzle puzzle = load("intermediair-2001-24.zgr");
+        String before = puzzle.toString();
+        KakuroSolver instance = new KakuroSolver(puzzle);
+        instance.cancel();
+        assertAll(
+                () -> assertTrue(instance.isCancelled(), "isCancelled"),
+                () -> assertFalse(instance.solve(), "return value"),
+                () -> assertEquals(before, puzzle.toString(), "puzzle unchanged")
+        );
+    }
+}
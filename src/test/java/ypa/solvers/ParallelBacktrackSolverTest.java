@@ -0,0 +1,164 @@
+package ypa.solvers;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+import ypa.model.KSCell;
+import ypa.model.KSPuzzle;
+
+/**
+ * Test cases for {@link ParallelBacktrackSolver}.
+ */
+public class ParallelBacktrackSolverTest {
+
+    private static ForkJoinPool pool;
+
+    /**
+     * Creates a pool with a few workers.
+     */
+    @BeforeAll
+    static void setUpPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    /**
+     * Shuts down the pool.
+     */
+    @AfterAll
+    static void tearDownPool() {
+        pool.shutdown();
+    }
+
+    /**
+     * Loads a killer sudoku from the "puzzles" folder.
+     */
+    private static KSPuzzle load(final String name) throws FileNotFoundException {
+        return new KSPuzzle(new Scanner(new File("puzzles/" + name)), name);
+    }
+
+    /**
+     * Test of constructor of ParallelBacktrackSolver.
+     */
+    @Test
+    public void testConstructor() throws FileNotFoundException {
+        System.out.println("ParallelBacktrackSolver constructor");
+        KSPuzzle puzzle = load("puzzle1.zgr");
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> new ParallelBacktrackSolver(null)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> new ParallelBacktrackSolver(puzzle, -1, pool)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> new ParallelBacktrackSolver(puzzle, 2, null))
+        );
+    }
+
+    /**
+     * Test of solve method, on the example puzzles and several split depths.
+     */
+    @ParameterizedTest
+    @CsvSource({"puzzle1.zgr, 0", "puzzle1.zgr, 3", "puzzle2.zgr, 2", "puzzle3.zgr, 4",
+        "puzzle4.zgr, 3", "puzzle4.zgr, 100"})
+    public void testSolve(final String name, final int splitDepth) throws FileNotFoundException {
+        System.out.println("ParallelBacktrackSolver solve " + name + ", depth " + splitDepth);
+        KSPuzzle puzzle = load(name);
+        ParallelBacktrackSolver instance = new ParallelBacktrackSolver(puzzle, splitDepth, pool);
+
+        assertTrue(instance.solve(), "return value");
+        for (int i = 0; i < puzzle.getRowCount(); i++) {
+            for (int j = 0; j < puzzle.getColumnCount(); j++) {
+                assertTrue(puzzle.isSolved(puzzle.getCell(i, j)), "solved at " + i + ", " + j);
+            }
+        }
+        assertAll(
+                () -> assertEquals(81, instance.getCommands().size(), "one command per cell"),
+                () -> assertTrue(instance.getNodeCount() > 0, "node count")
+        );
+    }
+
+    /**
+     * Test of getStatistics method: the tasks fill in all search counters.
+     * Without splitting, the path to the solution places one digit per
+     * empty cell.
+     */
+    @ParameterizedTest
+    @CsvSource({"puzzle1.zgr, 0", "puzzle4.zgr, 0", "puzzle1.zgr, 3"})
+    public void testGetStatistics(final String name, final int splitDepth)
+            throws FileNotFoundException {
+        System.out.println("ParallelBacktrackSolver getStatistics " + name
+                + ", depth " + splitDepth);
+        KSPuzzle puzzle = load(name);
+        int empty = 0;
+        for (int i = 0; i < puzzle.getRowCount(); i++) {
+            for (int j = 0; j < puzzle.getColumnCount(); j++) {
+                if (puzzle.getCell(i, j).getValue() == KSCell.EMPTY) {
+                    empty++;
+                }
+            }
+        }
+        final int emptyCount = empty;
+        ParallelBacktrackSolver instance = new ParallelBacktrackSolver(puzzle, splitDepth, pool);
+        assertTrue(instance.solve(), "return value");
+        SolverStatistics statistics = instance.getStatistics();
+        System.out.println(statistics);
+        assertAll(
+                () -> assertEquals(instance.getNodeCount(), statistics.nodes(), "nodes"),
+                () -> assertEquals(emptyCount, statistics.maxDepth(), "maxDepth"),
+                () -> assertTrue(statistics.candidateChecks() >= statistics.nodes(),
+                        "candidateChecks"),
+                () -> assertTrue(statistics.backtracks() < statistics.nodes(), "backtracks"),
+                () -> assertEquals(0, statistics.reasonerInvocations(), "reasonerInvocations")
+        );
+        if (splitDepth == 0) {
+            assertEquals(emptyCount, statistics.nodes() - statistics.backtracks(), "path");
+        }
+    }
+
+    /**
+     * Test of solve method, from a state that cannot be completed.
+     */
+    @Test
+    public void testSolveUnsolvable() throws FileNotFoundException {
+        System.out.println("ParallelBacktrackSolver solve, unsolvable");
+        KSPuzzle puzzle = load("puzzle1.zgr");
+        // the cage of (0, 0) and (0, 1) sums to 3
+        puzzle.getCell(0, 0).setState(2);
+        puzzle.getCell(0, 2).setState(1);
+        ParallelBacktrackSolver instance = new ParallelBacktrackSolver(puzzle, 2, pool);
+
+        assertAll(
+                () -> assertFalse(instance.solve(), "return value"),
+                () -> assertTrue(instance.getCommands().isEmpty(), "no commands"),
+                () -> assertEquals(KSCell.EMPTY, puzzle.getCell(0, 1).getValue())
+        );
+    }
+
+    /**
+     * Test of solve method, after cancel: the tasks above the split depth
+     * notice the solver's cancellation, and do not fork.
+     */
+    @Test
+    public void testSolveCanceled() throws FileNotFoundException {
+        System.out.println("ParallelBacktrackSolver solve canceled");
+        KSPuzzle puzzle = load("puzzle1.zgr");
+        String before = puzzle.toCompactGrid().toString();
+        ParallelBacktrackSolver instance = new ParallelBacktrackSolver(puzzle, 2, pool);
+        instance.cancel();
+        assertAll(
+                () -> assertFalse(instance.solve(), "return value"),
+                () -> assertEquals(0, instance.getNodeCount(), "no nodes"),
+                () -> assertTrue(instance.getCommands().isEmpty(), "no commands"),
+                () -> assertEquals(before, puzzle.toCompactGrid().toString(), "puzzle unchanged")
+        );
+    }
+
+}
@@ -0,0 +1,130 @@
+package ypa.solvers;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.Scanner;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+import ypa.model.KSCompactGrid;
+import ypa.model.KSPuzzle;
+
+/**
+ * Test cases for {@link SolutionCounter}.
+ */
+public class SolutionCounterTest {
+
+    /**
+     * Loads a killer sudoku from the "puzzles" folder.
+     */
+    private static KSPuzzle load(final String name) throws FileNotFoundException {
+        return new KSPuzzle(new Scanner(new File("puzzles/" + name)), name);
+    }
+
+    /**
+     * Makes a killer sudoku whose cages are the rows, which has
+     * as many solutions as a plain empty sudoku.
+     */
+    private static KSPuzzle rowCages() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 1; i <= 9; i++) {
+            text.append((i + " ").repeat(9)).append('\n');
+        }
+        text.append("45 ".repeat(9));
+        return new KSPuzzle(new Scanner(text.toString()), "rows");
+    }
+
+    /**
+     * Test of constructor of SolutionCounter.
+     */
+    @Test
+    public void testConstructor() throws FileNotFoundException {
+        System.out.println("SolutionCounter constructor");
+        KSPuzzle puzzle = load("puzzle1.zgr");
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> new SolutionCounter(null, 2)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> new SolutionCounter(puzzle, 0)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> new SolutionCounter(puzzle, 2, -1, ForkJoinPool.commonPool())),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> new SolutionCounter(puzzle, 2, 1, null))
+        );
+    }
+
+    /**
+     * Test of count method: the example puzzles have one solution,
+     * and are not modified.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"puzzle1.zgr", "puzzle2.zgr", "puzzle3.zgr", "puzzle4.zgr"})
+    public void testCountUnique(final String name) throws FileNotFoundException {
+        System.out.println("SolutionCounter count " + name);
+        KSPuzzle puzzle = load(name);
+        String before = puzzle.toCompactGrid().toString();
+        SolutionCounter instance = new SolutionCounter(puzzle, 2);
+        assertAll(
+                () -> assertEquals(1, instance.count(), "count"),
+                () -> assertTrue(instance.isUnique(), "isUnique"),
+                () -> assertTrue(instance.getNodeCount() > 0, "node count"),
+                () -> assertEquals(before, puzzle.toCompactGrid().toString(), "unchanged")
+        );
+    }
+
+    /**
+     * Test of count method, for a puzzle with many solutions:
+     * counting stops at the limit, in parallel and sequentially.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 5, 100})
+    public void testCountLimit(final int limit) {
+        System.out.println("SolutionCounter count, limit " + limit);
+        KSPuzzle puzzle = rowCages();
+        assertAll(
+                () -> assertEquals(limit, new SolutionCounter(puzzle, limit).count(), "parallel"),
+                () -> assertEquals(limit, new SolutionCounter(puzzle, limit, 0,
+                        ForkJoinPool.commonPool()).count(), "sequential")
+        );
+        assertFalse(new SolutionCounter(puzzle, 2).isUnique(), "isUnique");
+    }
+
+    /**
+     * Test of count method, from a state that cannot be completed.
+     */
+    @Test
+    public void testCountUnsolvable() throws FileNotFoundException {
+        System.out.println("SolutionCounter count, unsolvable");
+        KSPuzzle puzzle = load("puzzle1.zgr");
+        puzzle.getCell(0, 0).setState(1);
+        puzzle.getCell(0, 1).setState(1);
+        assertEquals(0, new SolutionCounter(puzzle, 2).count());
+    }
+
+    /**
+     * Test of count method, for a compact grid, with a node limit:
+     * a count that exceeds the limit is given up, and is not unique.
+     */
+    @Test
+    public void testCountGridNodeLimit() throws FileNotFoundException {
+        System.out.println("SolutionCounter count grid, node limit");
+        KSCompactGrid grid = load("puzzle1.zgr").toCompactGrid();
+        String before = grid.toString();
+        SolutionCounter instance = new SolutionCounter(grid, 2, 0, ForkJoinPool.commonPool());
+        assertTrue(instance.isUnique(), "isUnique");
+        long nodes = instance.getNodeCount();
+        instance.setNodeLimit(nodes / 2);
+        assertAll(
+                () -> assertFalse(instance.isUnique(), "isUnique, limited"),
+                () -> assertTrue(instance.isAborted(), "isAborted"),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> instance.setNodeLimit(-1)),
+                () -> assertEquals(before, grid.toString(), "unchanged")
+        );
+    }
+
+}
@@ -0,0 +1,78 @@
+package ypa.solvers;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for {@link SolverMonitor}.
+ */
+public class SolverMonitorTest {
+
+    /**
+     * Test of record method.
+     */
+    @Test
+    public void testRecord() {
+        System.out.println("SolverMonitor record");
+        SolverMonitor instance = new SolverMonitor();
+        instance.record("easy", new SolverStatistics(10, 5, 2, 30, 0, 0, 3_000_000, 2_000_000));
+        instance.record("hard", new SolverStatistics(90, 9, 40, 300, 0, 0, 7_000_000, 5_000_000));
+        instance.record("medium", new SolverStatistics(50, 8, 9, 100, 0, 0, 0, 0));
+        assertAll(
+                () -> assertEquals(3, instance.getSolveCount(), "solveCount"),
+                () -> assertEquals(150, instance.getTotalNodes(), "totalNodes"),
+                () -> assertEquals(51, instance.getTotalBacktracks(), "totalBacktracks"),
+                () -> assertEquals(10, instance.getTotalWallTimeMillis(), "wall"),
+                () -> assertEquals(7, instance.getTotalCpuTimeMillis(), "cpu"),
+                () -> assertEquals(90, instance.getMaxNodes(), "maxNodes"),
+                () -> assertEquals("hard", instance.getMaxNodesPuzzle(), "maxNodesPuzzle"),
+                () -> assertTrue(instance.getLastStatistics().startsWith("nodes=50 "), "last")
+        );
+
+        instance.reset();
+        assertAll(
+                () -> assertEquals(0, instance.getSolveCount(), "solveCount"),
+                () -> assertNull(instance.getMaxNodesPuzzle(), "maxNodesPuzzle"),
+                () -> assertNull(instance.getLastStatistics(), "last")
+        );
+    }
+
+    /**
+     * Test of record method, with null statistics.
+     */
+    @Test
+    public void testRecordNull() {
+        System.out.println("SolverMonitor record, null");
+        Throwable e = assertThrows(IllegalArgumentException.class, () -> {
+            new SolverMonitor().record("none", null);
+        });
+        assertNotNull(e.getMessage(), "Message should not be null");
+    }
+
+    /**
+     * Test of register method: the attributes are available via JMX.
+     */
+    @Test
+    public void testRegister() throws JMException {
+        System.out.println("SolverMonitor register");
+        SolverMonitor instance = new SolverMonitor();
+        instance.record("one", new SolverStatistics(7, 1, 0, 9, 0, 0, 0, 0));
+        instance.register();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(SolverMonitor.OBJECT_NAME);
+        try {
+            assertEquals(7L, server.getAttribute(name, "TotalNodes"));
+            assertEquals("one", server.getAttribute(name, "MaxNodesPuzzle"));
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+
+}
@@ -0,0 +1,67 @@
+package ypa.solvers;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.Scanner;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import ypa.model.KSPuzzle;
+
+/**
+ * Test cases for {@link StandardCellSelector}.
+ */
+public class StandardCellSelectorTest {
+
+    private KSPuzzle puzzle;
+
+    /**
+     * Load in the example killer sudoku for testing.
+     */
+    @BeforeEach
+    void setUp() {
+        try {
+            Scanner scanner = new Scanner(new File("puzzles/puzzle1.zgr"));
+            puzzle = new KSPuzzle(scanner, "TestPuzzle");
+        } catch (FileNotFoundException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Test of select, for the first empty cell.
+     */
+    @Test
+    public void testSelectFirstEmpty() {
+        System.out.println("StandardCellSelector FIRST_EMPTY");
+        puzzle.getCell(0, 0).setState(1);
+        assertSame(puzzle.getCell(0, 1), StandardCellSelector.FIRST_EMPTY.select(puzzle));
+    }
+
+    /**
+     * Test of select, for minimum remaining values.
+     */
+    @Test
+    public void testSelectMinimumRemainingValues() {
+        System.out.println("StandardCellSelector MINIMUM_REMAINING_VALUES");
+        // the cage of (0, 0) and (0, 1) sums to 3, so (0, 1) must be 1
+        puzzle.getCell(0, 0).setState(2);
+        assertSame(puzzle.getCell(0, 1),
+                StandardCellSelector.MINIMUM_REMAINING_VALUES.select(puzzle));
+    }
+
+    /**
+     * Test of select, on a full grid.
+     */
+    @Test
+    public void testSelectFull() {
+        System.out.println("StandardCellSelector, full grid");
+        new BacktrackSolver(puzzle, null).solve();
+        for (StandardCellSelector selector : StandardCellSelector.values()) {
+            assertNull(selector.select(puzzle), selector.toString());
+        }
+    }
+
+}